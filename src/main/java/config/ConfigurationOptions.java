@@ -5,7 +5,7 @@ package config;
  * This class makes it easy to adjust values and/or add new features to the application.
  *
  * @author Jonas Birkeli
- * @version 1.0.0
+ * @version 1.5.0
  * @since 1.0.0
  */
 public class ConfigurationOptions {
@@ -19,6 +19,8 @@ public class ConfigurationOptions {
   public static final int STATE_CHANGE_TIME = 8;
   public static final int STATE_EXIT = 9;
   public static final int STATE_HELP = 10;
+  public static final int STATE_SAVE_STATION = 11;
+  public static final int STATE_LIVE_BOARD = 12;
 
   public static final String STATION_DEPARTURE_SCREEN_TITLE =
       "AVGANGER Departures                      SPOR Track   TOG-NUMMER Train-number";
@@ -27,6 +29,26 @@ public class ConfigurationOptions {
   // Øvraørnefjeddstakkslåttå is the city in Norway with the longest name
   public static final int MAX_LINE_LENGTH = 3;
   public static final int MAX_TRACK_LENGTH = 3;
+  public static final int DEPARTURE_BOARD_PAGE_SIZE = 20;
+  // Number of departures shown at a time on the departure board
+  public static final int LIVE_BOARD_ROWS = 10;
+  // Number of departures shown on the live board, above the menu
+  public static final int LIVE_BOARD_FRAMES_PER_SECOND = 4;
+  // Number of times a second the live board is drawn
+  public static final String BOARD_DISPLAY_FILE = "board.txt";
+  // File the live board is written to, for platform displays reading it
+  public static final int BOARD_SOCKET_PORT = 7321;
+  // Local TCP port the live board is sent to every connected program on
+  public static final String STATION_SNAPSHOT_FILE = "station.snapshot";
+  // File the station is saved to on exit, and restored from on startup
+  public static final String STATION_JOURNAL_FILE = "station.journal";
+  // File every change since the last save is written to, and replayed from on startup
+  public static final int JOURNAL_BATCH_SIZE = 32;
+  // Number of changes written to the journal together
+  public static final long JOURNAL_BATCH_DELAY_MILLIS = 200;
+  // Longest time a change waits before it is written to the journal
+  public static final long CHECKPOINT_JOURNAL_BYTES = 64 * 1024;
+  // Growth of the journal after which the station is saved in the background
 
   // Produced by CoPilot
   private ConfigurationOptions() {}
@@ -0,0 +1,337 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import utility.MinuteOfDay;
+
+/**
+ * Departure storage for very large timetables, keeping every field of the departures in its own
+ * column instead of in one object per departure.
+ * <br>
+ * Train-number, departure time, delay and track are kept in plain {@code int} arrays, indexed by
+ * row. Lines and destinations are dictionary encoded in a {@link SymbolTable}: every distinct
+ * string is stored once, and the rows only hold its code. A row therefore takes 24 bytes in the
+ * columns, with no object headers or pointers, and queries scan the columns they need from start
+ * to end, which is cache-friendly.
+ * <br>
+ * A {@link RowIndex} maps train-numbers to rows. Removing a departure moves the last
+ * row into the hole, so the rows are always packed at the start of the columns.
+ * <br>
+ * The {@code TrainDeparture}s returned by the queries are created from the columns when the
+ * query runs. They are not connected to the store, so changes to them are not stored.
+ * Changes must be made through {@link #setDelay(int, int, int)} and {@link #setTrack(int, int)}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public final class ColumnarDepartureStore {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] trainNumbers;
+  private int[] departureMinutes;
+  private int[] delayMinutes;
+  private int[] tracks;
+  private int[] lineCodes;
+  private int[] destinationCodes;
+  private int size;
+  private final SymbolTable symbolTable;
+  private final RowIndex rowIndex;
+
+  /**
+   * Constructs an empty {@code ColumnarDepartureStore} with room for a few departures.
+   *
+   * @since 1.0.0
+   */
+  public ColumnarDepartureStore() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty {@code ColumnarDepartureStore} with room for the given number of
+   * departures before the columns are grown.
+   *
+   * @param initialCapacity The number of departures to make room for.
+   * @since 1.0.0
+   */
+  public ColumnarDepartureStore(int initialCapacity) {
+    int capacity = Math.max(initialCapacity, DEFAULT_CAPACITY);
+    trainNumbers = new int[capacity];
+    departureMinutes = new int[capacity];
+    delayMinutes = new int[capacity];
+    tracks = new int[capacity];
+    lineCodes = new int[capacity];
+    destinationCodes = new int[capacity];
+    size = 0;
+    symbolTable = new SymbolTable();
+    rowIndex = new RowIndex(capacity);
+  }
+
+  /**
+   * Adds a {@code TrainDeparture} to the store. Only the values of the {@code TrainDeparture}
+   * are copied into the columns, the object itself is not kept.
+   * If a departure with the same train-number already exists, it is replaced.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to add. Ignored if {@code null}.
+   * @since 1.0.0
+   */
+  public void addTrainDeparture(TrainDeparture trainDeparture) {
+    if (trainDeparture != null) {
+      int row = rowIndex.get(trainDeparture.getTrainNumber());
+
+      if (row < 0) {
+        ensureCapacity(size + 1);
+        row = size++;
+        rowIndex.put(trainDeparture.getTrainNumber(), row);
+      }
+      trainNumbers[row] = trainDeparture.getTrainNumber();
+      departureMinutes[row] = trainDeparture.getDepartureMinuteOfDay();
+      delayMinutes[row] = trainDeparture.getDelayMinutes();
+      tracks[row] = trainDeparture.getTrack();
+      lineCodes[row] = symbolTable.intern(trainDeparture.getLine());
+      destinationCodes[row] = symbolTable.intern(trainDeparture.getDestination());
+    }
+  }
+
+  /**
+   * Removes the departure with the given train-number.
+   * The last row is moved into the row of the removed departure.
+   *
+   * @param trainNumber The train-number of the departure to remove.
+   * @return {@code true} if a departure was removed, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean removeTrainDeparture(int trainNumber) {
+    int row = rowIndex.remove(trainNumber);
+
+    if (row >= 0) {
+      int last = --size;
+      if (row != last) {
+        trainNumbers[row] = trainNumbers[last];
+        departureMinutes[row] = departureMinutes[last];
+        delayMinutes[row] = delayMinutes[last];
+        tracks[row] = tracks[last];
+        lineCodes[row] = lineCodes[last];
+        destinationCodes[row] = destinationCodes[last];
+        rowIndex.put(trainNumbers[row], row);
+      }
+    }
+    return row >= 0;
+  }
+
+  /**
+   * Sets the delay of the departure with the given train-number.
+   * Negative values set the delay to 0, like {@link TrainDeparture#setDelay(int, int)}.
+   *
+   * @param trainNumber The train-number of the departure to delay.
+   * @param hour The hour of the delay.
+   * @param minute The minute of the delay.
+   * @return {@code true} if the departure was found, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean setDelay(int trainNumber, int hour, int minute) {
+    int row = rowIndex.get(trainNumber);
+
+    if (row >= 0) {
+      delayMinutes[row] = hour < 0 || minute < 0 ? 0 : MinuteOfDay.of(hour, minute);
+    }
+    return row >= 0;
+  }
+
+  /**
+   * Sets the track of the departure with the given train-number.
+   * Tracks that are not positive are stored as -1, like {@link TrainDeparture#setTrack(int)}.
+   *
+   * @param trainNumber The train-number of the departure to change.
+   * @param track The new track.
+   * @return {@code true} if the departure was found, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean setTrack(int trainNumber, int track) {
+    int row = rowIndex.get(trainNumber);
+
+    if (row >= 0) {
+      tracks[row] = track <= 0 ? -1 : track;
+    }
+    return row >= 0;
+  }
+
+  /**
+   * Returns the departure with the given train-number, created from the columns.
+   *
+   * @param trainNumber The train-number of the departure to return.
+   * @return A new {@code TrainDeparture} with the values of the row, or {@code null}.
+   * @since 1.0.0
+   */
+  public TrainDeparture getTrainDepartureByTrainNumber(int trainNumber) {
+    int row = rowIndex.get(trainNumber);
+    return row < 0 ? null : toTrainDeparture(row);
+  }
+
+  /**
+   * Checks whether the store has a departure with the given train-number.
+   *
+   * @param trainNumber The train-number to check for.
+   * @return {@code true} if the store has the train-number, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean hasTrainDepartureWithTrainNumber(int trainNumber) {
+    return rowIndex.get(trainNumber) >= 0;
+  }
+
+  /**
+   * Returns the number of departures in the store.
+   *
+   * @return The number of departures in the store.
+   * @since 1.0.0
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a stream of the departures that have not left at the given time, in the same order
+   * as {@link Station#getStreamOfTimeFilteredTrainDepartures()}: by departure time including
+   * delay, then by departure time without delay, then by train-number.
+   * Only the departure time, delay and train-number columns are scanned.
+   *
+   * @param minuteOfDay The time of the station, in minutes since 00:00.
+   * @return A stream of the departures that have not left, sorted by departure time including
+   *        delay.
+   * @since 1.0.0
+   */
+  public Stream<TrainDeparture> getStreamOfTimeFilteredTrainDepartures(int minuteOfDay) {
+    long[] keys = new long[size];
+    int count = 0;
+
+    for (int row = 0; row < size; row++) {
+      if (MinuteOfDay.plus(departureMinutes[row], delayMinutes[row]) >= minuteOfDay) {
+        keys[count++] = sortKeyOf(row);
+      }
+    }
+    return toSortedStream(keys, count);
+  }
+
+  /**
+   * Returns a stream of the departures with a destination containing the given partial
+   * destination, in the same order as
+   * {@link Station#getAllTrainDeparturesByPartialDestination(String)}. The search is not
+   * case-sensitive.
+   * Only the case-folded forms in the {@code SymbolTable} are compared as strings. The rows are
+   * then found by scanning the destination codes.
+   *
+   * @param partialDestination The partial destination to search for.
+   * @return A stream of the matching departures, sorted by departure time including delay.
+   * @since 1.0.0
+   */
+  public Stream<TrainDeparture> getAllTrainDeparturesByPartialDestination(
+      String partialDestination
+  ) {
+    boolean[] matchingCodes = symbolTable.codesContaining(partialDestination);
+    long[] keys = new long[size];
+    int count = 0;
+
+    for (int row = 0; row < size; row++) {
+      if (matchingCodes[destinationCodes[row]]) {
+        keys[count++] = sortKeyOf(row);
+      }
+    }
+    return toSortedStream(keys, count);
+  }
+
+  /**
+   * Returns the next departures to leave at or after the given time, in the same order as
+   * {@link Station#getNextTrainDepartures(int)}.
+   *
+   * @param minuteOfDay The time to start from, in minutes since 00:00.
+   * @param count The largest number of departures to return.
+   * @return A list of at most {@code count} departures.
+   * @since 1.0.0
+   */
+  public List<TrainDeparture> getNextTrainDepartures(int minuteOfDay, int count) {
+    long[] keys = new long[size];
+    int found = 0;
+
+    for (int row = 0; row < size; row++) {
+      if (MinuteOfDay.plus(departureMinutes[row], delayMinutes[row]) >= minuteOfDay) {
+        keys[found++] = sortKeyOf(row);
+      }
+    }
+    Arrays.sort(keys, 0, found);
+
+    List<TrainDeparture> nextTrainDepartures = new ArrayList<>(Math.max(Math.min(count, found), 0));
+    for (int i = 0; i < found && i < count; i++) {
+      nextTrainDepartures.add(toTrainDeparture(rowIndex.get((int) keys[i])));
+    }
+    return nextTrainDepartures;
+  }
+
+  /**
+   * Sorts the keys, and maps every key back to its row through the train-number in the lower
+   * 32 bits of the key.
+   *
+   * @param keys The keys to sort.
+   * @param count The number of keys in use.
+   * @return A stream of the departures in the order of the keys.
+   * @since 1.0.0
+   */
+  private Stream<TrainDeparture> toSortedStream(long[] keys, int count) {
+    Arrays.sort(keys, 0, count);
+    List<TrainDeparture> sorted = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      // Creating the departures now, so later changes to the columns are not seen by the stream
+      sorted.add(toTrainDeparture(rowIndex.get((int) keys[i])));
+    }
+    return sorted.stream();
+  }
+
+  /**
+   * Returns the sort key of the departure in the given row, the same as the sort key of the
+   * {@code TrainDeparture} made from it.
+   *
+   * @param row The row of the departure.
+   * @return The sort key of the departure.
+   * @since 1.2.0
+   */
+  private long sortKeyOf(int row) {
+    return TrainDeparture.sortKeyOf(MinuteOfDay.plus(departureMinutes[row], delayMinutes[row]),
+        departureMinutes[row], trainNumbers[row]);
+  }
+
+  /**
+   * Creates a {@code TrainDeparture} from the values of the given row.
+   *
+   * @param row The row to create the {@code TrainDeparture} from.
+   * @return A new {@code TrainDeparture} with the values of the row.
+   * @since 1.0.0
+   */
+  private TrainDeparture toTrainDeparture(int row) {
+    TrainDeparture trainDeparture = new TrainDeparture(
+        MinuteOfDay.hour(departureMinutes[row]), MinuteOfDay.minute(departureMinutes[row]),
+        symbolTable.symbol(lineCodes[row]), symbolTable.symbol(destinationCodes[row]),
+        tracks[row], trainNumbers[row]
+    );
+    trainDeparture.setDelay(0, delayMinutes[row]);
+    return trainDeparture;
+  }
+
+  /**
+   * Grows every column so it can hold the given number of rows.
+   *
+   * @param capacity The number of rows needed.
+   * @since 1.0.0
+   */
+  private void ensureCapacity(int capacity) {
+    if (capacity > trainNumbers.length) {
+      int newCapacity = Math.max(capacity, trainNumbers.length * 2);
+      trainNumbers = Arrays.copyOf(trainNumbers, newCapacity);
+      departureMinutes = Arrays.copyOf(departureMinutes, newCapacity);
+      delayMinutes = Arrays.copyOf(delayMinutes, newCapacity);
+      tracks = Arrays.copyOf(tracks, newCapacity);
+      lineCodes = Arrays.copyOf(lineCodes, newCapacity);
+      destinationCodes = Arrays.copyOf(destinationCodes, newCapacity);
+    }
+  }
+}
@@ -0,0 +1,406 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import utility.Clock;
+import utility.MinuteOfDay;
+
+/**
+ * Thread-safe version of {@link Station}, which can be shared by the departure board,
+ * feeds writing delays and several dispatchers at the same time.
+ * <br>
+ * The station keeps its own copy of every {@code TrainDeparture} added, which is only read and
+ * changed while holding one write lock, so changes never overlap. Readers never see them. After every change, the station publishes
+ * an immutable {@link TrainDepartureSnapshot} of the departure, and readers only ever get
+ * snapshots, so every value they read belongs to the same version of the departure.
+ * The snapshots are kept in concurrent collections:
+ *   <ul>
+ *     <li>a {@code ConcurrentHashMap} from train-number to {@code TrainDepartureSnapshot},</li>
+ *     <li>a {@code ConcurrentSkipListMap} keyed by the sort key of every departure, so ordered
+ *     by departure time including delay like the board of {@code Station}, which is also used
+ *     for removing departures that have left.</li>
+ *   </ul>
+ * Reading the board, looking up a train-number and reading the station time never take a lock,
+ * and never block writers. Searching by destination takes a read lock on the
+ * {@link DestinationIndex} only, which writers hold for a few operations at a time.
+ * <br>
+ * A change is not atomic for readers. When adding, the snapshot is put in the map before the
+ * index, and when removing, it is taken out of the index before the map. A reader may
+ * therefore find a departure by train-number shortly before it shows on the board,
+ * but never sees a departure on the board that can not be looked up. A delayed departure is put
+ * at its new place on the board before it is taken from the old, so a reader walking the board
+ * while it moves may see it at both places, each time as a complete snapshot.
+ * <br>
+ * Delays and tracks can only be changed through {@link #setDelay(int, int, int)} and
+ * {@link #setTrack(int, int)}, which hold the write lock. The {@code TrainDeparture} given to
+ * {@link #addTrainDeparture(TrainDeparture)} stays with the caller, and changing it afterwards
+ * does not change the station.
+ * Unlike {@code Station}, there is no selected departure, as that belongs to each dispatcher.
+ *
+ * @author Jonas Birkeli
+ * @version 1.4.0
+ * @since 1.0.0
+ */
+public class ConcurrentStation {
+  private final HashMap<Integer, TrainDeparture> trainDepartures;
+  private final ConcurrentHashMap<Integer, TrainDepartureSnapshot> snapshots;
+  private final ConcurrentSkipListMap<Long, TrainDepartureSnapshot> departureIndex;
+  private final DestinationIndex destinationIndex;
+  private final ReentrantReadWriteLock destinationLock;
+  private final ReentrantLock writeLock;
+  private volatile int stationMinute;
+
+  /**
+   * Constructs an empty {@code ConcurrentStation}, with the time of the station set to 00:00.
+   *
+   * @since 1.0.0
+   */
+  public ConcurrentStation() {
+    trainDepartures = new HashMap<>();
+    snapshots = new ConcurrentHashMap<>();
+    departureIndex = new ConcurrentSkipListMap<>();
+    destinationIndex = new DestinationIndex();
+    destinationLock = new ReentrantReadWriteLock();
+    writeLock = new ReentrantLock();
+    stationMinute = 0;
+  }
+
+  /**
+   * Adds a {@code TrainDeparture} to the station.
+   * If a {@code TrainDeparture} with the same train-number already exists, it is replaced.
+   * The station keeps a copy of the {@code TrainDeparture}, and only gives out snapshots of it,
+   * so later changes to the given {@code TrainDeparture} are not seen by the station.
+   *
+   * @param added The {@code TrainDeparture} to add. Ignored if {@code null}.
+   * @since 1.0.0
+   */
+  public void addTrainDeparture(TrainDeparture added) {
+    if (added != null) {
+      // Copied before taking the lock, as only the caller may change the given departure
+      TrainDeparture trainDeparture = detachedCopyOf(added);
+      writeLock.lock();
+      try {
+        TrainDeparture replaced = trainDepartures.put(
+            trainDeparture.getTrainNumber(), trainDeparture
+        );
+        if (replaced != null) {
+          unindexTrainDeparture(replaced);
+        }
+        indexTrainDeparture(trainDeparture);
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Removes the {@code TrainDeparture} with the given train-number from the station.
+   *
+   * @param trainNumber The train-number of the {@code TrainDeparture} to remove.
+   * @return {@code true} if a {@code TrainDeparture} was removed, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean removeTrainDeparture(int trainNumber) {
+    boolean removed = false;
+
+    writeLock.lock();
+    try {
+      TrainDeparture trainDeparture = trainDepartures.get(trainNumber);
+      if (trainDeparture != null) {
+        // Leaving the indexes before the maps, so the board never shows an unknown departure
+        unindexTrainDeparture(trainDeparture);
+        trainDepartures.remove(trainNumber);
+        snapshots.remove(trainNumber);
+        removed = true;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    return removed;
+  }
+
+  /**
+   * Sets the delay of the {@code TrainDeparture} with the given train-number, and publishes a
+   * new snapshot of it, at the place of its new departure time including delay on the board.
+   *
+   * @param trainNumber The train-number of the {@code TrainDeparture} to delay.
+   * @param hour The hour of the delay.
+   * @param minute The minute of the delay.
+   * @return {@code true} if the {@code TrainDeparture} was found, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean setDelay(int trainNumber, int hour, int minute) {
+    boolean found = false;
+
+    writeLock.lock();
+    try {
+      TrainDeparture trainDeparture = trainDepartures.get(trainNumber);
+      if (trainDeparture != null) {
+        trainDeparture.setDelay(hour, minute);
+        publishSnapshot(trainDeparture);
+        found = true;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    return found;
+  }
+
+  /**
+   * Sets the track of the {@code TrainDeparture} with the given train-number, and publishes a
+   * new snapshot of it.
+   *
+   * @param trainNumber The train-number of the {@code TrainDeparture} to change.
+   * @param track The new track.
+   * @return {@code true} if the {@code TrainDeparture} was found, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean setTrack(int trainNumber, int track) {
+    boolean found = false;
+
+    writeLock.lock();
+    try {
+      TrainDeparture trainDeparture = trainDepartures.get(trainNumber);
+      if (trainDeparture != null) {
+        trainDeparture.setTrack(track);
+        publishSnapshot(trainDeparture);
+        found = true;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    return found;
+  }
+
+  /**
+   * Returns the latest snapshot of the {@code TrainDeparture} with the given train-number,
+   * or {@code null} if the station does not have it. Does not take a lock.
+   *
+   * @param trainNumber The train-number of the {@code TrainDeparture} to return.
+   * @return The snapshot of the {@code TrainDeparture} with the given train-number,
+   *        or {@code null}.
+   * @since 1.0.0
+   */
+  public TrainDepartureSnapshot getTrainDepartureByTrainNumber(int trainNumber) {
+    return snapshots.get(trainNumber);
+  }
+
+  /**
+   * Checks whether the station has a {@code TrainDeparture} with the given train-number.
+   * Does not take a lock.
+   *
+   * @param trainNumber The train-number to check for.
+   * @return {@code true} if the station has the train-number, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean hasTrainDepartureWithTrainNumber(int trainNumber) {
+    return snapshots.containsKey(trainNumber);
+  }
+
+  /**
+   * Returns a stream of the snapshots of the {@code TrainDeparture}s that have not left yet,
+   * sorted by departure time including delay. Like in {@code Station}, a departure has not left
+   * if its departure time including delay is not before the station time.
+   * <br>
+   * The stream walks the skip list without a lock. Changes made while the stream is read may or
+   * may not be seen, but the order is always kept.
+   *
+   * @return A stream of the snapshots of the {@code TrainDeparture}s that have not left,
+   *        sorted by departure time including delay.
+   * @since 1.0.0
+   */
+  public Stream<TrainDepartureSnapshot> getStreamOfTimeFilteredTrainDepartures() {
+    return departureIndex.tailMap(Station.firstKeyAt(stationMinute), true).values().stream();
+  }
+
+  /**
+   * Returns a stream of the snapshots of the {@code TrainDeparture}s departing at or after the
+   * given time, including delay, sorted by departure time including delay. Does not take a lock.
+   *
+   * @param hour The hour to start from.
+   * @param minute The minute to start from.
+   * @return A stream of the snapshots of the {@code TrainDeparture}s departing at or after the
+   *        given time.
+   * @since 1.0.0
+   */
+  public Stream<TrainDepartureSnapshot> getTrainDeparturesFrom(int hour, int minute) {
+    return departureIndex.tailMap(Station.firstKeyAt(MinuteOfDay.of(hour, minute)), true)
+        .values().stream();
+  }
+
+  /**
+   * Returns a stream of the snapshots of the {@code TrainDeparture}s with a destination
+   * containing the given partial destination, sorted by departure time including delay.
+   * The search is not case-sensitive.
+   *
+   * @param partialDestination The partial destination to search for.
+   * @return A stream of the snapshots of the matching {@code TrainDeparture}s, sorted by
+   *        departure time including delay.
+   * @since 1.0.0
+   */
+  public Stream<TrainDepartureSnapshot> getAllTrainDeparturesByPartialDestination(
+      String partialDestination
+  ) {
+    List<TrainDeparture> matches;
+
+    destinationLock.readLock().lock();
+    try {
+      matches = destinationIndex.search(partialDestination);
+    } finally {
+      destinationLock.readLock().unlock();
+    }
+
+    // Only the train-number of a match is read, as it never changes once the departure is added
+    List<TrainDepartureSnapshot> found = new ArrayList<>(matches.size());
+    for (TrainDeparture match : matches) {
+      TrainDepartureSnapshot snapshot = snapshots.get(match.getTrainNumber());
+      if (snapshot != null) {
+        found.add(snapshot);
+      }
+    }
+    // The snapshots are sorted directly, as they may have left the map since the search
+    found.sort((a, b) -> Long.compare(a.getSortKey(), b.getSortKey()));
+    return found.stream();
+  }
+
+  /**
+   * Returns a copy of the time of the station.
+   * A copy is returned so the time can not be changed without going through
+   * {@link #setStationTime(int, int)}.
+   *
+   * @return The time of the station as a new {@code Clock}.
+   * @since 1.0.0
+   */
+  public Clock getStationClock() {
+    int minute = stationMinute;
+    return Clock.ofMinuteOfDay(minute);
+  }
+
+  /**
+   * Sets a new time of the station if the time is later than the current station time,
+   * and removes the departures that have left.
+   *
+   * @param hour The hour to set the station time to.
+   * @param minute The minute to set the station time to.
+   * @return {@code true} if the time is later than the current station time, else {@code false}.
+   * @since 1.0.0
+   */
+  public boolean setStationTime(int hour, int minute) {
+    int newMinute = MinuteOfDay.of(hour, minute);
+    boolean validTime;
+
+    writeLock.lock();
+    try {
+      validTime = newMinute > stationMinute;
+      if (validTime) {
+        stationMinute = newMinute;
+        removeDepartedTrainDepartures(newMinute);
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    return validTime;
+  }
+
+  /**
+   * Removes the departures at the start of the departure index that have left.
+   * As every change of delay is published, the keys in the departure index are always up to
+   * date. Must be called while holding the write lock.
+   *
+   * @param minute The station time in minutes since 00:00.
+   * @since 1.0.0
+   */
+  private void removeDepartedTrainDepartures(int minute) {
+    long stationKey = Station.firstKeyAt(minute);
+    Map.Entry<Long, TrainDepartureSnapshot> first = departureIndex.firstEntry();
+
+    while (first != null && first.getKey() < stationKey) {
+      TrainDeparture trainDeparture = trainDepartures.remove(first.getValue().getTrainNumber());
+      unindexTrainDeparture(trainDeparture);
+      snapshots.remove(trainDeparture.getTrainNumber());
+      first = departureIndex.firstEntry();
+    }
+  }
+
+  /**
+   * Returns a copy of the {@code TrainDeparture} with the same values, which is not connected to
+   * the given one, so the station alone can change it.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to copy.
+   * @return A new {@code TrainDeparture} with the same values.
+   * @since 1.4.0
+   */
+  private static TrainDeparture detachedCopyOf(TrainDeparture trainDeparture) {
+    int departureMinute = trainDeparture.getDepartureMinuteOfDay();
+    TrainDeparture copy = new TrainDeparture(MinuteOfDay.hour(departureMinute),
+        MinuteOfDay.minute(departureMinute), trainDeparture.getLine(),
+        trainDeparture.getDestination(), trainDeparture.getTrack(),
+        trainDeparture.getTrainNumber());
+    copy.setDelay(0, trainDeparture.getDelayMinutes());
+    return copy;
+  }
+
+  /**
+   * Publishes a new snapshot of the {@code TrainDeparture}, replacing the one readers get from
+   * the map and the departure index. Must be called while holding the write lock.
+   *
+   * @param trainDeparture The {@code TrainDeparture} that changed.
+   * @since 1.3.0
+   */
+  private void publishSnapshot(TrainDeparture trainDeparture) {
+    TrainDepartureSnapshot snapshot = trainDeparture.getSnapshot();
+    TrainDepartureSnapshot previous = snapshots.put(trainDeparture.getTrainNumber(), snapshot);
+
+    departureIndex.put(snapshot.getSortKey(), snapshot);
+    if (previous != null && previous.getSortKey() != snapshot.getSortKey()) {
+      // Leaving the old place after taking the new, so the departure never misses the board
+      departureIndex.remove(previous.getSortKey(), previous);
+    }
+  }
+
+  /**
+   * Adds the {@code TrainDeparture} to every index, and publishes its snapshot.
+   * Must be called while holding the write lock.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to index.
+   * @since 1.0.0
+   */
+  private void indexTrainDeparture(TrainDeparture trainDeparture) {
+    publishSnapshot(trainDeparture);
+
+    destinationLock.writeLock().lock();
+    try {
+      destinationIndex.add(trainDeparture);
+    } finally {
+      destinationLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the {@code TrainDeparture} from every index.
+   * Must be called while holding the write lock.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to remove from the indexes.
+   * @since 1.0.0
+   */
+  private void unindexTrainDeparture(TrainDeparture trainDeparture) {
+    TrainDepartureSnapshot published = snapshots.get(trainDeparture.getTrainNumber());
+    if (published != null) {
+      departureIndex.remove(published.getSortKey(), published);
+    }
+
+    destinationLock.writeLock().lock();
+    try {
+      destinationIndex.remove(trainDeparture);
+    } finally {
+      destinationLock.writeLock().unlock();
+    }
+  }
+}
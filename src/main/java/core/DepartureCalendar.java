@@ -0,0 +1,241 @@
+package core;
+
+import java.util.Arrays;
+import utility.MinuteOfDay;
+
+/**
+ * Calendar queue of train-numbers, with one bucket for every minute of the day.
+ * Since the station time only has minute resolution and wraps at midnight, every departure
+ * time fits in one of the 1440 buckets. Every bucket keeps the train-numbers departing in that
+ * minute, sorted by train-number.
+ * <br>
+ * Adding and removing a train-number only touches one bucket, and draining the departures
+ * before a time visits the buckets before it in order. A bitset of the buckets in use lets empty
+ * buckets be skipped a word at a time, so draining costs in proportion to the buckets in use and
+ * the train-numbers drained, not to the number of departures in the calendar.
+ * <br>
+ * The calendar only answers which departures have left. Ordered reads of a {@link Station}, such
+ * as a window of time or the next departures, need departures in the same order as the board,
+ * and the calendar only orders them by minute and train-number, so those reads use the departure
+ * index of the station instead.
+ *
+ * @author Jonas Birkeli
+ * @version 1.3.0
+ * @since 1.0.0
+ */
+public final class DepartureCalendar {
+  private static final int INITIAL_BUCKET_CAPACITY = 2;
+
+  private final int[][] buckets;
+  private final int[] bucketSizes;
+  private final long[] usedBuckets;
+  private int size;
+
+  /**
+   * Consumer of the entries in a {@code DepartureCalendar}.
+   *
+   * @since 1.0.0
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    /**
+     * Performs this operation on an entry of the calendar.
+     *
+     * @param minute The minute of the day of the bucket the entry is in.
+     * @param trainNumber The train-number of the entry.
+     */
+    void accept(int minute, int trainNumber);
+  }
+
+  /**
+   * Constructs an empty {@code DepartureCalendar}.
+   *
+   * @since 1.0.0
+   */
+  public DepartureCalendar() {
+    buckets = new int[MinuteOfDay.MINUTES_PER_DAY][];
+    bucketSizes = new int[MinuteOfDay.MINUTES_PER_DAY];
+    usedBuckets = new long[(MinuteOfDay.MINUTES_PER_DAY + 63) / 64];
+    size = 0;
+  }
+
+  /**
+   * Adds the train-number to the bucket of the given minute.
+   * Nothing happens if the bucket already has the train-number.
+   *
+   * @param minute The minute of the day, between 0 and 1439.
+   * @param trainNumber The train-number to add.
+   * @since 1.0.0
+   */
+  public void add(int minute, int trainNumber) {
+    int bucketSize = bucketSizes[minute];
+    int[] bucket = buckets[minute];
+    int position = bucket == null ? -1 : Arrays.binarySearch(bucket, 0, bucketSize, trainNumber);
+
+    if (position < 0) {
+      int insertAt = -position - 1;
+      if (bucket == null) {
+        bucket = new int[INITIAL_BUCKET_CAPACITY];
+        buckets[minute] = bucket;
+      } else if (bucketSize == bucket.length) {
+        bucket = Arrays.copyOf(bucket, bucketSize * 2);
+        buckets[minute] = bucket;
+      }
+      // Buckets are small, so moving the larger train-numbers one step up is cheap
+      System.arraycopy(bucket, insertAt, bucket, insertAt + 1, bucketSize - insertAt);
+      bucket[insertAt] = trainNumber;
+      bucketSizes[minute] = bucketSize + 1;
+      usedBuckets[minute >>> 6] |= 1L << minute;
+      size++;
+    }
+  }
+
+  /**
+   * Adds every train-number to the bucket of its minute, with the same result as calling
+   * {@link #add(int, int)} for each of them.
+   * Instead of keeping the buckets sorted on every insert, every bucket that is added to is
+   * grown once, appended to, and then sorted once.
+   *
+   * @param minutes The minute of the day of every entry, between 0 and 1439.
+   * @param trainNumbers The train-number of every entry.
+   * @param count The number of entries to add from the arrays.
+   * @since 1.2.0
+   */
+  public void addAll(int[] minutes, int[] trainNumbers, int count) {
+    int[] addedToBucket = new int[MinuteOfDay.MINUTES_PER_DAY];
+    for (int i = 0; i < count; i++) {
+      addedToBucket[minutes[i]]++;
+    }
+
+    for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+      int needed = bucketSizes[minute] + addedToBucket[minute];
+      if (addedToBucket[minute] > 0 && (buckets[minute] == null
+          || buckets[minute].length < needed)) {
+        buckets[minute] = buckets[minute] == null
+            ? new int[Math.max(needed, INITIAL_BUCKET_CAPACITY)]
+            : Arrays.copyOf(buckets[minute], needed);
+      }
+    }
+
+    for (int i = 0; i < count; i++) {
+      buckets[minutes[i]][bucketSizes[minutes[i]]++] = trainNumbers[i];
+    }
+
+    for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+      if (addedToBucket[minute] > 0) {
+        sortBucket(minute, bucketSizes[minute] - addedToBucket[minute]);
+      }
+    }
+  }
+
+  /**
+   * Sorts a bucket after train-numbers have been appended to it, and drops the train-numbers
+   * that are in the bucket more than once. Updates the size of the bucket and the calendar.
+   *
+   * @param minute The minute of the bucket to sort.
+   * @param sizeBefore The size of the bucket before the train-numbers were appended.
+   * @since 1.2.0
+   */
+  private void sortBucket(int minute, int sizeBefore) {
+    int[] bucket = buckets[minute];
+    int bucketSize = bucketSizes[minute];
+    Arrays.sort(bucket, 0, bucketSize);
+
+    int kept = 1;
+    for (int i = 1; i < bucketSize; i++) {
+      if (bucket[i] != bucket[kept - 1]) {
+        bucket[kept++] = bucket[i];
+      }
+    }
+    bucketSizes[minute] = kept;
+    usedBuckets[minute >>> 6] |= 1L << minute;
+    size += kept - sizeBefore;
+  }
+
+  /**
+   * Removes the train-number from the bucket of the given minute.
+   *
+   * @param minute The minute of the day, between 0 and 1439.
+   * @param trainNumber The train-number to remove.
+   * @return {@code true} if the train-number was in the bucket, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean remove(int minute, int trainNumber) {
+    int bucketSize = bucketSizes[minute];
+    int[] bucket = buckets[minute];
+    int position = bucket == null ? -1 : Arrays.binarySearch(bucket, 0, bucketSize, trainNumber);
+    boolean removed = position >= 0;
+
+    if (removed) {
+      System.arraycopy(bucket, position + 1, bucket, position, bucketSize - position - 1);
+      bucketSizes[minute] = bucketSize - 1;
+      if (bucketSize == 1) {
+        usedBuckets[minute >>> 6] &= ~(1L << minute);
+      }
+      size--;
+    }
+    return removed;
+  }
+
+  /**
+   * Removes every entry in the buckets before the given minute, and performs the given action
+   * for each of them. Entries are removed by minute, and by train-number within the same minute.
+   * The action may add entries to the calendar, but only at or after the given minute.
+   *
+   * @param minute The minute to stop before.
+   * @param action The action to perform for every removed entry.
+   * @since 1.0.0
+   */
+  public void drainBefore(int minute, EntryConsumer action) {
+    for (int current = nextUsedBucket(0); current < minute; current = nextUsedBucket(current + 1)) {
+      int[] bucket = buckets[current];
+      int bucketSize = bucketSizes[current];
+
+      // Emptying the bucket first, so the action is free to add to other buckets
+      buckets[current] = null;
+      bucketSizes[current] = 0;
+      usedBuckets[current >>> 6] &= ~(1L << current);
+      size -= bucketSize;
+
+      for (int i = 0; i < bucketSize; i++) {
+        action.accept(current, bucket[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of entries in the calendar.
+   *
+   * @return The number of entries in the calendar.
+   * @since 1.0.0
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the first bucket in use at or after the given minute.
+   *
+   * @param minute The minute to start searching from.
+   * @return The minute of the first bucket in use, or 1440 if there is none.
+   * @since 1.0.0
+   */
+  private int nextUsedBucket(int minute) {
+    int result = MinuteOfDay.MINUTES_PER_DAY;
+
+    if (minute < MinuteOfDay.MINUTES_PER_DAY) {
+      int wordIndex = minute >>> 6;
+      long word = usedBuckets[wordIndex] & (-1L << minute);
+
+      while (word == 0 && ++wordIndex < usedBuckets.length) {
+        word = usedBuckets[wordIndex];
+      }
+      if (word != 0) {
+        result = Math.min((wordIndex << 6) + Long.numberOfTrailingZeros(word),
+            MinuteOfDay.MINUTES_PER_DAY);
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,36 @@
+package core;
+
+/**
+ * Owner of a {@code TrainDeparture}, told when the time the departure actually leaves changes,
+ * and when its track changes.
+ * A station registers itself as the owner of every departure it holds, so indexes ordered by
+ * departure time including delay are kept up to date, even when the delay is set directly on
+ * the {@code TrainDeparture}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+@FunctionalInterface
+interface DepartureOwner {
+
+  /**
+   * Called after the departure time including delay of the {@code TrainDeparture} has changed.
+   *
+   * @param trainDeparture The {@code TrainDeparture} that changed.
+   * @param previousEffectiveMinute The departure time including delay before the change,
+   *                                in minutes since 00:00.
+   * @since 1.0.0
+   */
+  void effectiveTimeChanged(TrainDeparture trainDeparture, int previousEffectiveMinute);
+
+  /**
+   * Called after the track of the {@code TrainDeparture} has been set. Does nothing unless
+   * overridden.
+   *
+   * @param trainDeparture The {@code TrainDeparture} that changed.
+   * @since 1.1.0
+   */
+  default void trackChanged(TrainDeparture trainDeparture) {
+  }
+}
@@ -0,0 +1,63 @@
+package core;
+
+import java.util.List;
+
+/**
+ * One page of the departure board, as returned by {@link Station#getTrainDeparturePage(int,
+ * String)}. Holds the {@code TrainDeparture}s of the page, and a token for fetching the next
+ * page if there are more departures.
+ * <br>
+ * The token is made from the departure time and train-number of the last departure on the page,
+ * so the next page starts right after it, even if departures are added or removed in between.
+ * The token should be treated as opaque, and only be passed back to the station.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class DeparturePage {
+  private final List<TrainDeparture> trainDepartures;
+  private final String nextPageToken;
+
+  /**
+   * Constructs a new {@code DeparturePage}.
+   *
+   * @param trainDepartures The {@code TrainDeparture}s of the page.
+   * @param nextPageToken The token of the next page, or {@code null} if this is the last page.
+   * @since 1.0.0
+   */
+  DeparturePage(List<TrainDeparture> trainDepartures, String nextPageToken) {
+    this.trainDepartures = List.copyOf(trainDepartures);
+    this.nextPageToken = nextPageToken;
+  }
+
+  /**
+   * Returns the {@code TrainDeparture}s of the page, sorted by departure time.
+   *
+   * @return An unmodifiable list of the {@code TrainDeparture}s of the page.
+   * @since 1.0.0
+   */
+  public List<TrainDeparture> getTrainDepartures() {
+    return trainDepartures;
+  }
+
+  /**
+   * Checks whether there are more departures after this page.
+   *
+   * @return {@code true} if there is a next page, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean hasNextPage() {
+    return nextPageToken != null;
+  }
+
+  /**
+   * Returns the token for fetching the next page.
+   *
+   * @return The token of the next page, or {@code null} if this is the last page.
+   * @since 1.0.0
+   */
+  public String getNextPageToken() {
+    return nextPageToken;
+  }
+}
@@ -0,0 +1,260 @@
+package core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of {@link TrainDepartureSnapshot}s sorted by sort key, holding the departures
+ * of a {@link StationSnapshot}.
+ * <br>
+ * The snapshots are kept in chunks of a few hundred. Putting or removing one snapshot makes a
+ * new list that copies the chunk it is in and the array of chunks, and shares every other chunk
+ * with the old list. A change to one departure therefore costs in proportion to the number of
+ * chunks and the size of a chunk, not to the number of departures in the list, and readers of
+ * the old list are not disturbed.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+final class DepartureSnapshotList extends AbstractList<TrainDepartureSnapshot>
+    implements RandomAccess {
+  private static final int CHUNK_SIZE = 512;
+  private static final DepartureSnapshotList EMPTY =
+      new DepartureSnapshotList(new TrainDepartureSnapshot[0][], new int[0]);
+
+  private final TrainDepartureSnapshot[][] chunks;
+  private final int[] chunkEnds;
+
+  /**
+   * Constructs a list of the given chunks.
+   *
+   * @param chunks The chunks, none of them empty.
+   * @param chunkEnds The number of snapshots in every chunk up to and including each chunk.
+   * @since 1.0.0
+   */
+  private DepartureSnapshotList(TrainDepartureSnapshot[][] chunks, int[] chunkEnds) {
+    this.chunks = chunks;
+    this.chunkEnds = chunkEnds;
+  }
+
+  /**
+   * Returns a list of the given snapshots.
+   *
+   * @param sorted The snapshots, sorted by sort key without duplicates.
+   * @return The list of the snapshots.
+   * @since 1.0.0
+   */
+  static DepartureSnapshotList of(List<TrainDepartureSnapshot> sorted) {
+    TrainDepartureSnapshot[] all = sorted.toArray(new TrainDepartureSnapshot[0]);
+    TrainDepartureSnapshot[][] chunks =
+        new TrainDepartureSnapshot[(all.length + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = Arrays.copyOfRange(all, i * CHUNK_SIZE, Math.min(all.length,
+          (i + 1) * CHUNK_SIZE));
+    }
+    return chunks.length == 0 ? EMPTY : new DepartureSnapshotList(chunks, endsOf(chunks));
+  }
+
+  @Override
+  public TrainDepartureSnapshot get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for " + size());
+    }
+    int chunk = Arrays.binarySearch(chunkEnds, index + 1);
+    // The chunk holding the index is the first with more snapshots up to its end than the index
+    chunk = chunk >= 0 ? chunk : -chunk - 1;
+    return chunks[chunk][index - startOf(chunk)];
+  }
+
+  @Override
+  public int size() {
+    return chunkEnds.length == 0 ? 0 : chunkEnds[chunkEnds.length - 1];
+  }
+
+  /**
+   * Returns the position of the first snapshot with a sort key at or above the given sort key.
+   *
+   * @param sortKey The sort key to search for.
+   * @return The position of the snapshot, or the size of the list if there is none.
+   * @since 1.1.0
+   */
+  int indexAtOrAbove(long sortKey) {
+    int chunk = chunkOf(sortKey);
+    int index = size();
+
+    if (chunk < chunks.length) {
+      int position = positionOf(chunks[chunk], sortKey);
+      index = startOf(chunk) + (position >= 0 ? position : -position - 1);
+    }
+    return index;
+  }
+
+  /**
+   * Returns a list with the given snapshot put in its place by sort key. A snapshot with the same
+   * sort key is replaced.
+   *
+   * @param snapshot The snapshot to put.
+   * @return The new list.
+   * @since 1.0.0
+   */
+  DepartureSnapshotList with(TrainDepartureSnapshot snapshot) {
+    DepartureSnapshotList result;
+
+    if (chunks.length == 0) {
+      result = new DepartureSnapshotList(
+          new TrainDepartureSnapshot[][] {{snapshot}}, new int[] {1});
+    } else {
+      int chunk = Math.min(chunkOf(snapshot.getSortKey()), chunks.length - 1);
+      TrainDepartureSnapshot[] old = chunks[chunk];
+      int position = positionOf(old, snapshot.getSortKey());
+      TrainDepartureSnapshot[][] newChunks;
+
+      if (position >= 0) {
+        TrainDepartureSnapshot[] replaced = old.clone();
+        replaced[position] = snapshot;
+        newChunks = chunks.clone();
+        newChunks[chunk] = replaced;
+      } else {
+        position = -position - 1;
+        TrainDepartureSnapshot[] grown = new TrainDepartureSnapshot[old.length + 1];
+        System.arraycopy(old, 0, grown, 0, position);
+        grown[position] = snapshot;
+        System.arraycopy(old, position, grown, position + 1, old.length - position);
+
+        if (grown.length > 2 * CHUNK_SIZE) {
+          // Splitting the chunk in two, so no chunk grows much larger than the others
+          newChunks = new TrainDepartureSnapshot[chunks.length + 1][];
+          System.arraycopy(chunks, 0, newChunks, 0, chunk);
+          newChunks[chunk] = Arrays.copyOfRange(grown, 0, grown.length / 2);
+          newChunks[chunk + 1] = Arrays.copyOfRange(grown, grown.length / 2, grown.length);
+          System.arraycopy(chunks, chunk + 1, newChunks, chunk + 2, chunks.length - chunk - 1);
+        } else {
+          newChunks = chunks.clone();
+          newChunks[chunk] = grown;
+        }
+      }
+      result = new DepartureSnapshotList(newChunks, endsOf(newChunks));
+    }
+    return result;
+  }
+
+  /**
+   * Returns a list without the snapshot with the given sort key.
+   *
+   * @param sortKey The sort key of the snapshot to remove.
+   * @return The new list, or this list if it has no snapshot with the sort key.
+   * @since 1.0.0
+   */
+  DepartureSnapshotList without(long sortKey) {
+    DepartureSnapshotList result = this;
+    int chunk = chunkOf(sortKey);
+
+    if (chunk < chunks.length) {
+      TrainDepartureSnapshot[] old = chunks[chunk];
+      int position = positionOf(old, sortKey);
+
+      if (position >= 0) {
+        TrainDepartureSnapshot[][] newChunks;
+        if (old.length == 1) {
+          // Dropping the chunk, so no chunk is ever empty
+          newChunks = new TrainDepartureSnapshot[chunks.length - 1][];
+          System.arraycopy(chunks, 0, newChunks, 0, chunk);
+          System.arraycopy(chunks, chunk + 1, newChunks, chunk, chunks.length - chunk - 1);
+        } else {
+          TrainDepartureSnapshot[] shrunk = new TrainDepartureSnapshot[old.length - 1];
+          System.arraycopy(old, 0, shrunk, 0, position);
+          System.arraycopy(old, position + 1, shrunk, position, old.length - position - 1);
+          newChunks = chunks.clone();
+          newChunks[chunk] = shrunk;
+        }
+        result = newChunks.length == 0 ? EMPTY
+            : new DepartureSnapshotList(newChunks, endsOf(newChunks));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the first chunk with a last sort key at or above the given sort key.
+   *
+   * @param sortKey The sort key to search for.
+   * @return The chunk, or the number of chunks if every sort key is below the given key.
+   * @since 1.0.0
+   */
+  private int chunkOf(long sortKey) {
+    int low = 0;
+    int high = chunks.length;
+
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      TrainDepartureSnapshot[] chunk = chunks[middle];
+      if (chunk[chunk.length - 1].getSortKey() < sortKey) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Searches a chunk for the snapshot with the given sort key.
+   *
+   * @param chunk The chunk to search.
+   * @param sortKey The sort key to search for.
+   * @return The position of the snapshot, or {@code -(insertion point) - 1} if it is not found,
+   *        like {@link Arrays#binarySearch(long[], long)}.
+   * @since 1.0.0
+   */
+  private static int positionOf(TrainDepartureSnapshot[] chunk, long sortKey) {
+    int low = 0;
+    int high = chunk.length - 1;
+    int position = -1;
+
+    while (position < 0 && low <= high) {
+      int middle = (low + high) >>> 1;
+      long middleKey = chunk[middle].getSortKey();
+      if (middleKey < sortKey) {
+        low = middle + 1;
+      } else if (middleKey > sortKey) {
+        high = middle - 1;
+      } else {
+        position = middle;
+      }
+    }
+    return position >= 0 ? position : -low - 1;
+  }
+
+  /**
+   * Returns the position in the list of the first snapshot in the given chunk.
+   *
+   * @param chunk The chunk.
+   * @return The number of snapshots before the chunk.
+   * @since 1.0.0
+   */
+  private int startOf(int chunk) {
+    return chunk == 0 ? 0 : chunkEnds[chunk - 1];
+  }
+
+  /**
+   * Counts the snapshots in every chunk up to and including each chunk.
+   *
+   * @param chunks The chunks.
+   * @return The running count at the end of every chunk.
+   * @since 1.0.0
+   */
+  private static int[] endsOf(TrainDepartureSnapshot[][] chunks) {
+    int[] ends = new int[chunks.length];
+    int end = 0;
+
+    for (int i = 0; i < chunks.length; i++) {
+      end += chunks[i].length;
+      ends[i] = end;
+    }
+    return ends;
+  }
+}
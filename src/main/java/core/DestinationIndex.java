@@ -0,0 +1,309 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Trigram index over the destinations of the {@code TrainDeparture}s of a station,
+ * used for searching by partial destination.
+ * <br>
+ * Destinations are read through the {@link SymbolTable} of the station, which holds the
+ * case-folded form of every destination, so nothing is folded when departures are added.
+ * Every distinct destination in the index is given an id. For every three-character
+ * sequence (trigram) in a folded destination, the index keeps a sorted posting list of the ids
+ * of the destinations containing it. Every destination id also keeps a map of the
+ * {@code TrainDeparture}s going there.
+ * <br>
+ * A search for a partial destination of three or more characters intersects the posting lists
+ * of its trigrams, and only checks the destinations left after the intersection.
+ * Shorter searches check every distinct destination, which are few compared to the departures.
+ * Destination ids are never reused, so posting lists only grow when a new destination is seen.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public final class DestinationIndex {
+  private static final int GRAM_LENGTH = 3;
+
+  private final SymbolTable symbolTable;
+  private int[] idsByCode;
+  private final ArrayList<String> foldedDestinations;
+  private final ArrayList<TrainDepartureMap> departuresByDestination;
+  private final HashMap<Long, PostingList> postingLists;
+
+  /**
+   * Constructs an empty {@code DestinationIndex} with a {@code SymbolTable} of its own.
+   *
+   * @since 1.0.0
+   */
+  public DestinationIndex() {
+    this(new SymbolTable());
+  }
+
+  /**
+   * Constructs an empty {@code DestinationIndex} reading destinations through the given
+   * {@code SymbolTable}. {@code TrainDeparture}s already using the table are indexed by their
+   * destination code, without looking up the destination string.
+   *
+   * @param symbolTable The {@code SymbolTable} of the station.
+   * @since 1.2.0
+   */
+  public DestinationIndex(SymbolTable symbolTable) {
+    this.symbolTable = symbolTable;
+    idsByCode = new int[16];
+    foldedDestinations = new ArrayList<>();
+    departuresByDestination = new ArrayList<>();
+    postingLists = new HashMap<>();
+  }
+
+  /**
+   * Adds a {@code TrainDeparture} to the index under its destination.
+   * If the destination has not been seen before, its trigrams are added to the posting lists.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to add.
+   * @since 1.0.0
+   */
+  public void add(TrainDeparture trainDeparture) {
+    departuresTo(destinationCodeOf(trainDeparture))
+        .put(trainDeparture.getTrainNumber(), trainDeparture);
+  }
+
+  /**
+   * Adds the first {@code count} {@code TrainDeparture}s of the array to the index, with the
+   * same result as calling {@link #add(TrainDeparture)} for each of them.
+   * The destination of every departure is found by its code, so no string is looked up for
+   * departures already using the {@code SymbolTable} of the index.
+   *
+   * @param trainDepartures The {@code TrainDeparture}s to add.
+   * @param count The number of {@code TrainDeparture}s to add from the array.
+   * @since 1.1.0
+   */
+  public void addAll(TrainDeparture[] trainDepartures, int count) {
+    for (int i = 0; i < count; i++) {
+      add(trainDepartures[i]);
+    }
+  }
+
+  /**
+   * Returns the code of the destination of the {@code TrainDeparture} in the
+   * {@code SymbolTable} of the index, adding the destination to the table if needed.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to find the destination code of.
+   * @return The code of the destination.
+   * @since 1.2.0
+   */
+  private int destinationCodeOf(TrainDeparture trainDeparture) {
+    return trainDeparture.getSymbolTable() == symbolTable
+        ? trainDeparture.getDestinationCode()
+        : symbolTable.intern(trainDeparture.getDestination());
+  }
+
+  /**
+   * Returns the map of {@code TrainDeparture}s going to the destination with the given code.
+   * If the destination has not been seen before, it is given a new id, and the trigrams of its
+   * case-folded form are added to the posting lists.
+   *
+   * @param code The code of the destination in the {@code SymbolTable}.
+   * @return The map of {@code TrainDeparture}s going to the destination.
+   * @since 1.2.0
+   */
+  private TrainDepartureMap departuresTo(int code) {
+    if (code >= idsByCode.length) {
+      idsByCode = Arrays.copyOf(idsByCode, Math.max(code + 1, idsByCode.length * 2));
+    }
+
+    // Ids are stored plus one, so 0 means the destination has no id yet
+    int id = idsByCode[code] - 1;
+    if (id < 0) {
+      // First departure to this destination, so the destination is given a new id
+      id = foldedDestinations.size();
+      idsByCode[code] = id + 1;
+      String folded = symbolTable.folded(code);
+      foldedDestinations.add(folded);
+      departuresByDestination.add(new TrainDepartureMap());
+      addToPostingLists(folded, id);
+    }
+    return departuresByDestination.get(id);
+  }
+
+  /**
+   * Removes a {@code TrainDeparture} from the index.
+   * Nothing happens if the {@code TrainDeparture} is not in the index.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to remove.
+   * @since 1.0.0
+   */
+  public void remove(TrainDeparture trainDeparture) {
+    int code = trainDeparture.getSymbolTable() == symbolTable
+        ? trainDeparture.getDestinationCode()
+        : symbolTable.codeOf(trainDeparture.getDestination());
+    int id = code >= 0 && code < idsByCode.length ? idsByCode[code] - 1 : -1;
+
+    if (id >= 0) {
+      TrainDepartureMap departures = departuresByDestination.get(id);
+      if (departures.get(trainDeparture.getTrainNumber()) == trainDeparture) {
+        // Only removing if it is the same departure, not another with the same train-number
+        departures.remove(trainDeparture.getTrainNumber());
+      }
+    }
+  }
+
+  /**
+   * Returns every {@code TrainDeparture} with a destination containing the given partial
+   * destination. The search is not case-sensitive. The returned list is not sorted.
+   *
+   * @param partialDestination The partial destination to search for.
+   * @return A list of the {@code TrainDeparture}s with a matching destination.
+   * @since 1.0.0
+   */
+  public List<TrainDeparture> search(String partialDestination) {
+    String folded = SymbolTable.fold(partialDestination);
+    List<TrainDeparture> result = new ArrayList<>();
+
+    if (folded.length() < GRAM_LENGTH) {
+      // Too short to have a trigram, so every distinct destination is checked
+      for (int id = 0; id < foldedDestinations.size(); id++) {
+        collectIfMatching(id, folded, result);
+      }
+    } else {
+      int[] candidates = intersectPostingLists(folded);
+      for (int id : candidates) {
+        // Having every trigram does not mean the trigrams are in the right order
+        collectIfMatching(id, folded, result);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Adds the departures of the given destination to the result, if the folded destination
+   * contains the folded partial destination.
+   *
+   * @param id The id of the destination to check.
+   * @param folded The folded partial destination.
+   * @param result The list to add matching departures to.
+   * @since 1.0.0
+   */
+  private void collectIfMatching(int id, String folded, List<TrainDeparture> result) {
+    TrainDepartureMap departures = departuresByDestination.get(id);
+    if (!departures.isEmpty() && foldedDestinations.get(id).contains(folded)) {
+      departures.forEach(result::add);
+    }
+  }
+
+  /**
+   * Intersects the posting lists of every trigram in the folded partial destination.
+   * The intersection starts with the shortest posting list, and stops early if it is empty.
+   *
+   * @param folded The folded partial destination. Must be at least three characters long.
+   * @return The sorted ids of the destinations containing every trigram.
+   * @since 1.0.0
+   */
+  private int[] intersectPostingLists(String folded) {
+    int gramCount = folded.length() - GRAM_LENGTH + 1;
+    PostingList[] lists = new PostingList[gramCount];
+
+    for (int i = 0; i < gramCount; i++) {
+      lists[i] = postingLists.get(gramKey(folded, i));
+      if (lists[i] == null) {
+        // No destination has this trigram, so no destination can match
+        return new int[0];
+      }
+    }
+    Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+    int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+    int resultSize = result.length;
+    for (int i = 1; i < lists.length && resultSize > 0; i++) {
+      resultSize = intersect(result, resultSize, lists[i]);
+    }
+    return Arrays.copyOf(result, resultSize);
+  }
+
+  /**
+   * Keeps only the ids in {@code ids} that are also in the posting list.
+   * Both must be sorted. The result is written to the start of {@code ids}.
+   *
+   * @param ids The sorted ids to intersect.
+   * @param size The number of ids in use.
+   * @param postingList The posting list to intersect with.
+   * @return The number of ids left.
+   * @since 1.0.0
+   */
+  private static int intersect(int[] ids, int size, PostingList postingList) {
+    int kept = 0;
+    int i = 0;
+    int j = 0;
+    while (i < size && j < postingList.size) {
+      if (ids[i] < postingList.ids[j]) {
+        i++;
+      } else if (ids[i] > postingList.ids[j]) {
+        j++;
+      } else {
+        ids[kept++] = ids[i];
+        i++;
+        j++;
+      }
+    }
+    return kept;
+  }
+
+  /**
+   * Adds the destination id to the posting list of every distinct trigram in the destination.
+   * Since ids are given out in increasing order, appending keeps the lists sorted.
+   *
+   * @param folded The folded destination.
+   * @param id The id of the destination.
+   * @since 1.0.0
+   */
+  private void addToPostingLists(String folded, int id) {
+    for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+      PostingList postingList = postingLists.computeIfAbsent(
+          gramKey(folded, i), key -> new PostingList()
+      );
+      postingList.addIfLast(id);
+    }
+  }
+
+  /**
+   * Packs the three characters starting at the given position into a single key.
+   *
+   * @param text The text to take the trigram from.
+   * @param start The position of the first character of the trigram.
+   * @return The trigram as a key.
+   * @since 1.0.0
+   */
+  private static long gramKey(String text, int start) {
+    return ((long) text.charAt(start) << 32)
+        | ((long) text.charAt(start + 1) << 16)
+        | text.charAt(start + 2);
+  }
+
+  /**
+   * Growable, sorted list of destination ids for one trigram.
+   *
+   * @since 1.0.0
+   */
+  private static final class PostingList {
+    private int[] ids = new int[4];
+    private int size;
+
+    /**
+     * Appends the id, unless it is already the last id in the list.
+     * A destination with the same trigram several times is only added once.
+     *
+     * @param id The id to append.
+     */
+    private void addIfLast(int id) {
+      if (size == 0 || ids[size - 1] != id) {
+        if (size == ids.length) {
+          ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+      }
+    }
+  }
+}
@@ -0,0 +1,556 @@
+package core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import utility.Clock;
+import utility.MinuteOfDay;
+
+/**
+ * Version of {@link Station} keeping its departures outside the Java heap, for very large
+ * timetables where garbage collection pauses are a problem.
+ * <br>
+ * Every departure is a fixed-width record of six {@code int}s in a direct {@code ByteBuffer}:
+ * train-number, departure time, delay, track, and the codes of the line and destination in
+ * the {@link SymbolTable} of the station. Records are addressed by slot, and a
+ * {@link RowIndex} maps train-numbers to slots. Removing a departure moves the last record into
+ * its slot, so the records are always packed at the start of the buffer.
+ * <br>
+ * The heap only holds the symbol table and the {@code int} arrays of the row index, neither of
+ * which grows with the number of departures in a way the garbage collector has to trace.
+ * Ordered queries scan the records and sort primitive keys, instead of keeping an ordered index
+ * of objects. The keys are the sort keys of the departures, so every ordered query returns the
+ * departures in the same order as {@code Station}, by departure time including delay.
+ * <br>
+ * The query methods are the same as in {@code Station}, but every {@code TrainDeparture} returned
+ * is created from its record when the query runs, and is not connected to the station.
+ * Delays and tracks must therefore be changed through {@link #setDelay(int, int, int)} and
+ * {@link #setTrack(int, int)}. The selected departure is kept as a train-number.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public class OffHeapStation {
+  private static final int TRAIN_NUMBER = 0;
+  private static final int DEPARTURE_MINUTE = 4;
+  private static final int DELAY_MINUTES = 8;
+  private static final int TRACK = 12;
+  private static final int LINE_CODE = 16;
+  private static final int DESTINATION_CODE = 20;
+  private static final int RECORD_SIZE = 24;
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  private ByteBuffer records;
+  private int size;
+  private final RowIndex slots;
+  private final SymbolTable symbolTable;
+  private final Clock stationTime;
+  private int selectedTrainNumber;
+  private boolean hasSelection;
+
+  /**
+   * Constructs an empty {@code OffHeapStation} with the time of the station set to 00:00.
+   *
+   * @since 1.0.0
+   */
+  public OffHeapStation() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructs an empty {@code OffHeapStation} with room for the given number of departures
+   * before the buffer is grown.
+   *
+   * @param initialCapacity The number of departures to make room for.
+   * @since 1.0.0
+   */
+  public OffHeapStation(int initialCapacity) {
+    records = allocate(Math.max(initialCapacity, 16));
+    size = 0;
+    slots = new RowIndex(initialCapacity);
+    symbolTable = new SymbolTable();
+    stationTime = new Clock();
+    hasSelection = false;
+  }
+
+  /**
+   * Adds a {@code TrainDeparture} to the station, by copying its values into a record.
+   * If a departure with the same train-number already exists, its record is overwritten.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to add. Ignored if {@code null}.
+   * @since 1.0.0
+   */
+  public void addTrainDeparture(TrainDeparture trainDeparture) {
+    if (trainDeparture != null) {
+      int slot = slots.get(trainDeparture.getTrainNumber());
+
+      if (slot < 0) {
+        ensureCapacity(size + 1);
+        slot = size++;
+        slots.put(trainDeparture.getTrainNumber(), slot);
+      }
+      int offset = slot * RECORD_SIZE;
+      records.putInt(offset + TRAIN_NUMBER, trainDeparture.getTrainNumber());
+      records.putInt(offset + DEPARTURE_MINUTE, trainDeparture.getDepartureMinuteOfDay());
+      records.putInt(offset + DELAY_MINUTES, trainDeparture.getDelayMinutes());
+      records.putInt(offset + TRACK, trainDeparture.getTrack());
+      records.putInt(offset + LINE_CODE, symbolTable.intern(trainDeparture.getLine()));
+      records.putInt(offset + DESTINATION_CODE,
+          symbolTable.intern(trainDeparture.getDestination()));
+    }
+  }
+
+  /**
+   * Adds every {@code TrainDeparture} in the collection to the station, growing the buffer once
+   * up front.
+   *
+   * @param newTrainDepartures The {@code TrainDeparture}s to add.
+   * @since 1.0.0
+   */
+  public void addTrainDepartures(Collection<TrainDeparture> newTrainDepartures) {
+    ensureCapacity(size + newTrainDepartures.size());
+    newTrainDepartures.forEach(this::addTrainDeparture);
+  }
+
+  /**
+   * Removes the selected departure from the station.
+   *
+   * @since 1.0.0
+   */
+  public void removeTrainDeparture() {
+    if (hasSelection) {
+      removeSlot(slots.get(selectedTrainNumber));
+      hasSelection = false;
+    }
+  }
+
+  /**
+   * Sets the delay of the departure with the given train-number.
+   * Negative values set the delay to 0, like {@link TrainDeparture#setDelay(int, int)}.
+   *
+   * @param trainNumber The train-number of the departure to delay.
+   * @param hour The hour of the delay.
+   * @param minute The minute of the delay.
+   * @return {@code true} if the departure was found, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean setDelay(int trainNumber, int hour, int minute) {
+    int slot = slots.get(trainNumber);
+
+    if (slot >= 0) {
+      records.putInt(slot * RECORD_SIZE + DELAY_MINUTES,
+          hour < 0 || minute < 0 ? 0 : MinuteOfDay.of(hour, minute));
+    }
+    return slot >= 0;
+  }
+
+  /**
+   * Sets the track of the departure with the given train-number.
+   * Tracks that are not positive are stored as -1, like {@link TrainDeparture#setTrack(int)}.
+   *
+   * @param trainNumber The train-number of the departure to change.
+   * @param track The new track.
+   * @return {@code true} if the departure was found, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean setTrack(int trainNumber, int track) {
+    int slot = slots.get(trainNumber);
+
+    if (slot >= 0) {
+      records.putInt(slot * RECORD_SIZE + TRACK, track <= 0 ? -1 : track);
+    }
+    return slot >= 0;
+  }
+
+  /**
+   * Returns the departure with the given train-number, created from its record.
+   *
+   * @param trainNumber The train-number of the departure to return.
+   * @return A new {@code TrainDeparture} with the values of the record, or {@code null}.
+   * @since 1.0.0
+   */
+  public TrainDeparture getTrainDepartureByTrainNumber(int trainNumber) {
+    int slot = slots.get(trainNumber);
+    return slot < 0 ? null : toTrainDeparture(slot);
+  }
+
+  /**
+   * Checks whether the station has a departure with the given train-number.
+   *
+   * @param trainNumber The train-number to check for.
+   * @return {@code true} if the station has the train-number, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean hasTrainDepartureWithTrainNumber(int trainNumber) {
+    return slots.get(trainNumber) >= 0;
+  }
+
+  /**
+   * Returns the number of departures in the station.
+   *
+   * @return The number of departures in the station.
+   * @since 1.0.0
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns a stream of the departures that have not left, sorted by departure time including
+   * delay, like {@link Station#getStreamOfTimeFilteredTrainDepartures()}.
+   *
+   * @return A stream of the departures that have not left, sorted by departure time.
+   * @since 1.0.0
+   */
+  public Stream<TrainDeparture> getStreamOfTimeFilteredTrainDepartures() {
+    int stationMinute = stationTime.getMinuteOfDay();
+    long[] keys = new long[size];
+    int count = 0;
+
+    for (int slot = 0; slot < size; slot++) {
+      if (effectiveMinuteOf(slot) >= stationMinute) {
+        keys[count++] = sortKeyOf(slot);
+      }
+    }
+    return toSortedStream(keys, count);
+  }
+
+  /**
+   * Returns a stream of the departures with a destination containing the given partial
+   * destination, sorted by departure time. The search is not case-sensitive, and only compares
+   * the destination codes of the records.
+   *
+   * @param partialDestination The partial destination to search for.
+   * @return A stream of the matching departures, sorted by departure time.
+   * @since 1.0.0
+   */
+  public Stream<TrainDeparture> getAllTrainDeparturesByPartialDestination(
+      String partialDestination
+  ) {
+    boolean[] matchingCodes = symbolTable.codesContaining(partialDestination);
+    long[] keys = new long[size];
+    int count = 0;
+
+    for (int slot = 0; slot < size; slot++) {
+      if (matchingCodes[records.getInt(slot * RECORD_SIZE + DESTINATION_CODE)]) {
+        keys[count++] = sortKeyOf(slot);
+      }
+    }
+    return toSortedStream(keys, count);
+  }
+
+  /**
+   * Gives access to the station time object for the station.
+   *
+   * @return The {@code Clock} object representing the time of the station.
+   * @since 1.0.0
+   */
+  public Clock getStationClock() {
+    return stationTime;
+  }
+
+  /**
+   * Sets a new time of the station if the time is later than the current station time,
+   * and removes the departures that have left.
+   *
+   * @param hour The hour to set the station time to.
+   * @param minute The minute to set the station time to.
+   * @return {@code true} if the time is later than the current station time, else {@code false}.
+   * @since 1.0.0
+   */
+  public boolean setStationTime(int hour, int minute) {
+    boolean validTime = hour > stationTime.getHour() || (hour == stationTime.getHour()
+        && minute > stationTime.getMinute());
+
+    if (validTime) {
+      stationTime.setTime(hour, minute);
+      int stationMinute = stationTime.getMinuteOfDay();
+
+      // Walking backwards, so the record moved into a removed slot has already been checked
+      for (int slot = size - 1; slot >= 0; slot--) {
+        if (effectiveMinuteOf(slot) < stationMinute) {
+          removeSlot(slot);
+        }
+      }
+      if (hasSelection && !hasTrainDepartureWithTrainNumber(selectedTrainNumber)) {
+        hasSelection = false;
+      }
+    }
+    return validTime;
+  }
+
+  /**
+   * Returns a stream of the departures departing at or after the given time, including delay,
+   * sorted by departure time including delay.
+   *
+   * @param hour The hour to start from.
+   * @param minute The minute to start from.
+   * @return A stream of the departures departing at or after the given time.
+   * @since 1.0.0
+   */
+  public Stream<TrainDeparture> getTrainDeparturesFrom(int hour, int minute) {
+    int fromMinute = MinuteOfDay.of(hour, minute);
+    long[] keys = new long[size];
+    int count = 0;
+
+    for (int slot = 0; slot < size; slot++) {
+      if (effectiveMinuteOf(slot) >= fromMinute) {
+        keys[count++] = sortKeyOf(slot);
+      }
+    }
+    return toSortedStream(keys, count);
+  }
+
+  /**
+   * Returns a stream of the departures actually departing, including delay, from the first
+   * time, inclusive, to the second time, exclusive. Sorted in the order of
+   * {@link TrainDeparture#compareTo(TrainDeparture)}, by departure time including delay first.
+   *
+   * @param fromHour The hour of the start of the window.
+   * @param fromMinute The minute of the start of the window.
+   * @param toHour The hour of the end of the window.
+   * @param toMinute The minute of the end of the window.
+   * @return A stream of the departures departing in the window.
+   * @since 1.0.0
+   */
+  public Stream<TrainDeparture> getTrainDeparturesBetween(
+      int fromHour, int fromMinute, int toHour, int toMinute
+  ) {
+    int from = MinuteOfDay.of(fromHour, fromMinute);
+    int to = MinuteOfDay.of(toHour, toMinute);
+    long[] keys = new long[size];
+    int count = 0;
+
+    for (int slot = 0; slot < size; slot++) {
+      int effectiveMinute = effectiveMinuteOf(slot);
+      if (effectiveMinute >= from && effectiveMinute < to) {
+        keys[count++] = sortKeyOf(slot);
+      }
+    }
+    return toSortedStream(keys, count);
+  }
+
+  /**
+   * Returns the next departures to leave the station, at or after the station time.
+   *
+   * @param count The largest number of departures to return.
+   * @return A list of at most {@code count} departures, sorted by departure time including delay.
+   * @since 1.0.0
+   */
+  public List<TrainDeparture> getNextTrainDepartures(int count) {
+    return getNextTrainDepartures(stationTime.getHour(), stationTime.getMinute(), count);
+  }
+
+  /**
+   * Returns the next departures to leave the station, at or after the given time.
+   *
+   * @param hour The hour to start from.
+   * @param minute The minute to start from.
+   * @param count The largest number of departures to return.
+   * @return A list of at most {@code count} departures, sorted by departure time including delay.
+   * @since 1.0.0
+   */
+  public List<TrainDeparture> getNextTrainDepartures(int hour, int minute, int count) {
+    int fromMinute = MinuteOfDay.of(hour, minute);
+    long[] keys = new long[size];
+    int found = 0;
+
+    for (int slot = 0; slot < size; slot++) {
+      if (effectiveMinuteOf(slot) >= fromMinute) {
+        keys[found++] = sortKeyOf(slot);
+      }
+    }
+    Arrays.sort(keys, 0, found);
+
+    List<TrainDeparture> nextTrainDepartures = new ArrayList<>(Math.max(Math.min(count, found), 0));
+    for (int i = 0; i < found && i < count; i++) {
+      nextTrainDepartures.add(toTrainDeparture(slots.get((int) keys[i])));
+    }
+    return nextTrainDepartures;
+  }
+
+  /**
+   * Returns one page of the departures that have not left yet, in the same order and with the
+   * same tokens as {@link Station#getTrainDeparturePage(int, String)}.
+   *
+   * @param pageSize The largest number of departures on the page. Must be positive.
+   * @param pageToken The token of the page to fetch, or {@code null} for the first page.
+   * @return The page of departures.
+   * @throws IllegalArgumentException If the page size is not positive, or the token is not a
+   *        token given by this method.
+   * @since 1.0.0
+   */
+  public DeparturePage getTrainDeparturePage(int pageSize, String pageToken) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be positive, was " + pageSize);
+    }
+    long afterKey = pageToken == null ? -1 : Long.parseUnsignedLong(pageToken, 16);
+
+    int stationMinute = stationTime.getMinuteOfDay();
+    long[] keys = new long[size];
+    int count = 0;
+    for (int slot = 0; slot < size; slot++) {
+      long key = sortKeyOf(slot);
+      if (key > afterKey && effectiveMinuteOf(slot) >= stationMinute) {
+        keys[count++] = key;
+      }
+    }
+    Arrays.sort(keys, 0, count);
+
+    List<TrainDeparture> page = new ArrayList<>(Math.min(pageSize, count));
+    for (int i = 0; i < count && i < pageSize; i++) {
+      page.add(toTrainDeparture(slots.get((int) keys[i])));
+    }
+    // There is a next page if at least one more departure was found
+    String nextPageToken = count > pageSize ? Long.toHexString(keys[pageSize - 1]) : null;
+    return new DeparturePage(page, nextPageToken);
+  }
+
+  /**
+   * Selects the departure with the given train-number.
+   *
+   * @param trainNumber The train-number of the departure to select.
+   * @return 0 if the departure was found and selected, -1 if it was not found.
+   * @since 1.0.0
+   */
+  public int selectTrainDeparture(int trainNumber) {
+    int returnCode = 0;
+
+    if (hasTrainDepartureWithTrainNumber(trainNumber)) {
+      selectedTrainNumber = trainNumber;
+      hasSelection = true;
+    } else {
+      returnCode = -1;
+    }
+    return returnCode;
+  }
+
+  /**
+   * Returns the selected departure, created from its record.
+   *
+   * @return The selected departure, or {@code null} if no departure is selected.
+   * @since 1.0.0
+   */
+  public TrainDeparture getSelectedTrainDeparture() {
+    return hasSelection ? getTrainDepartureByTrainNumber(selectedTrainNumber) : null;
+  }
+
+  /**
+   * Removes the record in the given slot, by moving the last record into it.
+   *
+   * @param slot The slot of the record to remove.
+   * @since 1.0.0
+   */
+  private void removeSlot(int slot) {
+    slots.remove(records.getInt(slot * RECORD_SIZE + TRAIN_NUMBER));
+    int last = --size;
+
+    if (slot != last) {
+      // Copying field by field, so no buffer view is created for the move
+      for (int field = 0; field < RECORD_SIZE; field += Integer.BYTES) {
+        records.putInt(slot * RECORD_SIZE + field, records.getInt(last * RECORD_SIZE + field));
+      }
+      slots.put(records.getInt(slot * RECORD_SIZE + TRAIN_NUMBER), slot);
+    }
+  }
+
+  /**
+   * Returns the departure time including delay of the record in the given slot.
+   *
+   * @param slot The slot of the record.
+   * @return The departure time including delay, in minutes since 00:00.
+   * @since 1.0.0
+   */
+  private int effectiveMinuteOf(int slot) {
+    int offset = slot * RECORD_SIZE;
+    return MinuteOfDay.plus(
+        records.getInt(offset + DEPARTURE_MINUTE), records.getInt(offset + DELAY_MINUTES)
+    );
+  }
+
+  /**
+   * Returns the key of the record in the given slot, ordered like
+   * {@link TrainDeparture#getSortKey()}.
+   *
+   * @param slot The slot of the record.
+   * @return The sort key of the record, with the train-number in the lower 32 bits.
+   * @since 1.1.0
+   */
+  private long sortKeyOf(int slot) {
+    int offset = slot * RECORD_SIZE;
+    return TrainDeparture.sortKeyOf(effectiveMinuteOf(slot),
+        records.getInt(offset + DEPARTURE_MINUTE), records.getInt(offset + TRAIN_NUMBER));
+  }
+
+  /**
+   * Sorts the keys, and maps every key back to its record through the train-number in the
+   * lower 32 bits of the key.
+   *
+   * @param keys The keys to sort.
+   * @param count The number of keys in use.
+   * @return A stream of the departures in the order of the keys.
+   * @since 1.0.0
+   */
+  private Stream<TrainDeparture> toSortedStream(long[] keys, int count) {
+    Arrays.sort(keys, 0, count);
+    List<TrainDeparture> sorted = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      // Creating the departures now, so later changes to the records are not seen by the stream
+      sorted.add(toTrainDeparture(slots.get((int) keys[i])));
+    }
+    return sorted.stream();
+  }
+
+  /**
+   * Creates a {@code TrainDeparture} from the record in the given slot.
+   *
+   * @param slot The slot of the record.
+   * @return A new {@code TrainDeparture} with the values of the record.
+   * @since 1.0.0
+   */
+  private TrainDeparture toTrainDeparture(int slot) {
+    int offset = slot * RECORD_SIZE;
+    int departureMinute = records.getInt(offset + DEPARTURE_MINUTE);
+    TrainDeparture trainDeparture = new TrainDeparture(
+        MinuteOfDay.hour(departureMinute), MinuteOfDay.minute(departureMinute),
+        symbolTable.symbol(records.getInt(offset + LINE_CODE)),
+        symbolTable.symbol(records.getInt(offset + DESTINATION_CODE)),
+        records.getInt(offset + TRACK), records.getInt(offset + TRAIN_NUMBER)
+    );
+    trainDeparture.setDelay(0, records.getInt(offset + DELAY_MINUTES));
+    return trainDeparture;
+  }
+
+  /**
+   * Grows the buffer so it can hold the given number of records.
+   * The records are copied into a new direct buffer of at least twice the size.
+   *
+   * @param capacity The number of records needed.
+   * @since 1.0.0
+   */
+  private void ensureCapacity(int capacity) {
+    int currentCapacity = records.capacity() / RECORD_SIZE;
+
+    if (capacity > currentCapacity) {
+      ByteBuffer grown = allocate(Math.max(capacity, currentCapacity * 2));
+      grown.put(0, records, 0, size * RECORD_SIZE);
+      records = grown;
+    }
+  }
+
+  /**
+   * Allocates a direct buffer with room for the given number of records.
+   *
+   * @param capacity The number of records to make room for.
+   * @return The new buffer, in the native byte order.
+   * @since 1.0.0
+   */
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity * RECORD_SIZE).order(ByteOrder.nativeOrder());
+  }
+}
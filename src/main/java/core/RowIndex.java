@@ -0,0 +1,159 @@
+package core;
+
+/**
+ * Map from train-number to row, used by the departure stores that keep their departures in rows
+ * instead of objects. Uses open addressing with linear probing in two {@code int} arrays,
+ * like {@link TrainDepartureMap}. Rows are stored plus one, so 0 marks an empty slot.
+ * Since it only holds {@code int} arrays, the garbage collector never has to trace it.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+final class RowIndex {
+  private static final int HASH_MULTIPLIER = 0x9E3779B9;  // Fibonacci hashing
+
+  private int[] keys;
+  private int[] rowsPlusOne;
+  private int size;
+  private int mask;
+
+  /**
+   * Constructs an empty index with room for the given number of rows.
+   *
+   * @param expectedSize The number of rows to make room for.
+   * @since 1.0.0
+   */
+  RowIndex(int expectedSize) {
+    allocate(Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) << 1);
+  }
+
+  /**
+   * Returns the row of the train-number, or -1 if it is not in the index.
+   *
+   * @param trainNumber The train-number to look up.
+   * @return The row of the train-number, or -1.
+   * @since 1.0.0
+   */
+  int get(int trainNumber) {
+    int slot = slotOf(trainNumber);
+    while (rowsPlusOne[slot] != 0) {
+      if (keys[slot] == trainNumber) {
+        return rowsPlusOne[slot] - 1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Stores the row of the train-number, replacing the old row if there is one.
+   *
+   * @param trainNumber The train-number.
+   * @param row The row of the train-number.
+   * @since 1.0.0
+   */
+  void put(int trainNumber, int row) {
+    int slot = slotOf(trainNumber);
+    while (rowsPlusOne[slot] != 0 && keys[slot] != trainNumber) {
+      slot = (slot + 1) & mask;
+    }
+    if (rowsPlusOne[slot] == 0) {
+      keys[slot] = trainNumber;
+      size++;
+    }
+    rowsPlusOne[slot] = row + 1;
+
+    if (size > keys.length / 2) {
+      rehash(keys.length * 2);
+    }
+  }
+
+  /**
+   * Removes the train-number, shifting later entries of the probe sequence back.
+   *
+   * @param trainNumber The train-number to remove.
+   * @return The row the train-number had, or -1 if it was not in the index.
+   * @since 1.0.0
+   */
+  int remove(int trainNumber) {
+    int slot = slotOf(trainNumber);
+    while (rowsPlusOne[slot] != 0) {
+      if (keys[slot] == trainNumber) {
+        int row = rowsPlusOne[slot] - 1;
+        shiftBack(slot);
+        size--;
+        return row;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Fills the hole left at the given slot, in the same way as in {@code TrainDepartureMap}.
+   *
+   * @param hole The slot that was emptied.
+   * @since 1.0.0
+   */
+  private void shiftBack(int hole) {
+    int slot = (hole + 1) & mask;
+    while (rowsPlusOne[slot] != 0) {
+      int home = slotOf(keys[slot]);
+      if (((slot - home) & mask) >= ((hole - home) & mask)) {
+        keys[hole] = keys[slot];
+        rowsPlusOne[hole] = rowsPlusOne[slot];
+        hole = slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    rowsPlusOne[hole] = 0;
+  }
+
+  /**
+   * Returns the home slot of the given train-number.
+   *
+   * @param trainNumber The train-number to find the home slot of.
+   * @return The first slot to probe for the train-number.
+   * @since 1.0.0
+   */
+  private int slotOf(int trainNumber) {
+    int hash = trainNumber * HASH_MULTIPLIER;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  /**
+   * Moves every entry into new arrays of the given capacity.
+   *
+   * @param capacity The new capacity. Must be a power of two.
+   * @since 1.0.0
+   */
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldRows = rowsPlusOne;
+    allocate(capacity);
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldRows[i] != 0) {
+        int slot = slotOf(oldKeys[i]);
+        while (rowsPlusOne[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        rowsPlusOne[slot] = oldRows[i];
+      }
+    }
+  }
+
+  /**
+   * Allocates empty arrays of the given capacity.
+   *
+   * @param capacity The capacity of the arrays. Must be a power of two.
+   * @since 1.0.0
+   */
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    rowsPlusOne = new int[capacity];
+    mask = capacity - 1;
+  }
+}
@@ -0,0 +1,179 @@
+package core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Read-only {@code SortedMap} over arrays of keys and {@code TrainDeparture}s that are already
+ * sorted by key. Used for building the departure index of a station in one pass, through
+ * {@link java.util.TreeMap#TreeMap(SortedMap)}, which builds the tree in linear time from a
+ * {@code SortedMap} without comparing any keys.
+ * <br>
+ * Looking up a key is a binary search over the keys, and the views from {@link #subMap},
+ * {@link #headMap} and {@link #tailMap} share the arrays. Every method changing the map throws
+ * {@code UnsupportedOperationException}, like the maps of {@link AbstractMap} without
+ * {@code put}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+final class SortedDepartures extends AbstractMap<Long, TrainDeparture>
+    implements SortedMap<Long, TrainDeparture> {
+  private final long[] keys;
+  private final TrainDeparture[] trainDepartures;
+  private final int from;
+  private final int to;
+
+  /**
+   * Constructs a map of the first {@code size} keys and {@code TrainDeparture}s.
+   *
+   * @param keys The keys, sorted in ascending order without duplicates.
+   * @param trainDepartures The {@code TrainDeparture} of every key.
+   * @param size The number of entries in use.
+   * @since 1.0.0
+   */
+  SortedDepartures(long[] keys, TrainDeparture[] trainDepartures, int size) {
+    this(keys, trainDepartures, 0, size);
+  }
+
+  /**
+   * Constructs a map of the keys and {@code TrainDeparture}s from {@code from}, inclusive,
+   * to {@code to}, exclusive.
+   *
+   * @param keys The keys, sorted in ascending order without duplicates.
+   * @param trainDepartures The {@code TrainDeparture} of every key.
+   * @param from The first entry in the map.
+   * @param to The entry after the last entry in the map.
+   * @since 1.1.0
+   */
+  private SortedDepartures(long[] keys, TrainDeparture[] trainDepartures, int from, int to) {
+    this.keys = keys;
+    this.trainDepartures = trainDepartures;
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  public int size() {
+    return to - from;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public TrainDeparture get(Object key) {
+    int index = indexOf(key);
+    return index >= 0 ? trainDepartures[index] : null;
+  }
+
+  @Override
+  public Comparator<? super Long> comparator() {
+    // Natural ordering, the same as the departure index of the station
+    return null;
+  }
+
+  @Override
+  public Set<Entry<Long, TrainDeparture>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public int size() {
+        return to - from;
+      }
+
+      @Override
+      public Iterator<Entry<Long, TrainDeparture>> iterator() {
+        return new Iterator<>() {
+          private int next = from;
+
+          @Override
+          public boolean hasNext() {
+            return next < to;
+          }
+
+          @Override
+          public Entry<Long, TrainDeparture> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            Entry<Long, TrainDeparture> entry = Map.entry(keys[next], trainDepartures[next]);
+            next++;
+            return entry;
+          }
+        };
+      }
+    };
+  }
+
+  @Override
+  public Long firstKey() {
+    if (from == to) {
+      throw new NoSuchElementException();
+    }
+    return keys[from];
+  }
+
+  @Override
+  public Long lastKey() {
+    if (from == to) {
+      throw new NoSuchElementException();
+    }
+    return keys[to - 1];
+  }
+
+  @Override
+  public SortedMap<Long, TrainDeparture> subMap(Long fromKey, Long toKey) {
+    if (fromKey > toKey) {
+      throw new IllegalArgumentException("fromKey is after toKey");
+    }
+    return new SortedDepartures(keys, trainDepartures, boundOf(fromKey), boundOf(toKey));
+  }
+
+  @Override
+  public SortedMap<Long, TrainDeparture> headMap(Long toKey) {
+    return new SortedDepartures(keys, trainDepartures, from, boundOf(toKey));
+  }
+
+  @Override
+  public SortedMap<Long, TrainDeparture> tailMap(Long fromKey) {
+    return new SortedDepartures(keys, trainDepartures, boundOf(fromKey), to);
+  }
+
+  /**
+   * Returns the position of the first entry with a key at or above the given key, kept within
+   * the entries of this map.
+   *
+   * @param key The key to search for.
+   * @return The position of the first entry at or above the key, or {@code to} if there is none.
+   * @since 1.1.0
+   */
+  private int boundOf(long key) {
+    int index = Arrays.binarySearch(keys, from, to, key);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Returns the position of the entry with the given key.
+   *
+   * @param key The key to search for.
+   * @return The position of the entry, or -1 if the map has no such key.
+   * @since 1.1.0
+   */
+  private int indexOf(Object key) {
+    int index = -1;
+    if (key instanceof Long value) {
+      index = Math.max(Arrays.binarySearch(keys, from, to, value), -1);
+    }
+    return index;
+  }
+}
@@ -1,38 +1,95 @@
 package core;
 
-import static java.util.Map.Entry.comparingByValue;
-
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 import utility.Clock;
+import utility.MinuteOfDay;
 
 /**
  * Class for representing a station.
- * The station has a collection of every train departure, and has the responsibility of adding,
+ * The station has a collection of every train departure, stored in a {@link TrainDepartureMap}
+ * with the train-number as key, and has the responsibility of adding,
  * searching and sorting the train departures for later printing or other use-cases.
  * This class has the following methods:
  *   <ul>
+ *     <li>{@link #createTrainDeparture(int, int, String, String, int, int)}</li>
  *     <li>{@link #addTrainDeparture(TrainDeparture)}</li>
+ *     <li>{@link #addTrainDepartures(Collection)}</li>
  *     <li>{@link #getTrainDepartureByTrainNumber(int)}</li>
  *     <li>{@link #getStreamOfTimeFilteredTrainDepartures()}</li>
  *     <li>{@link #getAllTrainDeparturesByPartialDestination(String)}</li>
  *     <li>{@link #hasTrainDepartureWithTrainNumber(int)}</li>
  *     <li>{@link #getStationClock()}</li>
  *     <li>{@link #setStationTime(int, int)}</li>
- *     <li>{@link #getSortedStreamOfTrainDepartures()}</li>
+ *     <li>{@link #getTrainDeparturesFrom(int, int)}</li>
+ *     <li>{@link #getTrainDeparturesBetween(int, int, int, int)}</li>
+ *     <li>{@link #getNextTrainDepartures(int)}</li>
+ *     <li>{@link #getNextTrainDepartures(int, int, int)}</li>
+ *     <li>{@link #getTrainDeparturePage(int, String)}</li>
+ *     <li>{@link #setDelay(int, int, int)}</li>
+ *     <li>{@link #setTrack(int, int)}</li>
+ *     <li>{@link #publishSnapshot()}</li>
+ *     <li>{@link #getSnapshot()}</li>
+ *     <li>{@link #setStationObserver(StationObserver)}</li>
  *   </ul>
+ * Alongside the map of train-numbers, the station keeps an index of every {@code TrainDeparture}
+ * keyed by its sort key, so ordered by departure time including delay, then by departure time
+ * without delay, then by train-number, the same order as {@link TrainDeparture#compareTo}.
+ * Every ordered read of the station, such as the board, the pages of the board and the next
+ * departures, uses this order. The index is updated when departures are added, removed or
+ * delayed, so ordered reads never have to sort the whole collection.
+ * Destinations are indexed in a {@link DestinationIndex}, so searching by partial destination
+ * only visits departures with a matching destination.
+ * The train-numbers are also kept in a {@link DepartureCalendar}, with one bucket for every
+ * minute of the day, by the time each departure actually leaves, including delay.
+ * When the station time is moved forward, only the buckets before the new time are emptied,
+ * so removing the departures that have left only visits those departures.
+ * The station is the owner of every {@code TrainDeparture} it holds, so when the delay of a
+ * departure is changed, the departure is moved to its new place in the index and to the bucket
+ * of its new time right away.
+ * Lines and destinations go through the {@link SymbolTable} of the station, so every distinct
+ * string is held once, and the indexes work on small integer codes.
+ * <br>
+ * The station is changed from one thread. Readers on other threads, such as a renderer, read
+ * the latest {@link StationSnapshot} instead, which never changes once published.
+ * Publishing copies only the departures that changed since they were last copied, and readers
+ * get the new snapshot through a single volatile read, without locks.
+ * {@link #setDelay(int, int, int)} and {@link #setTrack(int, int)} publish a snapshot after
+ * the change. After other changes, the writer calls {@link #publishSnapshot()} when it is done.
+ * When only delays and tracks have changed since the last snapshot, the departures of the new
+ * snapshot are the old ones with just the changed departures moved or replaced, sharing the
+ * rest, see {@link DepartureSnapshotList}. They are only built again from the departure index
+ * after departures are added or removed, or the station time changes.
+ * <br>
+ * Every change made through the station is reported to its {@link StationObserver}, if it has
+ * one, so the changes can be written to a journal.
  *
  * @author Jonas Birkeli
- * @version 1.6.0
+ * @version 1.21.0
  * @since 1.0.0
  */
 public class Station {
-  private HashMap<Integer, TrainDeparture> trainDepartures;
+  private final TrainDepartureMap trainDepartures;
+  private TreeMap<Long, TrainDeparture> departureIndex;
+  private final SymbolTable symbolTable;
+  private final DestinationIndex destinationIndex;
+  private final DepartureCalendar departureCalendar;
+  private final DepartureOwner departureOwner;
   private TrainDeparture selectedTrainDeparture;
   private final Clock stationTime;
+  private volatile StationSnapshot snapshot;
+  private DepartureSnapshotList publishedDepartures;
+  private boolean departuresOutdated;
+  private final Map<Integer, Long> changedSortKeys;
+  private StationObserver stationObserver;
 
   /**
    * Constructor for Station.
@@ -41,9 +98,29 @@ public class Station {
    * @since 1.0.0
    */
   public Station() {
-    trainDepartures = new HashMap<>();
+    trainDepartures = new TrainDepartureMap();
+    departureIndex = new TreeMap<>();
+    symbolTable = new SymbolTable();
+    destinationIndex = new DestinationIndex(symbolTable);
+    departureCalendar = new DepartureCalendar();
+    departureOwner = new DepartureOwner() {
+      @Override
+      public void effectiveTimeChanged(TrainDeparture trainDeparture, int previousEffectiveMinute) {
+        moveInDepartureCalendar(trainDeparture, previousEffectiveMinute);
+      }
+
+      @Override
+      public void trackChanged(TrainDeparture trainDeparture) {
+        markChanged(trainDeparture.getTrainNumber(), trainDeparture.getSortKey());
+      }
+    };
     selectedTrainDeparture = null;
     stationTime = new Clock();
+    publishedDepartures = DepartureSnapshotList.of(List.of());
+    departuresOutdated = false;
+    changedSortKeys = new LinkedHashMap<>();
+    snapshot = new StationSnapshot(0, stationTime.getMinuteOfDay(), publishedDepartures,
+        publishedDepartures, null);
   }
 
   /**
@@ -52,27 +129,52 @@ public class Station {
    * @since 1.5.0
    */
   public void addFillerTrainDepartures() {
-    TrainDeparture dep1 = new TrainDeparture(23, 18, "F10", "Lillehammer", 20, 60);
-    TrainDeparture dep2 = new TrainDeparture(23, 57, "F8", "Gjøvik", -1, 22);
-    TrainDeparture dep3 = new TrainDeparture(3, 59, "H3", "Hamar", 1, 47);
+    TrainDeparture dep1 = createTrainDeparture(23, 18, "F10", "Lillehammer", 20, 60);
+    TrainDeparture dep2 = createTrainDeparture(23, 57, "F8", "Gjøvik", -1, 22);
+    TrainDeparture dep3 = createTrainDeparture(3, 59, "H3", "Hamar", 1, 47);
     // Produced by CoPilot /\
     //                     ||
 
-    addTrainDeparture(dep1);
-    addTrainDeparture(dep2);
-    addTrainDeparture(dep3);
-    // Train numbers are used as keys in the HashMap
-
-    TrainDeparture dep4 = new TrainDeparture(3, 59, "JB8", "Dette er en lang streng", 3, 123456789);
+    TrainDeparture dep4 = createTrainDeparture(3, 59, "JB8", "Dette er en lang streng", 3,
+        123456789);
     dep4.setDelay(0, 1);
 
-    addTrainDeparture(dep4);
+    // Train numbers are used as keys in the TrainDepartureMap
+    addTrainDepartures(List.of(dep1, dep2, dep3, dep4));
+  }
 
+  /**
+   * Creates a new {@code TrainDeparture} with its line and destination taken from the
+   * {@link SymbolTable} of the station, so the strings are not held twice.
+   * The {@code TrainDeparture} is not added to the station.
+   *
+   * @param hour Scheduled hour for departure of train.
+   * @param minute Scheduled minute for departure of train.
+   * @param line Scheduled line of train.
+   * @param destination End-destination of train.
+   * @param track Number of the departure-track.
+   * @param trainNumber The train-number of the train.
+   * @return The new {@code TrainDeparture}.
+   * @since 1.15.0
+   */
+  public TrainDeparture createTrainDeparture(
+      int hour, int minute, String line, String destination, int track, int trainNumber
+  ) {
+    TrainDeparture trainDeparture = new TrainDeparture(
+        hour, minute, line, destination, track, trainNumber
+    );
+    trainDeparture.internSymbols(symbolTable);
+    return trainDeparture;
   }
 
   /**
    * Adds a {@code TrainDeparture} to the station.
-   * The {@code TrainDeparture} is stored in the hashmap with the trainNumber as the identifier.
+   * The {@code TrainDeparture} is stored in the map with the trainNumber as the identifier.
+   * Its line and destination are swapped for the copies in the {@link SymbolTable} of the
+   * station, unless it was made by {@link #createTrainDeparture(int, int, String, String, int,
+   * int)}.
+   * If a {@code TrainDeparture} with the same trainNumber already exists, it is replaced,
+   * both in the map and in the indexes.
    *
    * @param trainDeparture The trainDeparture to add to the station.
    * @since 1.0.0
@@ -80,7 +182,108 @@ public class Station {
   public void addTrainDeparture(TrainDeparture trainDeparture) {
     if (trainDeparture != null) {
       // TrainDeparture is not nullable
-      trainDepartures.put(trainDeparture.getTrainNumber(), trainDeparture);
+      trainDeparture.internSymbols(symbolTable);
+      TrainDeparture replaced = trainDepartures.put(
+          trainDeparture.getTrainNumber(), trainDeparture
+      );
+
+      if (replaced != null) {
+        // The old departure with the same train number must leave the indexes as well
+        unindexTrainDeparture(replaced);
+      }
+      indexTrainDeparture(trainDeparture);
+
+      if (stationObserver != null) {
+        stationObserver.trainDepartureAdded(trainDeparture);
+      }
+    }
+  }
+
+  /**
+   * Adds every {@code TrainDeparture} in the collection to the station, with the same result as
+   * calling {@link #addTrainDeparture(TrainDeparture)} for each of them in order.
+   * {@code null} elements are ignored, and a later {@code TrainDeparture} replaces an earlier one
+   * with the same train-number.
+   * <br>
+   * Made for loading a full timetable. The map is grown once up front, and the indexes are built
+   * from one sort of the new departures, instead of being updated one departure at a time.
+   * When the station is empty, the departure index is built directly from the sorted departures.
+   * Departures already given in the order of the departure index, such as those read from a
+   * saved snapshot, are not sorted again.
+   *
+   * @param newTrainDepartures The {@code TrainDeparture}s to add to the station.
+   * @since 1.14.0
+   */
+  public void addTrainDepartures(Collection<TrainDeparture> newTrainDepartures) {
+    trainDepartures.ensureCapacity(trainDepartures.size() + newTrainDepartures.size());
+
+    for (TrainDeparture trainDeparture : newTrainDepartures) {
+      if (trainDeparture != null) {
+        trainDeparture.internSymbols(symbolTable);
+        TrainDeparture replaced = trainDepartures.put(
+            trainDeparture.getTrainNumber(), trainDeparture
+        );
+        if (replaced != null && replaced.getOwner() == departureOwner) {
+          // Only departures added before this call are in the indexes yet
+          unindexTrainDeparture(replaced);
+        }
+      }
+    }
+
+    // Sorting the keys of the departures that were not replaced later in the collection
+    long[] keys = new long[newTrainDepartures.size()];
+    int count = 0;
+    boolean alreadySorted = true;
+    for (TrainDeparture trainDeparture : newTrainDepartures) {
+      if (trainDeparture != null
+          && trainDepartures.get(trainDeparture.getTrainNumber()) == trainDeparture) {
+        keys[count] = trainDeparture.getSortKey();
+        alreadySorted &= count == 0 || keys[count - 1] <= keys[count];
+        count++;
+      }
+    }
+    if (!alreadySorted) {
+      // Departures read back from a snapshot are already in index order, and are not sorted again
+      Arrays.sort(keys, 0, count);
+    }
+
+    TrainDeparture[] sorted = new TrainDeparture[count];
+    int[] effectiveMinutes = new int[count];
+    int[] trainNumbers = new int[count];
+    int unique = 0;
+
+    for (int i = 0; i < count; i++) {
+      if (i == 0 || keys[i] != keys[i - 1]) {
+        // The same departure may be in the collection more than once, but is only indexed once
+        TrainDeparture trainDeparture = trainDepartures.get((int) keys[i]);
+        keys[unique] = keys[i];
+        sorted[unique] = trainDeparture;
+        effectiveMinutes[unique] = trainDeparture.getEffectiveMinuteOfDay();
+        trainNumbers[unique] = trainDeparture.getTrainNumber();
+        unique++;
+        trainDeparture.setOwner(departureOwner);
+      }
+    }
+
+    if (departureIndex.isEmpty()) {
+      // Copying a sorted map builds the tree in linear time, without comparing any keys
+      departureIndex = new TreeMap<>(new SortedDepartures(keys, sorted, unique));
+    } else {
+      for (int i = 0; i < unique; i++) {
+        departureIndex.put(keys[i], sorted[i]);
+      }
+    }
+    destinationIndex.addAll(sorted, unique);
+    departureCalendar.addAll(effectiveMinutes, trainNumbers, unique);
+    departuresOutdated = true;
+
+    if (stationObserver != null) {
+      // Reported in the order given, so applying the changes again gives the same replacements
+      for (TrainDeparture trainDeparture : newTrainDepartures) {
+        if (trainDeparture != null) {
+          stationObserver.trainDepartureAdded(trainDeparture);
+        }
+      }
     }
   }
 
@@ -92,8 +295,14 @@ public class Station {
    */
   public void removeTrainDeparture() {
     if (selectedTrainDeparture != null) {
-      trainDepartures.remove(selectedTrainDeparture.getTrainNumber());
+      int trainNumber = selectedTrainDeparture.getTrainNumber();
+      trainDepartures.remove(trainNumber);
+      unindexTrainDeparture(selectedTrainDeparture);
       selectedTrainDeparture = null;
+
+      if (stationObserver != null) {
+        stationObserver.trainDepartureRemoved(trainNumber);
+      }
     }
   }
 
@@ -107,35 +316,23 @@ public class Station {
    * @since 1.0.0
    */
   public TrainDeparture getTrainDepartureByTrainNumber(int trainNumber) {
-    TrainDeparture trainDeparture = null;
-
-    if (hasTrainDepartureWithTrainNumber(trainNumber)) {
-      trainDeparture = trainDepartures.get(trainNumber);
-    }
-
-    return trainDeparture;
+    // The map returns null when the train-number is missing, so only one lookup is needed
+    return trainDepartures.get(trainNumber);
   }
 
   /**
    * Returns a stream of {@code TrainDepartures} details of the station. Will send a stream of every
-   * value in the hashmap. Every value is sorted by time of departure. Departures before the
-   * {@code Clock} time of the station will not be included in the stream.
+   * value in the station. Every value is sorted by time of departure including delay. Departures
+   * leaving before the {@code Clock} time of the station will not be included in the stream.
+   * As the index is ordered by departure time including delay, the stream starts at the first
+   * departure leaving at the station time, and departures before it are never visited.
    *
    * @return Details of traindeparture of the station as a stream, sorted and filtered.
    * @since 1.1.0
    */
   public Stream<TrainDeparture> getStreamOfTimeFilteredTrainDepartures() {
-    return getSortedStreamOfTrainDepartures()
-        .filter(
-            d -> d.getDepartureTime().combine(d.getDelay()).getHour() > stationTime.getHour()
-                || (d.getDepartureTime().combine(d.getDelay()).getHour() == stationTime.getHour()
-                && d.getDepartureTime().combine(d.getDelay()).getMinute() >= stationTime.getMinute()
-            )
-        // If hour is greater than station hour, we know the train departs after the station
-        // time.
-        // If hour is equal to station hour, we need to check if the minute is greater than
-        // or equal to the station minute.
-        );
+    return departureIndex.tailMap(firstKeyAt(stationTime.getMinuteOfDay()), true).values()
+        .stream();
   }
 
   /**
@@ -143,7 +340,8 @@ public class Station {
    * returns a stream of the trains that passes the filter.
    * If no {@code TrainDeparture} has this destination, an empty stream is returned.
    * If there are multiple {@code TrainDepartures} with this destination, all of them are returned.
-   * The stream is sorted by departure time, not including delay.
+   * The stream is sorted in the order of the departure index, by departure time including delay.
+   * Only the departures found through the {@link DestinationIndex} are sorted.
    *
    * @param partialDestination The partial complete destination to filter for.
    * @return A stream of {@code TrainDepartures} that has the given partial complete destination.
@@ -152,8 +350,16 @@ public class Station {
   public Stream<TrainDeparture> getAllTrainDeparturesByPartialDestination(
       String partialDestination
   ) {
-    return getSortedStreamOfTrainDepartures()
-        .filter(d -> d.getDestination().toLowerCase().contains(partialDestination.toLowerCase()));
+    List<TrainDeparture> matches = destinationIndex.search(partialDestination);
+
+    // Sorting the primitive sort keys is cheaper than sorting the departures with a comparator.
+    // The train-number is stored in the lower half of the key, so the departure can be found.
+    long[] keys = new long[matches.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = matches.get(i).getSortKey();
+    }
+    Arrays.sort(keys);
+    return Arrays.stream(keys).mapToObj(key -> trainDepartures.get((int) key));
   }
 
   /**
@@ -203,50 +409,239 @@ public class Station {
       filterTrainDeparturesByTime();
 
       if (selectedTrainDeparture != null
-          && (selectTrainDeparture(selectedTrainDeparture.getTrainNumber()) == -1)) {
-        // Method retuns -1 if the selected train is filtered out
-        // Since the selecteTrainDeparture doesn't hold a reference, but a hard copy of the
-        // TrainDeparture, we need to check if the train still exists in the hashmap.
+          && trainDepartures.get(selectedTrainDeparture.getTrainNumber())
+              != selectedTrainDeparture) {
+        // The selected train is no longer in the map if it was filtered out.
+        // Looking it up directly, so the check is not reported as a new selection.
         selectedTrainDeparture = null; // If the selected train is filtered out, remove it
       }
+
+      if (stationObserver != null) {
+        stationObserver.stationTimeChanged(stationTime.getMinuteOfDay());
+      }
     }
     return validTime;
   }
 
   /**
    * Filters out the {@code TrainDeparture}s that depart before the station time.
-   * Overwrites the old {@code trainDeparture}s hashmap with the new filtered hashmap.
+   * The buckets of the departure calendar before the station time are emptied, so only the
+   * departures that have left are visited. Since every change of delay moves the departure to
+   * the bucket of its new time, every train-number in the emptied buckets has left.
    *
    * @since 1.5.0
    */
   private void filterTrainDeparturesByTime() {
-    trainDepartures = trainDepartures.entrySet().stream()
-        .filter(d -> d.getValue().getDepartureTime()
-            .combine(d.getValue().getDepartureTime()).getHour() > stationTime.getHour()
-            || (d.getValue().getDepartureTime()
-            .combine(d.getValue().getDelay()).getHour() == stationTime.getHour()
-            && d.getValue().getDepartureTime()
-            .combine(d.getValue().getDelay()).getMinute() >= stationTime.getMinute())
-        )
-        // Collecting the new hashmap
-        // This line was generated by Copilot and tested by me
-        .collect(Collectors.toMap(
-            Map.Entry::getKey, Map.Entry::getValue, (prev, next) -> next, HashMap::new
-        ));
+    departureCalendar.drainBefore(stationTime.getMinuteOfDay(), (minute, trainNumber) -> {
+      // The bucket is already emptied, so the departure only leaves the map and the other indexes
+      TrainDeparture trainDeparture = trainDepartures.remove(trainNumber);
+      if (trainDeparture != null) {
+        departureIndex.remove(trainDeparture.getSortKey());
+        destinationIndex.remove(trainDeparture);
+        trainDeparture.setOwner(null);
+      }
+    });
+    departuresOutdated = true;
   }
 
   /**
-   * Sorts the {@code TrainDepartures} by departure time,
-   * and returns a stream of the {@code TrainDepartures}.
-   * The stream is sorted by departure time.
+   * Moves the {@code TrainDeparture} to its new place in the departure index, and to the bucket
+   * of its new departure time including delay, and marks it for the next published snapshot.
+   * Called by the {@code TrainDeparture} whenever its delay changes that time.
    *
-   * @return A stream of {@code TrainDepartures} sorted by departure time.
-   * @since 1.2.0
+   * @param trainDeparture The {@code TrainDeparture} that was delayed.
+   * @param previousEffectiveMinute The departure time including delay before the change.
+   * @since 1.13.0
+   */
+  private void moveInDepartureCalendar(TrainDeparture trainDeparture, int previousEffectiveMinute) {
+    int trainNumber = trainDeparture.getTrainNumber();
+
+    if (trainDepartures.get(trainNumber) == trainDeparture) {
+      long previousSortKey = TrainDeparture.sortKeyOf(
+          previousEffectiveMinute, trainDeparture.getDepartureMinuteOfDay(), trainNumber);
+      departureIndex.remove(previousSortKey);
+      departureIndex.put(trainDeparture.getSortKey(), trainDeparture);
+      markChanged(trainNumber, previousSortKey);
+      departureCalendar.remove(previousEffectiveMinute, trainNumber);
+      departureCalendar.add(trainDeparture.getEffectiveMinuteOfDay(), trainNumber);
+    }
+  }
+
+  /**
+   * Returns a stream of the {@code TrainDepartures} departing at or after the given time,
+   * including delay, sorted by departure time including delay.
+   * The starting point is found by seeking in the departure index, so departures before the
+   * given time are never visited.
+   *
+   * @param hour The hour to start from.
+   * @param minute The minute to start from.
+   * @return A stream of {@code TrainDepartures} departing at or after the given time.
+   * @since 1.7.0
+   */
+  public Stream<TrainDeparture> getTrainDeparturesFrom(int hour, int minute) {
+    return departureIndex.tailMap(firstKeyAt(MinuteOfDay.of(hour, minute)), true).values()
+        .stream();
+  }
+
+  /**
+   * Adds the {@code TrainDeparture} to every index of the station.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to index.
+   * @since 1.8.0
    */
-  private Stream<TrainDeparture> getSortedStreamOfTrainDepartures() {
-    return trainDepartures.entrySet().stream()
-        .sorted(comparingByValue(TrainDeparture::compareTo))
-        .map(Entry::getValue);
+  private void indexTrainDeparture(TrainDeparture trainDeparture) {
+    departureIndex.put(trainDeparture.getSortKey(), trainDeparture);
+    departuresOutdated = true;
+    destinationIndex.add(trainDeparture);
+    departureCalendar.add(
+        trainDeparture.getEffectiveMinuteOfDay(), trainDeparture.getTrainNumber()
+    );
+    // Taking over the departure, so this station is told when its delay changes
+    trainDeparture.setOwner(departureOwner);
+  }
+
+  /**
+   * Removes the {@code TrainDeparture} from every index of the station.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to remove from the indexes.
+   * @since 1.8.0
+   */
+  private void unindexTrainDeparture(TrainDeparture trainDeparture) {
+    departureIndex.remove(trainDeparture.getSortKey());
+    departuresOutdated = true;
+    destinationIndex.remove(trainDeparture);
+    departureCalendar.remove(
+        trainDeparture.getEffectiveMinuteOfDay(), trainDeparture.getTrainNumber()
+    );
+    if (trainDeparture.getOwner() == departureOwner) {
+      trainDeparture.setOwner(null);
+    }
+  }
+
+  /**
+   * Returns a stream of the {@code TrainDeparture}s actually departing, including delay,
+   * from the first time, inclusive, to the second time, exclusive.
+   * The stream is sorted in the order of the departure index, and only the part of the index
+   * in the window is visited.
+   * If the second time is not after the first, the stream is empty.
+   * A departure delayed after it was added to the station is found under its new time.
+   *
+   * @param fromHour The hour of the start of the window.
+   * @param fromMinute The minute of the start of the window.
+   * @param toHour The hour of the end of the window.
+   * @param toMinute The minute of the end of the window.
+   * @return A stream of the {@code TrainDeparture}s departing in the window.
+   * @since 1.10.0
+   */
+  public Stream<TrainDeparture> getTrainDeparturesBetween(
+      int fromHour, int fromMinute, int toHour, int toMinute
+  ) {
+    long fromKey = firstKeyAt(MinuteOfDay.of(fromHour, fromMinute));
+    long toKey = firstKeyAt(MinuteOfDay.of(toHour, toMinute));
+    Stream<TrainDeparture> window = Stream.empty();
+
+    if (fromKey < toKey) {
+      window = departureIndex.subMap(fromKey, true, toKey, false).values().stream();
+    }
+    return window;
+  }
+
+  /**
+   * Returns the next {@code TrainDeparture}s to leave the station, at or after the station time.
+   * The departures are in the order of the departure index, the same as the board.
+   * Only the first {@code count} departures are read from the departure index, so the cost
+   * does not depend on how many departures the station has later in the day.
+   *
+   * @param count The largest number of {@code TrainDeparture}s to return.
+   * @return A list of at most {@code count} {@code TrainDeparture}s, sorted by departure time.
+   * @since 1.11.0
+   */
+  public List<TrainDeparture> getNextTrainDepartures(int count) {
+    return getNextTrainDepartures(stationTime.getHour(), stationTime.getMinute(), count);
+  }
+
+  /**
+   * Returns the next {@code TrainDeparture}s to leave the station, at or after the given time.
+   * The departures are in the order of the departure index, the same as the board.
+   * Only the first {@code count} departures are read from the departure index.
+   *
+   * @param hour The hour to start from.
+   * @param minute The minute to start from.
+   * @param count The largest number of {@code TrainDeparture}s to return.
+   * @return A list of at most {@code count} {@code TrainDeparture}s, sorted by departure time.
+   * @since 1.11.0
+   */
+  public List<TrainDeparture> getNextTrainDepartures(int hour, int minute, int count) {
+    List<TrainDeparture> nextTrainDepartures = new ArrayList<>(Math.max(count, 0));
+
+    Iterator<TrainDeparture> iterator = departureIndex
+        .tailMap(firstKeyAt(MinuteOfDay.of(hour, minute)), true).values().iterator();
+
+    while (nextTrainDepartures.size() < count && iterator.hasNext()) {
+      nextTrainDepartures.add(iterator.next());
+    }
+    return nextTrainDepartures;
+  }
+
+  /**
+   * Returns one page of the {@code TrainDeparture}s that have not left yet, in the same order
+   * and with the same filtering as {@link #getStreamOfTimeFilteredTrainDepartures()}.
+   * The first page is fetched with a {@code null} token, and every following page with the token
+   * of the page before it.
+   * <br>
+   * The token holds the key of the last departure on the page, so fetching a page seeks
+   * straight to where the last page ended in the departure index. The cost of a page is in
+   * proportion to the page size, not to the number of departures in the station.
+   *
+   * @param pageSize The largest number of {@code TrainDeparture}s on the page. Must be positive.
+   * @param pageToken The token of the page to fetch, or {@code null} for the first page.
+   * @return The page of {@code TrainDeparture}s.
+   * @throws IllegalArgumentException If the page size is not positive, or the token is not a
+   *        token given by this method.
+   * @since 1.12.0
+   */
+  public DeparturePage getTrainDeparturePage(int pageSize, String pageToken) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be positive, was " + pageSize);
+    }
+
+    long stationKey = firstKeyAt(stationTime.getMinuteOfDay());
+    NavigableMap<Long, TrainDeparture> remaining = departureIndex.tailMap(stationKey, true);
+    if (pageToken != null) {
+      // Continuing right after the last departure of the previous page
+      long tokenKey = Long.parseUnsignedLong(pageToken, 16);
+      if (tokenKey >= stationKey) {
+        remaining = departureIndex.tailMap(tokenKey, false);
+      }
+    }
+
+    List<TrainDeparture> page = new ArrayList<>(pageSize);
+    String nextPageToken = null;
+    Iterator<TrainDeparture> iterator = remaining.values().iterator();
+
+    while (nextPageToken == null && iterator.hasNext()) {
+      TrainDeparture trainDeparture = iterator.next();
+
+      if (page.size() < pageSize) {
+        page.add(trainDeparture);
+      } else {
+        // There is at least one more departure, so the page gets a token for the next page
+        nextPageToken = Long.toHexString(page.get(pageSize - 1).getSortKey());
+      }
+    }
+    return new DeparturePage(page, nextPageToken);
+  }
+
+  /**
+   * Returns the smallest key in the departure index of a departure leaving at the given minute,
+   * including delay. Every departure leaving at or after the minute has a key at or above it.
+   *
+   * @param effectiveMinute The departure time including delay, in minutes since 00:00.
+   * @return The smallest key of a departure leaving at the minute.
+   * @since 1.19.0
+   */
+  static long firstKeyAt(int effectiveMinute) {
+    return TrainDeparture.sortKeyOf(effectiveMinute, 0, 0);
   }
 
   /**
@@ -261,9 +656,15 @@ public class Station {
    */
   public int selectTrainDeparture(int trainNumber) {
     int returnCode = 0;
-    if (hasTrainDepartureWithTrainNumber(trainNumber)) {
-      selectedTrainDeparture = getTrainDepartureByTrainNumber(trainNumber);
+    TrainDeparture trainDeparture = getTrainDepartureByTrainNumber(trainNumber);
+
+    if (trainDeparture != null) {
+      selectedTrainDeparture = trainDeparture;
       // Successfully selected trainDeparture
+
+      if (stationObserver != null) {
+        stationObserver.trainDepartureSelected(trainNumber);
+      }
     } else {
       // TrainDeparture not found
       returnCode = -1;
@@ -281,4 +682,169 @@ public class Station {
   public TrainDeparture getSelectedTrainDeparture() {
     return selectedTrainDeparture;
   }
+
+  /**
+   * Sets the delay of the {@code TrainDeparture} with the given train-number, and publishes a
+   * snapshot with the change.
+   *
+   * @param trainNumber The train-number of the {@code TrainDeparture} to delay.
+   * @param hour The hour of the delay.
+   * @param minute The minute of the delay.
+   * @return {@code true} if the {@code TrainDeparture} was found, {@code false} otherwise.
+   * @since 1.17.0
+   */
+  public boolean setDelay(int trainNumber, int hour, int minute) {
+    TrainDeparture trainDeparture = trainDepartures.get(trainNumber);
+    boolean found = trainDeparture != null;
+
+    if (found) {
+      trainDeparture.setDelay(hour, minute);
+      // The departure is told apart by its version, even when the time it leaves is the same
+      markChanged(trainNumber, trainDeparture.getSortKey());
+      publishSnapshot();
+
+      if (stationObserver != null) {
+        stationObserver.delayChanged(trainNumber, trainDeparture.getDelayMinutes());
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Sets the track of the {@code TrainDeparture} with the given train-number, and publishes a
+   * snapshot with the change.
+   *
+   * @param trainNumber The train-number of the {@code TrainDeparture} to change.
+   * @param track The new track.
+   * @return {@code true} if the {@code TrainDeparture} was found, {@code false} otherwise.
+   * @since 1.17.0
+   */
+  public boolean setTrack(int trainNumber, int track) {
+    TrainDeparture trainDeparture = trainDepartures.get(trainNumber);
+    boolean found = trainDeparture != null;
+
+    if (found) {
+      trainDeparture.setTrack(track);
+      publishSnapshot();
+
+      if (stationObserver != null) {
+        stationObserver.trackChanged(trainNumber, trainDeparture.getTrack());
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Sets the observer told about every change made through the station.
+   * Changes made before the observer is set are not reported.
+   *
+   * @param stationObserver The new observer, or {@code null} for none.
+   * @since 1.18.0
+   */
+  public void setStationObserver(StationObserver stationObserver) {
+    this.stationObserver = stationObserver;
+  }
+
+  /**
+   * Publishes a {@link StationSnapshot} of the station as it is now, for readers on other
+   * threads. Must be called from the thread changing the station.
+   * The snapshot holds every departure of the station, including those before the station time,
+   * and the board, which is the part of them from the station time on.
+   * Departures that have not changed since their last snapshot are not copied again. If nothing
+   * has changed since the last published snapshot, that snapshot is kept, so its version only
+   * increases when the content does.
+   * <br>
+   * If only delays and tracks have changed since the last snapshot, only the changed departures
+   * are looked up, each costing a copy of one chunk of the list and of its array of chunks.
+   * Otherwise the list is built again from the departure index, which costs time in proportion
+   * to the number of departures in the station.
+   *
+   * @return The published snapshot.
+   * @since 1.17.0
+   */
+  public StationSnapshot publishSnapshot() {
+    StationSnapshot published = snapshot;
+    int stationMinute = stationTime.getMinuteOfDay();
+    TrainDepartureSnapshot selected = selectedTrainDeparture == null
+        ? null
+        : selectedTrainDeparture.getSnapshot();
+    DepartureSnapshotList departures = publishedDepartures;
+
+    if (departuresOutdated) {
+      List<TrainDepartureSnapshot> indexed = new ArrayList<>(departureIndex.size());
+      departureIndex.values().forEach(d -> indexed.add(d.getSnapshot()));
+      if (!sameSnapshots(indexed, departures)) {
+        departures = DepartureSnapshotList.of(indexed);
+      }
+    } else {
+      for (Map.Entry<Integer, Long> change : changedSortKeys.entrySet()) {
+        // Taken out at the place it had when last published, and put at its new place
+        departures = departures.without(change.getValue())
+            .with(trainDepartures.get(change.getKey()).getSnapshot());
+      }
+    }
+    departuresOutdated = false;
+    changedSortKeys.clear();
+
+    if (stationMinute != published.getStationMinuteOfDay()
+        || selected != published.getSelectedTrainDeparture()
+        || departures != publishedDepartures) {
+      publishedDepartures = departures;
+      // The board is the departures from the station time on, which share the list of all
+      List<TrainDepartureSnapshot> board = departures.subList(
+          departures.indexAtOrAbove(firstKeyAt(stationMinute)), departures.size());
+      published = new StationSnapshot(published.getVersion() + 1, stationMinute, departures,
+          board, selected);
+      // A single volatile write, so readers see either the old or the new snapshot
+      snapshot = published;
+    }
+    return published;
+  }
+
+  /**
+   * Returns the latest published {@link StationSnapshot}. Can be called from any thread,
+   * and never blocks. Changes made after the last call to {@link #publishSnapshot()} are not
+   * in the snapshot.
+   *
+   * @return The latest published snapshot.
+   * @since 1.17.0
+   */
+  public StationSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Marks a {@code TrainDeparture} held by the station as changed since the last published
+   * snapshot. Only the first sort key given after a snapshot is kept, since that is the place of
+   * the departure in the published snapshot.
+   *
+   * @param trainNumber The train-number of the changed {@code TrainDeparture}.
+   * @param previousSortKey The sort key of the {@code TrainDeparture} before the change.
+   * @since 1.20.0
+   */
+  private void markChanged(int trainNumber, long previousSortKey) {
+    if (!departuresOutdated) {
+      // Once the departures are built again, the changes are picked up with everything else
+      changedSortKeys.putIfAbsent(trainNumber, previousSortKey);
+    }
+  }
+
+  /**
+   * Checks whether two lists hold the same snapshot objects in the same order.
+   * Snapshots are only replaced when their departure changes, so comparing by identity is enough.
+   *
+   * @param first The first list.
+   * @param second The second list.
+   * @return {@code true} if the lists hold the same snapshots, {@code false} otherwise.
+   * @since 1.17.0
+   */
+  private static boolean sameSnapshots(
+      List<TrainDepartureSnapshot> first, List<TrainDepartureSnapshot> second
+  ) {
+    boolean same = first.size() == second.size();
+    for (int i = 0; same && i < first.size(); i++) {
+      same = first.get(i) == second.get(i);
+    }
+    return same;
+  }
 }
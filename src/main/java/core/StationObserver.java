@@ -0,0 +1,70 @@
+package core;
+
+/**
+ * Observer of the changes made to a {@link Station}, told after every change made through the
+ * station. Used for writing every change to a journal, so the station can be rebuilt after a
+ * crash by applying the same changes again in the same order.
+ * <br>
+ * The observer is called on the thread changing the station, before the changing method returns,
+ * so it should only record the change and leave slow work, such as writing to disk, for later.
+ * Changes made directly on a {@code TrainDeparture} are not seen by the observer, so delays and
+ * tracks should be set through {@link Station#setDelay(int, int, int)} and
+ * {@link Station#setTrack(int, int)}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public interface StationObserver {
+
+  /**
+   * Called after a {@code TrainDeparture} has been added to the station, replacing any
+   * departure with the same train-number.
+   *
+   * @param trainDeparture The {@code TrainDeparture} that was added.
+   * @since 1.0.0
+   */
+  void trainDepartureAdded(TrainDeparture trainDeparture);
+
+  /**
+   * Called after the selected {@code TrainDeparture} has been removed from the station.
+   *
+   * @param trainNumber The train-number of the removed departure.
+   * @since 1.0.0
+   */
+  void trainDepartureRemoved(int trainNumber);
+
+  /**
+   * Called after a {@code TrainDeparture} has been selected.
+   *
+   * @param trainNumber The train-number of the selected departure.
+   * @since 1.0.0
+   */
+  void trainDepartureSelected(int trainNumber);
+
+  /**
+   * Called after the station time has been moved forward.
+   *
+   * @param minuteOfDay The new station time, in minutes since 00:00.
+   * @since 1.0.0
+   */
+  void stationTimeChanged(int minuteOfDay);
+
+  /**
+   * Called after the delay of a {@code TrainDeparture} has been set.
+   *
+   * @param trainNumber The train-number of the delayed departure.
+   * @param delayMinutes The new delay, in minutes.
+   * @since 1.0.0
+   */
+  void delayChanged(int trainNumber, int delayMinutes);
+
+  /**
+   * Called after the track of a {@code TrainDeparture} has been set.
+   *
+   * @param trainNumber The train-number of the changed departure.
+   * @param track The new track, or -1 if the track was unset.
+   * @since 1.0.0
+   */
+  void trackChanged(int trainNumber, int track);
+}
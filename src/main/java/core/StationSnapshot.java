@@ -0,0 +1,103 @@
+package core;
+
+import java.util.List;
+
+/**
+ * Immutable view of the departure board of a {@link Station} at one point in time.
+ * Holds the station time, a {@link TrainDepartureSnapshot} of every departure the station holds,
+ * of the departures among them on the board, and of the selected departure, all taken at the
+ * same time.
+ * <br>
+ * The station publishes a new snapshot after it has been changed, and readers on other threads
+ * read the latest one without taking any locks. The version of the snapshot increases every
+ * time a snapshot with different content is published, so two reads of the same version have
+ * the same content.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+public final class StationSnapshot {
+  private final long version;
+  private final int stationMinuteOfDay;
+  private final List<TrainDepartureSnapshot> allTrainDepartures;
+  private final List<TrainDepartureSnapshot> trainDepartures;
+  private final TrainDepartureSnapshot selectedTrainDeparture;
+
+  /**
+   * Constructs a new {@code StationSnapshot}.
+   *
+   * @param version The version of the snapshot.
+   * @param stationMinuteOfDay The station time, in minutes since 00:00.
+   * @param allTrainDepartures Every departure of the station, in board order. Not copied, so the
+   *        list must not be changed after this call.
+   * @param trainDepartures The departures on the board, in board order. Not copied, so the list
+   *        must not be changed after this call.
+   * @param selectedTrainDeparture The selected departure, or {@code null} if none is selected.
+   * @since 1.1.0
+   */
+  StationSnapshot(long version, int stationMinuteOfDay,
+      List<TrainDepartureSnapshot> allTrainDepartures,
+      List<TrainDepartureSnapshot> trainDepartures,
+      TrainDepartureSnapshot selectedTrainDeparture) {
+    this.version = version;
+    this.stationMinuteOfDay = stationMinuteOfDay;
+    this.allTrainDepartures = allTrainDepartures;
+    this.trainDepartures = trainDepartures;
+    this.selectedTrainDeparture = selectedTrainDeparture;
+  }
+
+  /**
+   * Returns the version of the snapshot. The first snapshot of a station, before anything
+   * is published, has version 0.
+   *
+   * @return The version of the snapshot.
+   * @since 1.0.0
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the station time when the snapshot was taken.
+   *
+   * @return The station time in minutes since 00:00.
+   * @since 1.0.0
+   */
+  public int getStationMinuteOfDay() {
+    return stationMinuteOfDay;
+  }
+
+  /**
+   * Returns the departures on the board when the snapshot was taken, in the same order and
+   * with the same filtering as {@link Station#getStreamOfTimeFilteredTrainDepartures()}.
+   *
+   * @return An unmodifiable list of the departures on the board.
+   * @since 1.0.0
+   */
+  public List<TrainDepartureSnapshot> getTrainDepartures() {
+    return trainDepartures;
+  }
+
+  /**
+   * Returns every departure the station held when the snapshot was taken, in board order,
+   * including the departures before the station time, which are not on the board but can still
+   * be selected and delayed.
+   *
+   * @return An unmodifiable list of every departure of the station.
+   * @since 1.1.0
+   */
+  public List<TrainDepartureSnapshot> getAllTrainDepartures() {
+    return allTrainDepartures;
+  }
+
+  /**
+   * Returns the selected departure when the snapshot was taken.
+   *
+   * @return The selected departure, or {@code null} if none was selected.
+   * @since 1.0.0
+   */
+  public TrainDepartureSnapshot getSelectedTrainDeparture() {
+    return selectedTrainDeparture;
+  }
+}
@@ -0,0 +1,132 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Table of the distinct lines and destinations of a station, giving every distinct string a
+ * small integer code.
+ * <br>
+ * A timetable has thousands of departures, but only a few dozen lines and destinations.
+ * Every {@code TrainDeparture} added to a station has its line and destination swapped for the
+ * single copy held by the table of the station, so the heap holds every string once.
+ * The case-folded form of every string is made once, when the string is first seen,
+ * so searching does not fold the same destination again and again.
+ * <br>
+ * Codes start at 0 and are never reused, so a code stays valid while the table exists.
+ * The table is not thread-safe.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class SymbolTable {
+  private final HashMap<String, Integer> codes;
+  private final ArrayList<String> symbols;
+  private final ArrayList<String> foldedSymbols;
+
+  /**
+   * Constructs an empty {@code SymbolTable}.
+   *
+   * @since 1.0.0
+   */
+  public SymbolTable() {
+    codes = new HashMap<>();
+    symbols = new ArrayList<>();
+    foldedSymbols = new ArrayList<>();
+  }
+
+  /**
+   * Returns the code of the string, giving it the next free code if it has not been seen
+   * before.
+   *
+   * @param symbol The string to look up. Must not be {@code null}.
+   * @return The code of the string.
+   * @since 1.0.0
+   */
+  public int intern(String symbol) {
+    Integer code = codes.get(symbol);
+
+    if (code == null) {
+      code = symbols.size();
+      codes.put(symbol, code);
+      symbols.add(symbol);
+      foldedSymbols.add(fold(symbol));
+    }
+    return code;
+  }
+
+  /**
+   * Returns the code of the string, without adding it to the table.
+   *
+   * @param symbol The string to look up.
+   * @return The code of the string, or -1 if it is not in the table.
+   * @since 1.0.0
+   */
+  public int codeOf(String symbol) {
+    Integer code = codes.get(symbol);
+    return code == null ? -1 : code;
+  }
+
+  /**
+   * Returns the single copy of the string with the given code held by the table.
+   *
+   * @param code The code of the string.
+   * @return The string with the code.
+   * @since 1.0.0
+   */
+  public String symbol(int code) {
+    return symbols.get(code);
+  }
+
+  /**
+   * Returns the case-folded form of the string with the given code.
+   *
+   * @param code The code of the string.
+   * @return The case-folded string with the code.
+   * @since 1.0.0
+   */
+  public String folded(int code) {
+    return foldedSymbols.get(code);
+  }
+
+  /**
+   * Returns the number of distinct strings in the table.
+   *
+   * @return The number of strings in the table.
+   * @since 1.0.0
+   */
+  public int size() {
+    return symbols.size();
+  }
+
+  /**
+   * Marks the code of every string containing the given text. The search is not case-sensitive,
+   * and only compares against the stored case-folded forms.
+   *
+   * @param text The text to search for.
+   * @return An array with {@code true} at the code of every matching string.
+   * @since 1.0.0
+   */
+  public boolean[] codesContaining(String text) {
+    String folded = fold(text);
+    boolean[] matching = new boolean[foldedSymbols.size()];
+
+    for (int code = 0; code < matching.length; code++) {
+      matching[code] = foldedSymbols.get(code).contains(folded);
+    }
+    return matching;
+  }
+
+  /**
+   * Case-folds the given text, so searches are not case-sensitive.
+   *
+   * @param text The text to fold.
+   * @return The folded text.
+   * @since 1.0.0
+   */
+  public static String fold(String text) {
+    return text.toLowerCase(Locale.ROOT);
+  }
+}
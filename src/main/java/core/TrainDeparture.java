@@ -3,24 +3,45 @@ package core;
 import java.util.Arrays;
 import java.util.Objects;
 import utility.Clock;
+import utility.MinuteOfDay;
 
 
 /**
  * The {@code TrainDeparture} class represents a train on a station.
  * All {@code TrainDeparture}s has a departure-time, delay, line, destination and track.
- * Both the deparute-time and delay is represented by a {@code Clock} object.
+ * Both the deparute-time and delay are stored as minutes, using {@link MinuteOfDay}, and are
+ * given out as {@code Clock} objects for existing callers.
+ * When added to a station, the line and destination are swapped for the copies held by the
+ * {@link SymbolTable} of the station, and their codes in the table are stored with them.
+ * The departure time including delay is kept up to date whenever the delay is set, so it never
+ * has to be calculated when sorting or filtering. Every change to the delay or track increases
+ * the version of the {@code TrainDeparture}, and a change to the departure time including delay
+ * or to the track is reported to the station holding the {@code TrainDeparture}.
+ * The order of {@code TrainDeparture}s is kept as one packed {@code long}, the sort key, which is
+ * updated together with the departure time including delay, so comparing two departures is a
+ * single comparison.
+ * An immutable copy of the current version can be taken with {@link #getSnapshot()}, for
+ * readers that must not see a change half-way through.
  *
  * @author Jonas Birkeli
- * @version 1.5.0
+ * @version 1.12.0
  * @since 1.0.0
  */
 public class TrainDeparture implements Comparable<TrainDeparture> {
-  private final Clock departureTime;
-  private final Clock delay;
+  private final int departureMinuteOfDay;
+  private int delayMinutes;
   private String line;
   private String destination;
   private int track;
   private int trainNumber;
+  private int effectiveMinuteOfDay;
+  private long sortKey;
+  private int version;
+  private TrainDepartureSnapshot snapshot;
+  private DepartureOwner owner;
+  private SymbolTable symbolTable;
+  private int lineCode;
+  private int destinationCode;
 
   /**
    * Constructs a new {@code TrainDeparture} with default values.
@@ -37,12 +58,17 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
    * @since 1.0.0
    */
   public TrainDeparture() {
-    departureTime = new Clock(); // Default 00:00
-    delay = new Clock(); // Default 00:00
+    departureMinuteOfDay = 0; // Default 00:00
+    delayMinutes = 0; // Default 00:00
     setLine("");
     setDestination("");
     setTrack(-1);
     setTrainNumber(-1);
+    effectiveMinuteOfDay = 0;
+    sortKey = sortKeyOf(effectiveMinuteOfDay, departureMinuteOfDay, getTrainNumber());
+    version = 0;
+    lineCode = -1;
+    destinationCode = -1;
   }
 
   /**
@@ -64,23 +90,41 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
       String destination,
       int track,
       int trainNumber) {
-    departureTime = new Clock(hour, minute);
-    delay = new Clock(); // Default 00:00
+    departureMinuteOfDay = MinuteOfDay.of(hour, minute);
+    delayMinutes = 0; // Default 00:00
     setLine(line);
     setDestination(destination);
     setTrack(track);
     setTrainNumber(trainNumber);
+    effectiveMinuteOfDay = departureMinuteOfDay;
+    sortKey = sortKeyOf(effectiveMinuteOfDay, departureMinuteOfDay, getTrainNumber());
+    version = 0;
+    lineCode = -1;
+    destinationCode = -1;
   }
 
   /**
    * Returns the departure time of the {@code TrainDeparture}
-   * as a {@code Clock} object.
+   * as a new {@code Clock} object.
+   * Use {@link #getDepartureMinuteOfDay()} where many departures are read,
+   * as it does not create any objects.
    *
    * @return the departure time of the {@code TrainDeparture}.
    * @since 1.3.0
    */
   public Clock getDepartureTime() {
-    return departureTime;
+    return Clock.ofMinuteOfDay(departureMinuteOfDay);
+  }
+
+  /**
+   * Returns the departure time of the {@code TrainDeparture}, not including delay,
+   * as the number of minutes since midnight.
+   *
+   * @return The departure time in minutes since 00:00.
+   * @since 1.8.0
+   */
+  public int getDepartureMinuteOfDay() {
+    return departureMinuteOfDay;
   }
 
   /**
@@ -88,30 +132,199 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
    * Each {@code TrainDeparture} has two delays,
    * one representing hours, and one representing minutes.
    * If null, not two elements or either is negative, delay is set to 0.
+   * If the departure time including delay changes, the station holding the
+   * {@code TrainDeparture} is told, so it can move the departure in its indexes.
    *
    * @param hour The hour of the delay for the {@code TrainDeparture}.
    * @param minute The minute of the delay for the {@code TrainDeparture}.
    * @since 1.0.0
    */
   public void setDelay(int hour, int minute) {
+    int previousEffectiveMinute = effectiveMinuteOfDay;
+
     if (hour < 0 || minute < 0) {
       // If either is negative, set delay to 0
       // Overflow is accounted for, so no need to check for that
-      delay.setTime(0, 0);
+      delayMinutes = 0;
     } else {
-      delay.setTime(hour, minute);
+      delayMinutes = MinuteOfDay.of(hour, minute);
+    }
+    effectiveMinuteOfDay = MinuteOfDay.plus(departureMinuteOfDay, delayMinutes);
+    sortKey = sortKeyOf(effectiveMinuteOfDay, departureMinuteOfDay, trainNumber);
+    version++;
+
+    if (owner != null && previousEffectiveMinute != effectiveMinuteOfDay) {
+      owner.effectiveTimeChanged(this, previousEffectiveMinute);
     }
   }
 
   /**
    * Returns the delay of the {@code TrainDeparture}
-   * as a referance to a {@code Clock} object.
+   * as a new {@code Clock} object.
+   * The delay can only be changed through {@link #setDelay(int, int)}, so the departure time
+   * including delay is kept up to date. Changing the returned {@code Clock} has no effect.
    *
    * @return the delay of the {@code TrainDeparture}.
    * @since 1.0.0
    */
   public Clock getDelay() {
-    return delay;
+    return Clock.ofMinuteOfDay(delayMinutes);
+  }
+
+  /**
+   * Returns the delay of the {@code TrainDeparture} as a number of minutes.
+   *
+   * @return The delay in minutes, between 0 and 1439.
+   * @since 1.8.0
+   */
+  public int getDelayMinutes() {
+    return delayMinutes;
+  }
+
+  /**
+   * Returns the time the {@code TrainDeparture} actually departs, including delay,
+   * as the number of minutes since midnight. Like {@link Clock#combine(Clock)},
+   * the time wraps around at midnight.
+   * The time is stored when the delay is set, so nothing is calculated when calling this method.
+   *
+   * @return The departure time including delay, in minutes since 00:00.
+   * @since 1.6.0
+   */
+  public int getEffectiveMinuteOfDay() {
+    return effectiveMinuteOfDay;
+  }
+
+  /**
+   * Returns the sort key of the {@code TrainDeparture}, which orders departures by departure
+   * time including delay, then by departure time without delay, then by train-number.
+   * Comparing the sort keys of two {@code TrainDeparture}s gives the same result as
+   * {@link #compareTo(TrainDeparture)}.
+   * The key is stored when the delay is set, so nothing is calculated when calling this method.
+   *
+   * @return The sort key of the {@code TrainDeparture}.
+   * @since 1.10.0
+   */
+  public long getSortKey() {
+    return sortKey;
+  }
+
+  /**
+   * Packs a departure time including delay, a departure time without delay and a train-number
+   * into a sort key. Both times are below 2048 minutes, so the departure time including delay
+   * takes the 11 bits above bit 43, the departure time without delay the 11 bits above bit 32,
+   * and the train-number the lower 32 bits. The lower half of the key is therefore always the
+   * train-number.
+   *
+   * @param effectiveMinute The departure time including delay, in minutes since 00:00.
+   * @param departureMinute The departure time without delay, in minutes since 00:00.
+   * @param trainNumber The train-number.
+   * @return The sort key.
+   * @since 1.10.0
+   */
+  static long sortKeyOf(int effectiveMinute, int departureMinute, int trainNumber) {
+    return ((long) effectiveMinute << 43)
+        | ((long) departureMinute << 32)
+        | (trainNumber & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the version of the {@code TrainDeparture}.
+   * The version starts at 0, and is increased every time the delay or track is set.
+   * Two reads giving the same version means the {@code TrainDeparture} was not changed
+   * in between.
+   *
+   * @return The version of the {@code TrainDeparture}.
+   * @since 1.7.0
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns an immutable copy of the {@code TrainDeparture} as it is now.
+   * The same snapshot is given out until the {@code TrainDeparture} is changed, so departures
+   * that have not changed are not copied again.
+   * Must be called from the thread changing the {@code TrainDeparture}. Other threads should
+   * read the snapshots published by the station, see {@link Station#getSnapshot()}.
+   *
+   * @return A snapshot of the current version of the {@code TrainDeparture}.
+   * @since 1.11.0
+   */
+  public TrainDepartureSnapshot getSnapshot() {
+    if (snapshot == null || snapshot.getVersion() != version) {
+      snapshot = new TrainDepartureSnapshot(this);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Sets the owner told about changes to the departure time including delay, and to the track.
+   * A {@code TrainDeparture} can only be held by one station at a time.
+   *
+   * @param owner The new owner, or {@code null} for none.
+   * @since 1.7.0
+   */
+  void setOwner(DepartureOwner owner) {
+    this.owner = owner;
+  }
+
+  /**
+   * Swaps the line and destination for the copies held by the given {@code SymbolTable},
+   * and stores their codes. Nothing happens if the {@code TrainDeparture} already uses the table.
+   *
+   * @param table The {@code SymbolTable} of the station holding the {@code TrainDeparture}.
+   * @since 1.9.0
+   */
+  void internSymbols(SymbolTable table) {
+    if (symbolTable != table) {
+      lineCode = table.intern(line);
+      line = table.symbol(lineCode);
+      destinationCode = table.intern(destination);
+      destination = table.symbol(destinationCode);
+      symbolTable = table;
+    }
+  }
+
+  /**
+   * Returns the {@code SymbolTable} the line and destination codes belong to.
+   *
+   * @return The {@code SymbolTable}, or {@code null} if the symbols have not been interned.
+   * @since 1.9.0
+   */
+  SymbolTable getSymbolTable() {
+    return symbolTable;
+  }
+
+  /**
+   * Returns the code of the line in the {@code SymbolTable} of the {@code TrainDeparture}.
+   *
+   * @return The code of the line, or -1 if the symbols have not been interned.
+   * @since 1.9.0
+   */
+  int getLineCode() {
+    return lineCode;
+  }
+
+  /**
+   * Returns the code of the destination in the {@code SymbolTable} of the
+   * {@code TrainDeparture}.
+   *
+   * @return The code of the destination, or -1 if the symbols have not been interned.
+   * @since 1.9.0
+   */
+  int getDestinationCode() {
+    return destinationCode;
+  }
+
+  /**
+   * Returns the owner told about changes to the departure time including delay, and to the
+   * track.
+   *
+   * @return The owner, or {@code null} if the {@code TrainDeparture} has none.
+   * @since 1.7.0
+   */
+  DepartureOwner getOwner() {
+    return owner;
   }
 
   /**
@@ -158,7 +371,7 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
   }
 
   /**
-   * Sets the track of the {@code TrainDeparture}.
+   * Sets the track of the {@code TrainDeparture}, and tells its owner.
    * If negative or zero, track is set to -1.
    *
    * @param track the track of the {@code TrainDeparture}.
@@ -170,6 +383,11 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
     } else {
       this.track = track;
     }
+    version++;
+
+    if (owner != null) {
+      owner.trackChanged(this);
+    }
   }
 
   /**
@@ -211,7 +429,11 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
    * Compares this {@code TrainDeparture} with the specified {@code TrainDeparture} for order.
    * Returns a negative integer, zero, or a positive integer as this {@code TrainDeparture}
    * is less than, equal to, or greater than the specified {@code TrainDeparture}.
-   * The comparison is based on the departure time of the {@code TrainDeparture}.
+   * The comparison is based on the departure time including delay of the
+   * {@code TrainDeparture}, so a delayed departure is ordered by when it actually leaves.
+   * Departures leaving at the same time are ordered by their departure time without delay,
+   * then by train-number, so departures with different train-numbers are never ordered as
+   * equal. Only the sort keys of the two departures are compared, see {@link #getSortKey()}.
    *
    * @param other the {@code TrainDeparture} to be compared.
    *              If null, returns 1.
@@ -223,31 +445,11 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
   @Override
   public int compareTo(TrainDeparture other) {
     // If other is null, this is bigger, return 1 meaning bigger
-    // Starting at -5 to make sure the state is changed
-    int state = -5;
-
-    if (other == null) {
-      state = 1;
-    } else {  // Checking for null to avoid NullPointerException in the following code block
-
-      // If this and other are equal, return 0 meaning equal
-      if (this.equals(other)) {
-        state = 0;
-      } else if (getDepartureTime().getHour() > other.getDepartureTime().getHour()) {
-        state = 1;  // Comparing departure times
-      } else if (getDepartureTime().getHour() < other.getDepartureTime().getHour()) {
-        state = -1;  // If this is smaller, return -1 meaning smaller
-      }
-
-      // If departure hours are equal, compare minutes
-      // Using builtin comparator for integers to compare minutes
-      if (state == -5) {
-        // If state is still -5, departure hours are equal
-        state =  Integer.compare(
-            getDepartureTime().getMinute(),
-            other.getDepartureTime().getMinute()
-        );
-      }
+    int state = 1;
+
+    if (other != null) {
+      // The sort key is kept up to date when the delay is set, so one comparison is enough
+      state = Long.compare(sortKey, other.sortKey);
     }
     return state;
   }
@@ -276,6 +478,8 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
    * If the specified object is not a {@code TrainDeparture}, returns false.
    * If the specified object is a {@code TrainDeparture} and all values are equal,
    * returns true.
+   * When both {@code TrainDeparture}s use the same {@code SymbolTable}, the line and destination
+   * are compared by their codes instead of as strings.
    *
    * @param o the object with which to compare.
    * @return true if this object is the same as the obj argument; false otherwise.
@@ -290,11 +494,14 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
     if (!(o instanceof TrainDeparture that)) {
       return false;
     }
+    boolean sameSymbols = symbolTable != null && symbolTable == that.symbolTable;
     return getTrack() == that.getTrack() && getTrainNumber() == that.getTrainNumber()
-        && Objects.equals(getDepartureTime(), that.getDepartureTime())
-        && Objects.equals(getDelay(), that.getDelay()) && Objects.equals(
-        getLine(), that.getLine()) && Objects.equals(getDestination(),
-        that.getDestination());
+        && departureMinuteOfDay == that.departureMinuteOfDay
+        && delayMinutes == that.delayMinutes
+        && (sameSymbols
+            ? lineCode == that.lineCode && destinationCode == that.destinationCode
+            : Objects.equals(getLine(), that.getLine())
+                && Objects.equals(getDestination(), that.getDestination()));
   }
 
   /**
@@ -309,7 +516,7 @@ public class TrainDeparture implements Comparable<TrainDeparture> {
   @Override
   public int hashCode() {
     // Entire method is auto-generated by IntelliJ
-    return Objects.hash(getDepartureTime(), getDelay(), getLine(), getDestination(), getTrack(),
-        getTrainNumber());
+    return Objects.hash(departureMinuteOfDay, delayMinutes, getLine(), getDestination(),
+        getTrack(), getTrainNumber());
   }
 }
@@ -0,0 +1,248 @@
+package core;
+
+import java.util.function.Consumer;
+
+/**
+ * Map from train-number to {@code TrainDeparture}, made for the train-numbers of a station.
+ * The map uses open addressing with linear probing, and stores the train-numbers in a plain
+ * {@code int} array next to an array of the {@code TrainDeparture}s.
+ * Compared to a {@code HashMap<Integer, TrainDeparture>}, no {@code Integer} or entry objects
+ * are created, neither when inserting nor when looking up a train-number.
+ * <br>
+ * A slot is empty when its value is {@code null}. Removed entries are not marked with tombstones,
+ * instead the following entries in the probe sequence are shifted back to fill the hole.
+ * This keeps lookups short even after many removals.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public final class TrainDepartureMap {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float MAX_LOAD_FACTOR = 0.5f;
+  private static final int HASH_MULTIPLIER = 0x9E3779B9;  // Fibonacci hashing
+
+  private int[] keys;
+  private TrainDeparture[] values;
+  private int size;
+  private int mask;
+  private int resizeThreshold;
+
+  /**
+   * Constructs an empty {@code TrainDepartureMap} with room for a few departures.
+   *
+   * @since 1.0.0
+   */
+  public TrainDepartureMap() {
+    allocate(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Returns the {@code TrainDeparture} with the given train-number.
+   * Returns {@code null} if the map does not contain the train-number.
+   *
+   * @param trainNumber The train-number to look up.
+   * @return The {@code TrainDeparture} with the given train-number, or {@code null}.
+   * @since 1.0.0
+   */
+  public TrainDeparture get(int trainNumber) {
+    int slot = slotOf(trainNumber);
+    while (values[slot] != null) {
+      if (keys[slot] == trainNumber) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Checks whether the map contains a {@code TrainDeparture} with the given train-number.
+   *
+   * @param trainNumber The train-number to check for.
+   * @return {@code true} if the map contains the train-number, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean containsKey(int trainNumber) {
+    return get(trainNumber) != null;
+  }
+
+  /**
+   * Stores the {@code TrainDeparture} with the given train-number.
+   * If the map already contains the train-number, the old {@code TrainDeparture} is replaced
+   * and returned.
+   *
+   * @param trainNumber The train-number to store the {@code TrainDeparture} under.
+   * @param trainDeparture The {@code TrainDeparture} to store. Must not be {@code null}.
+   * @return The replaced {@code TrainDeparture}, or {@code null} if there was none.
+   * @since 1.0.0
+   */
+  public TrainDeparture put(int trainNumber, TrainDeparture trainDeparture) {
+    int slot = slotOf(trainNumber);
+    while (values[slot] != null) {
+      if (keys[slot] == trainNumber) {
+        TrainDeparture replaced = values[slot];
+        values[slot] = trainDeparture;
+        return replaced;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    keys[slot] = trainNumber;
+    values[slot] = trainDeparture;
+    size++;
+
+    if (size > resizeThreshold) {
+      // Doubling the table keeps the load factor, and therefore the probe lengths, low
+      rehash(keys.length * 2);
+    }
+    return null;
+  }
+
+  /**
+   * Removes the {@code TrainDeparture} with the given train-number.
+   * The entries after the removed one in the probe sequence are shifted back,
+   * so no tombstone is left behind.
+   *
+   * @param trainNumber The train-number to remove.
+   * @return The removed {@code TrainDeparture}, or {@code null} if there was none.
+   * @since 1.0.0
+   */
+  public TrainDeparture remove(int trainNumber) {
+    int slot = slotOf(trainNumber);
+    while (values[slot] != null) {
+      if (keys[slot] == trainNumber) {
+        TrainDeparture removed = values[slot];
+        shiftBack(slot);
+        size--;
+        return removed;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Grows the map so it can hold the given number of {@code TrainDeparture}s without being
+   * rehashed again. Used before adding many departures at once, so the table is only
+   * rehashed one time. Nothing happens if the map is already large enough.
+   *
+   * @param expectedSize The number of {@code TrainDeparture}s the map should have room for.
+   * @since 1.2.0
+   */
+  public void ensureCapacity(int expectedSize) {
+    if (expectedSize > resizeThreshold) {
+      // Smallest power of two keeping the load factor at or below the maximum
+      int capacity = Integer.highestOneBit(
+          Math.max((int) Math.ceil(expectedSize / MAX_LOAD_FACTOR) - 1, 1)) << 1;
+      rehash(capacity);
+    }
+  }
+
+  /**
+   * Returns the number of {@code TrainDeparture}s in the map.
+   *
+   * @return The number of {@code TrainDeparture}s in the map.
+   * @since 1.0.0
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether the map is empty.
+   *
+   * @return {@code true} if the map contains no {@code TrainDeparture}s, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Performs the given action for every {@code TrainDeparture} in the map.
+   * The order of the {@code TrainDeparture}s is not specified.
+   *
+   * @param action The action to perform for every {@code TrainDeparture}.
+   * @since 1.1.0
+   */
+  public void forEach(Consumer<TrainDeparture> action) {
+    for (TrainDeparture value : values) {
+      if (value != null) {
+        action.accept(value);
+      }
+    }
+  }
+
+  /**
+   * Fills the hole left at the given slot by moving later entries of the same probe sequence
+   * back. An entry may only be moved if its home slot is not between the hole and itself,
+   * otherwise it would no longer be found.
+   *
+   * @param hole The slot that was emptied.
+   * @since 1.0.0
+   */
+  private void shiftBack(int hole) {
+    int slot = (hole + 1) & mask;
+    while (values[slot] != null) {
+      int home = slotOf(keys[slot]);
+
+      // Distance from the home slot to the current slot, and from the home slot to the hole
+      if (((slot - home) & mask) >= ((hole - home) & mask)) {
+        keys[hole] = keys[slot];
+        values[hole] = values[slot];
+        hole = slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    values[hole] = null;
+  }
+
+  /**
+   * Returns the home slot of the given train-number.
+   *
+   * @param trainNumber The train-number to find the home slot of.
+   * @return The first slot to probe for the train-number.
+   * @since 1.0.0
+   */
+  private int slotOf(int trainNumber) {
+    int hash = trainNumber * HASH_MULTIPLIER;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  /**
+   * Moves every entry into new arrays of the given capacity.
+   *
+   * @param capacity The new capacity. Must be a power of two.
+   * @since 1.0.0
+   */
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    TrainDeparture[] oldValues = values;
+    allocate(capacity);
+
+    for (int i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) {
+        int slot = slotOf(oldKeys[i]);
+        while (values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  /**
+   * Allocates empty arrays of the given capacity.
+   *
+   * @param capacity The capacity of the arrays. Must be a power of two.
+   * @since 1.0.0
+   */
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new TrainDeparture[capacity];
+    mask = capacity - 1;
+    resizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+  }
+}
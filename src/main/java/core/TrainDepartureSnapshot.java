@@ -0,0 +1,136 @@
+package core;
+
+/**
+ * Immutable copy of a {@link TrainDeparture}, as it was at one version.
+ * A {@code TrainDeparture} can be changed while it is read, so a reader could see the delay
+ * of one version and the track of another. A {@code TrainDepartureSnapshot} never changes,
+ * so it can be read from any thread without locks, and every value in it belongs to the same
+ * version of the departure.
+ * <br>
+ * Snapshots are made by {@link TrainDeparture#getSnapshot()}, which gives out the same snapshot
+ * until the departure is changed again.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class TrainDepartureSnapshot {
+  private final int trainNumber;
+  private final int departureMinuteOfDay;
+  private final int delayMinutes;
+  private final int effectiveMinuteOfDay;
+  private final String line;
+  private final String destination;
+  private final int track;
+  private final int version;
+  private final long sortKey;
+
+  /**
+   * Constructs a new {@code TrainDepartureSnapshot} of the current values of the given
+   * {@code TrainDeparture}.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to copy.
+   * @since 1.0.0
+   */
+  TrainDepartureSnapshot(TrainDeparture trainDeparture) {
+    trainNumber = trainDeparture.getTrainNumber();
+    departureMinuteOfDay = trainDeparture.getDepartureMinuteOfDay();
+    delayMinutes = trainDeparture.getDelayMinutes();
+    effectiveMinuteOfDay = trainDeparture.getEffectiveMinuteOfDay();
+    line = trainDeparture.getLine();
+    destination = trainDeparture.getDestination();
+    track = trainDeparture.getTrack();
+    version = trainDeparture.getVersion();
+    sortKey = trainDeparture.getSortKey();
+  }
+
+  /**
+   * Returns the train-number of the departure.
+   *
+   * @return The train-number.
+   * @since 1.0.0
+   */
+  public int getTrainNumber() {
+    return trainNumber;
+  }
+
+  /**
+   * Returns the departure time, not including delay, as the number of minutes since midnight.
+   *
+   * @return The departure time in minutes since 00:00.
+   * @since 1.0.0
+   */
+  public int getDepartureMinuteOfDay() {
+    return departureMinuteOfDay;
+  }
+
+  /**
+   * Returns the delay as a number of minutes.
+   *
+   * @return The delay in minutes.
+   * @since 1.0.0
+   */
+  public int getDelayMinutes() {
+    return delayMinutes;
+  }
+
+  /**
+   * Returns the departure time including delay, as the number of minutes since midnight.
+   *
+   * @return The departure time including delay, in minutes since 00:00.
+   * @since 1.0.0
+   */
+  public int getEffectiveMinuteOfDay() {
+    return effectiveMinuteOfDay;
+  }
+
+  /**
+   * Returns the line of the departure.
+   *
+   * @return The line.
+   * @since 1.0.0
+   */
+  public String getLine() {
+    return line;
+  }
+
+  /**
+   * Returns the destination of the departure.
+   *
+   * @return The destination.
+   * @since 1.0.0
+   */
+  public String getDestination() {
+    return destination;
+  }
+
+  /**
+   * Returns the track of the departure.
+   *
+   * @return The track, or -1 if the departure has no track.
+   * @since 1.0.0
+   */
+  public int getTrack() {
+    return track;
+  }
+
+  /**
+   * Returns the version of the {@code TrainDeparture} this snapshot was made from.
+   *
+   * @return The version of the departure.
+   * @since 1.0.0
+   */
+  public int getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the sort key of the departure, see {@link TrainDeparture#getSortKey()}.
+   *
+   * @return The sort key.
+   * @since 1.0.0
+   */
+  public long getSortKey() {
+    return sortKey;
+  }
+}
@@ -0,0 +1,62 @@
+package io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * One frame of the departure board, rendered once and handed to every {@link OutputSink}.
+ * <br>
+ * The frame holds the lines of the board, each complete with its colors, for sinks drawing line
+ * by line, such as the terminal. For sinks writing the whole board as text, such as a file or a
+ * socket, the lines are encoded as UTF-8 the first time the text is asked for, and the same bytes
+ * are given to every such sink. A frame never changes, so it can be read by every sink on its own
+ * thread.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class BoardFrame {
+  private final List<String> lines;
+  private ByteBuffer text;
+
+  /**
+   * Constructs a new {@code BoardFrame} with the given lines.
+   *
+   * @param lines The lines of the board, from the top down, without line breaks.
+   * @since 1.0.0
+   */
+  public BoardFrame(List<String> lines) {
+    this.lines = List.copyOf(lines);
+  }
+
+  /**
+   * Returns the lines of the board.
+   *
+   * @return The lines of the board, which can not be changed.
+   * @since 1.0.0
+   */
+  public List<String> getLines() {
+    return lines;
+  }
+
+  /**
+   * Returns the board as UTF-8 text, with a line break after every line.
+   * The text is encoded the first time it is asked for, and shared after that. Every call returns
+   * a buffer of its own, so sinks can read it at the same time.
+   *
+   * @return A read-only buffer holding the text of the board.
+   * @since 1.0.0
+   */
+  public synchronized ByteBuffer getText() {
+    if (text == null) {
+      StringBuilder builder = new StringBuilder();
+      for (String line : lines) {
+        builder.append(line).append('\n');
+      }
+      text = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    return text.asReadOnlyBuffer();
+  }
+}
@@ -0,0 +1,262 @@
+package io;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands every frame of the departure board to a number of {@link OutputSink}s, such as the
+ * terminal, a file and a socket.
+ * <br>
+ * Every sink has a thread of its own, so publishing a frame never waits for a sink, and a slow
+ * sink never holds back the others. Each sink only keeps the latest frame not written yet. If a
+ * new frame is published while a sink is still writing, the new frame replaces the one waiting,
+ * so a slow sink skips frames instead of falling behind, and always writes the latest board next.
+ * <br>
+ * A sink failing to write a frame is closed and gets no more frames, while the other sinks go on.
+ * The failure is kept until {@link #takeFailure()} is called.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public final class BoardPublisher implements AutoCloseable {
+  private final List<SinkWorker> workers;
+  private final AtomicReference<IOException> failure;
+
+  /**
+   * Constructs a new {@code BoardPublisher} without sinks.
+   *
+   * @since 1.0.0
+   */
+  public BoardPublisher() {
+    this.workers = new CopyOnWriteArrayList<>();
+    this.failure = new AtomicReference<>();
+  }
+
+  /**
+   * Adds a sink, which gets every frame published from now on.
+   *
+   * @param sink The sink to add.
+   * @since 1.0.0
+   */
+  public void addSink(OutputSink sink) {
+    workers.add(new SinkWorker(sink));
+  }
+
+  /**
+   * Publishes a frame to every sink, without waiting for any of them.
+   *
+   * @param frame The frame to publish.
+   * @since 1.0.0
+   */
+  public void publish(BoardFrame frame) {
+    for (SinkWorker worker : workers) {
+      worker.offer(frame);
+    }
+  }
+
+  /**
+   * Makes every sink forget what it has written, after the frames already published.
+   *
+   * @since 1.0.0
+   */
+  public void reset() {
+    for (SinkWorker worker : workers) {
+      worker.run(worker.sink::reset);
+    }
+  }
+
+  /**
+   * Tells every sink that the board has started, after the frames already published.
+   * Each sink is told on its own thread, see {@link OutputSink#boardStarted()}.
+   *
+   * @since 1.1.0
+   */
+  public void boardStarted() {
+    for (SinkWorker worker : workers) {
+      worker.run(() -> worker.call(worker.sink::boardStarted));
+    }
+  }
+
+  /**
+   * Tells every sink that the board has stopped, after the frames already published, and waits
+   * until they are done, or the time runs out for a sink.
+   * Each sink is told on its own thread, see {@link OutputSink#boardStopped()}.
+   *
+   * @param timeoutMillis The longest time to wait for each sink, in milliseconds.
+   * @since 1.1.0
+   */
+  public void boardStopped(long timeoutMillis) {
+    for (SinkWorker worker : workers) {
+      worker.run(() -> worker.call(worker.sink::boardStopped));
+    }
+    awaitWritten(timeoutMillis);
+  }
+
+  /**
+   * Waits until every sink has written the frames published so far, or the time runs out for a
+   * sink.
+   *
+   * @param timeoutMillis The longest time to wait for each sink, in milliseconds.
+   * @since 1.0.0
+   */
+  public void awaitWritten(long timeoutMillis) {
+    for (SinkWorker worker : workers) {
+      worker.await(timeoutMillis);
+    }
+  }
+
+  /**
+   * Returns the first failure of a sink since the last call, and forgets it.
+   *
+   * @return The failure, or {@code null} if no sink has failed.
+   * @since 1.0.0
+   */
+  public IOException takeFailure() {
+    return failure.getAndSet(null);
+  }
+
+  /**
+   * Stops every sink after the frames already published, and closes them, each on its own
+   * thread. The publisher has no sinks afterwards, and new sinks can be added to it again.
+   *
+   * @since 1.0.0
+   */
+  @Override
+  public void close() {
+    for (SinkWorker worker : workers) {
+      worker.close();
+    }
+    workers.clear();
+  }
+
+  /**
+   * Call to a sink that may fail.
+   *
+   * @since 1.1.0
+   */
+  @FunctionalInterface
+  private interface SinkCall {
+    void call() throws IOException;
+  }
+
+  /**
+   * Thread writing the frames of one sink, holding the latest frame not written yet.
+   *
+   * @since 1.0.0
+   */
+  private final class SinkWorker {
+    private final OutputSink sink;
+    private final ExecutorService executor;
+    private final AtomicReference<BoardFrame> latest;
+    private volatile boolean failed;
+
+    private SinkWorker(OutputSink sink) {
+      this.sink = sink;
+      this.latest = new AtomicReference<>();
+      this.executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "board-sink");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+
+    /**
+     * Makes the frame the next one to write. A write is only scheduled if no frame was waiting,
+     * since a waiting frame already has one, which will now write this frame instead.
+     */
+    private void offer(BoardFrame frame) {
+      if (!failed && latest.getAndSet(frame) == null) {
+        run(this::writeLatest);
+      }
+    }
+
+    /**
+     * Writes the latest frame, unless the sink has failed.
+     */
+    private void writeLatest() {
+      BoardFrame frame = latest.getAndSet(null);
+
+      if (frame != null) {
+        call(() -> sink.write(frame));
+      }
+    }
+
+    /**
+     * Calls the sink, unless it has failed. If the call fails, the sink is closed, and gets no
+     * more frames.
+     */
+    private void call(SinkCall sinkCall) {
+      if (!failed) {
+        try {
+          sinkCall.call();
+        } catch (IOException e) {
+          failed = true;
+          failure.compareAndSet(null, e);
+          closeSink();
+        }
+      }
+    }
+
+    /**
+     * Runs a task on the thread of the sink, after the tasks already given to it.
+     */
+    private void run(Runnable task) {
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        // The publisher has been closed, so nothing is written anymore
+      }
+    }
+
+    /**
+     * Waits until the tasks already given to the thread of the sink are done.
+     */
+    private void await(long timeoutMillis) {
+      try {
+        executor.submit(() -> { }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException | ExecutionException | TimeoutException e) {
+        // The sink is closed, or too slow to wait for
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Closes the sink on its own thread after the tasks already given to it, so it is never
+     * closed while writing a frame, and stops the thread.
+     */
+    private void close() {
+      run(() -> {
+        if (!failed) {
+          closeSink();
+        }
+      });
+      executor.shutdown();
+      try {
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    /**
+     * Closes the sink, keeping the failure if it could not be closed.
+     */
+    private void closeSink() {
+      try {
+        sink.close();
+      } catch (IOException e) {
+        failure.compareAndSet(null, e);
+      }
+    }
+  }
+}
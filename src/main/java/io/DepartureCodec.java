@@ -0,0 +1,511 @@
+package io;
+
+import core.Station;
+import core.StationSnapshot;
+import core.TrainDeparture;
+import core.TrainDepartureSnapshot;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import utility.MinuteOfDay;
+
+/**
+ * Compact binary codec for {@code TrainDeparture}s and {@code Station} snapshots, reading from
+ * and writing to a {@code ByteBuffer}.
+ * <br>
+ * Every number is written as a varint, seven bits to a byte, so the small numbers of a
+ * timetable take one or two bytes. Train-numbers and tracks may be -1, so they are zigzag
+ * encoded first. Times are written as minutes of the day, as stored by {@link MinuteOfDay}.
+ * <br>
+ * Lines and destinations are dictionary coded. Every distinct string is written once, in UTF-8,
+ * the first time it is used, and is then referred to by its code. A reference equal to the
+ * number of strings seen so far means a new string follows. The dictionary lives in the codec,
+ * so a stream of departures must be read with one codec from its start, in the same order it
+ * was written. Writing a station starts a new dictionary, so a station is read on its own.
+ * <br>
+ * Writing does not create any objects, apart from the dictionary entry of a new string.
+ * Reading creates the departures, and the strings of the dictionary once.
+ * A departure read back has the same values as the one written. Its version is not kept.
+ * <br>
+ * A station is written as:
+ *   <ul>
+ *     <li>the magic number {@value #MAGIC} and the format version, {@value #FORMAT_VERSION},</li>
+ *     <li>the station time,</li>
+ *     <li>whether a departure is selected, and if so, its train-number,</li>
+ *     <li>the number of departures, followed by every departure of the station, including those
+ *     before the station time.</li>
+ *   </ul>
+ * A departure is written as its train-number, departure time, delay, track, line and
+ * destination. A codec is not thread-safe.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public final class DepartureCodec {
+  public static final int MAGIC = 0x54445354;  // "TDST"
+  public static final int FORMAT_VERSION = 1;
+
+  private static final int MAX_VARINT_BYTES = 5;
+
+  private final HashMap<String, Integer> writeCodes;
+  private String[] readSymbols;
+  private int readSymbolCount;
+  private char[] chars;
+
+  /**
+   * Constructs a new {@code DepartureCodec} with empty dictionaries.
+   *
+   * @since 1.0.0
+   */
+  public DepartureCodec() {
+    writeCodes = new HashMap<>();
+    readSymbols = new String[16];
+    readSymbolCount = 0;
+    chars = new char[64];
+  }
+
+  /**
+   * Clears the dictionaries, so the next departure written or read starts a new stream.
+   *
+   * @since 1.0.0
+   */
+  public void reset() {
+    writeCodes.clear();
+    Arrays.fill(readSymbols, 0, readSymbolCount, null);
+    readSymbolCount = 0;
+  }
+
+  /**
+   * Writes the station snapshot to the buffer, starting a new dictionary.
+   * Every departure of the station is written, in board order, including the departures before
+   * the station time, so they can still be selected and delayed after the station is read.
+   *
+   * @param snapshot The snapshot to write.
+   * @param buffer The buffer to write to.
+   * @throws java.nio.BufferOverflowException If the buffer is too small. Use
+   *        {@link #encodedSize(StationSnapshot)} to find the size needed.
+   * @since 1.0.0
+   */
+  public void writeStation(StationSnapshot snapshot, ByteBuffer buffer) {
+    reset();
+    buffer.putInt(MAGIC);
+    buffer.put((byte) FORMAT_VERSION);
+    writeVarInt(buffer, snapshot.getStationMinuteOfDay());
+
+    TrainDepartureSnapshot selected = snapshot.getSelectedTrainDeparture();
+    buffer.put((byte) (selected == null ? 0 : 1));
+    if (selected != null) {
+      writeVarInt(buffer, zigzag(selected.getTrainNumber()));
+    }
+
+    List<TrainDepartureSnapshot> trainDepartures = snapshot.getAllTrainDepartures();
+    writeVarInt(buffer, trainDepartures.size());
+    for (int i = 0; i < trainDepartures.size(); i++) {
+      writeTrainDeparture(buffer, trainDepartures.get(i));
+    }
+  }
+
+  /**
+   * Reads a station written by {@link #writeStation(StationSnapshot, ByteBuffer)}, starting a
+   * new dictionary. The station gets the same time, departures and selected departure as the
+   * snapshot, and all departures are added in one go with {@link Station#addTrainDepartures}.
+   * The departures are written in the order of the departure index of the station, so they are
+   * not sorted again when added. No snapshot of the read station is published, so copies of the
+   * departures are only made when the caller asks for one.
+   *
+   * @param buffer The buffer to read from.
+   * @return The station read from the buffer.
+   * @throws IllegalArgumentException If the buffer does not hold a station of a known version.
+   * @throws java.nio.BufferUnderflowException If the buffer ends before the station does.
+   * @since 1.0.0
+   */
+  public Station readStation(ByteBuffer buffer) {
+    reset();
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Buffer does not hold a station");
+    }
+    int formatVersion = buffer.get();
+    if (formatVersion != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unknown station format version " + formatVersion);
+    }
+
+    Station station = new Station();
+    int stationMinute = readVarInt(buffer);
+    // Setting the time before adding, so no departure is filtered out on the way in
+    station.setStationTime(MinuteOfDay.hour(stationMinute), MinuteOfDay.minute(stationMinute));
+
+    boolean hasSelection = buffer.get() != 0;
+    int selectedTrainNumber = hasSelection ? unzigzag(readVarInt(buffer)) : 0;
+
+    int count = readVarInt(buffer);
+    List<TrainDeparture> trainDepartures = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      trainDepartures.add(readTrainDeparture(buffer));
+    }
+    station.addTrainDepartures(trainDepartures);
+
+    if (hasSelection) {
+      station.selectTrainDeparture(selectedTrainNumber);
+    }
+    return station;
+  }
+
+  /**
+   * Returns the number of bytes {@link #writeStation(StationSnapshot, ByteBuffer)} writes for
+   * the snapshot. The dictionary of the codec is not changed.
+   *
+   * @param snapshot The snapshot to measure.
+   * @return The size of the written snapshot in bytes.
+   * @since 1.0.0
+   */
+  public static int encodedSize(StationSnapshot snapshot) {
+    HashMap<String, Integer> seen = new HashMap<>();
+    TrainDepartureSnapshot selected = snapshot.getSelectedTrainDeparture();
+    List<TrainDepartureSnapshot> trainDepartures = snapshot.getAllTrainDepartures();
+
+    int size = Integer.BYTES + 1 + varIntSize(snapshot.getStationMinuteOfDay()) + 1
+        + (selected == null ? 0 : varIntSize(zigzag(selected.getTrainNumber())))
+        + varIntSize(trainDepartures.size());
+    for (int i = 0; i < trainDepartures.size(); i++) {
+      TrainDepartureSnapshot trainDeparture = trainDepartures.get(i);
+      size += varIntSize(zigzag(trainDeparture.getTrainNumber()))
+          + varIntSize(trainDeparture.getDepartureMinuteOfDay())
+          + varIntSize(trainDeparture.getDelayMinutes())
+          + varIntSize(zigzag(trainDeparture.getTrack()))
+          + symbolSize(seen, trainDeparture.getLine())
+          + symbolSize(seen, trainDeparture.getDestination());
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes {@link #writeTrainDeparture(ByteBuffer, TrainDeparture)} writes
+   * for the departure right after {@link #reset()}, when its line and destination are written in
+   * full. The dictionary of the codec is not changed.
+   *
+   * @param trainDeparture The departure to measure.
+   * @return The size of the written departure in bytes.
+   * @since 1.2.0
+   */
+  public static int encodedSize(TrainDeparture trainDeparture) {
+    HashMap<String, Integer> seen = new HashMap<>();
+
+    return varIntSize(zigzag(trainDeparture.getTrainNumber()))
+        + varIntSize(trainDeparture.getDepartureMinuteOfDay())
+        + varIntSize(trainDeparture.getDelayMinutes())
+        + varIntSize(zigzag(trainDeparture.getTrack()))
+        + symbolSize(seen, trainDeparture.getLine())
+        + symbolSize(seen, trainDeparture.getDestination());
+  }
+
+  /**
+   * Writes a departure to the buffer, adding its line and destination to the dictionary if they
+   * have not been written before.
+   *
+   * @param buffer The buffer to write to.
+   * @param trainDeparture The departure to write.
+   * @throws java.nio.BufferOverflowException If the buffer is too small.
+   * @since 1.0.0
+   */
+  public void writeTrainDeparture(ByteBuffer buffer, TrainDeparture trainDeparture) {
+    writeRecord(buffer, trainDeparture.getTrainNumber(), trainDeparture.getDepartureMinuteOfDay(),
+        trainDeparture.getDelayMinutes(), trainDeparture.getTrack(), trainDeparture.getLine(),
+        trainDeparture.getDestination());
+  }
+
+  /**
+   * Writes a departure snapshot to the buffer, in the same format as
+   * {@link #writeTrainDeparture(ByteBuffer, TrainDeparture)}.
+   *
+   * @param buffer The buffer to write to.
+   * @param trainDeparture The departure snapshot to write.
+   * @throws java.nio.BufferOverflowException If the buffer is too small.
+   * @since 1.0.0
+   */
+  public void writeTrainDeparture(ByteBuffer buffer, TrainDepartureSnapshot trainDeparture) {
+    writeRecord(buffer, trainDeparture.getTrainNumber(), trainDeparture.getDepartureMinuteOfDay(),
+        trainDeparture.getDelayMinutes(), trainDeparture.getTrack(), trainDeparture.getLine(),
+        trainDeparture.getDestination());
+  }
+
+  /**
+   * Reads a departure written by one of the {@code writeTrainDeparture} methods.
+   *
+   * @param buffer The buffer to read from.
+   * @return A new {@code TrainDeparture} with the values that were written.
+   * @throws IllegalArgumentException If the departure refers to a string not in the dictionary.
+   * @throws java.nio.BufferUnderflowException If the buffer ends before the departure does.
+   * @since 1.0.0
+   */
+  public TrainDeparture readTrainDeparture(ByteBuffer buffer) {
+    int trainNumber = unzigzag(readVarInt(buffer));
+    int departureMinute = readVarInt(buffer);
+    int delayMinutes = readVarInt(buffer);
+    int track = unzigzag(readVarInt(buffer));
+    String line = readSymbol(buffer);
+    String destination = readSymbol(buffer);
+
+    TrainDeparture trainDeparture = new TrainDeparture(MinuteOfDay.hour(departureMinute),
+        MinuteOfDay.minute(departureMinute), line, destination, track, trainNumber);
+    if (delayMinutes != 0) {
+      trainDeparture.setDelay(MinuteOfDay.hour(delayMinutes), MinuteOfDay.minute(delayMinutes));
+    }
+    return trainDeparture;
+  }
+
+  /**
+   * Writes the fields of a departure.
+   *
+   * @since 1.0.0
+   */
+  private void writeRecord(ByteBuffer buffer, int trainNumber, int departureMinute,
+      int delayMinutes, int track, String line, String destination) {
+    writeVarInt(buffer, zigzag(trainNumber));
+    writeVarInt(buffer, departureMinute);
+    writeVarInt(buffer, delayMinutes);
+    writeVarInt(buffer, zigzag(track));
+    writeSymbol(buffer, line);
+    writeSymbol(buffer, destination);
+  }
+
+  /**
+   * Writes the code of the string, followed by the string itself if it is new to the dictionary.
+   *
+   * @param buffer The buffer to write to.
+   * @param symbol The string to write.
+   * @since 1.0.0
+   */
+  private void writeSymbol(ByteBuffer buffer, String symbol) {
+    Integer code = writeCodes.get(symbol);
+
+    if (code != null) {
+      writeVarInt(buffer, code);
+    } else {
+      int newCode = writeCodes.size();
+      writeVarInt(buffer, newCode);
+      writeVarInt(buffer, utf8Length(symbol));
+      writeUtf8(buffer, symbol);
+      writeCodes.put(symbol, newCode);
+    }
+  }
+
+  /**
+   * Reads a string written by {@link #writeSymbol(ByteBuffer, String)}.
+   *
+   * @param buffer The buffer to read from.
+   * @return The string, the same object for every read of the same code.
+   * @since 1.0.0
+   */
+  private String readSymbol(ByteBuffer buffer) {
+    int code = readVarInt(buffer);
+    String symbol;
+
+    if (code < readSymbolCount) {
+      symbol = readSymbols[code];
+    } else if (code == readSymbolCount) {
+      symbol = readUtf8(buffer, readVarInt(buffer));
+      if (readSymbolCount == readSymbols.length) {
+        readSymbols = Arrays.copyOf(readSymbols, readSymbolCount * 2);
+      }
+      readSymbols[readSymbolCount++] = symbol;
+    } else {
+      throw new IllegalArgumentException("Unknown string code " + code);
+    }
+    return symbol;
+  }
+
+  /**
+   * Returns the number of bytes a string takes when written by
+   * {@link #writeSymbol(ByteBuffer, String)}, adding it to the given set of seen strings.
+   *
+   * @since 1.0.0
+   */
+  private static int symbolSize(HashMap<String, Integer> seen, String symbol) {
+    Integer code = seen.get(symbol);
+    int size;
+
+    if (code != null) {
+      size = varIntSize(code);
+    } else {
+      int newCode = seen.size();
+      int length = utf8Length(symbol);
+      size = varIntSize(newCode) + varIntSize(length) + length;
+      seen.put(symbol, newCode);
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes of the string in UTF-8, as written by
+   * {@link #writeUtf8(ByteBuffer, String)}.
+   *
+   * @param text The string to measure.
+   * @return The length of the string in UTF-8.
+   * @since 1.0.0
+   */
+  static int utf8Length(String text) {
+    int length = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Writes the string in UTF-8, one character at a time, without making a byte array.
+   * A surrogate without its pair is written as three bytes, like any other character,
+   * so every string is read back exactly as it was.
+   *
+   * @param buffer The buffer to write to.
+   * @param text The string to write.
+   * @since 1.0.0
+   */
+  private static void writeUtf8(ByteBuffer buffer, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+          && Character.isLowSurrogate(text.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, text.charAt(++i));
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+
+  /**
+   * Reads a string of the given number of bytes written by
+   * {@link #writeUtf8(ByteBuffer, String)}. The characters are decoded into a buffer kept by
+   * the codec, so only the string itself is created.
+   *
+   * @param buffer The buffer to read from.
+   * @param length The number of bytes of the string.
+   * @return The string.
+   * @since 1.0.0
+   */
+  private String readUtf8(ByteBuffer buffer, int length) {
+    if (chars.length < length) {
+      // A string never has more characters than bytes
+      chars = new char[Math.max(length, chars.length * 2)];
+    }
+
+    int count = 0;
+    int end = buffer.position() + length;
+    while (buffer.position() < end) {
+      int b = buffer.get() & 0xFF;
+      if (b < 0x80) {
+        chars[count++] = (char) b;
+      } else if (b < 0xE0) {
+        chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get() & 0x3F));
+      } else if (b < 0xF0) {
+        chars[count++] = (char) (((b & 0x0F) << 12) | ((buffer.get() & 0x3F) << 6)
+            | (buffer.get() & 0x3F));
+      } else {
+        int codePoint = ((b & 0x07) << 18) | ((buffer.get() & 0x3F) << 12)
+            | ((buffer.get() & 0x3F) << 6) | (buffer.get() & 0x3F);
+        chars[count++] = Character.highSurrogate(codePoint);
+        chars[count++] = Character.lowSurrogate(codePoint);
+      }
+    }
+    return new String(chars, 0, count);
+  }
+
+  /**
+   * Writes the value as an unsigned varint, seven bits to a byte, lowest bits first.
+   * The highest bit of every byte but the last is set.
+   *
+   * @param buffer The buffer to write to.
+   * @param value The value to write, read as unsigned.
+   * @since 1.0.0
+   */
+  public static void writeVarInt(ByteBuffer buffer, int value) {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      buffer.put((byte) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    buffer.put((byte) remaining);
+  }
+
+  /**
+   * Reads an unsigned varint written by {@link #writeVarInt(ByteBuffer, int)}.
+   *
+   * @param buffer The buffer to read from.
+   * @return The value read.
+   * @throws IllegalArgumentException If the varint is longer than five bytes.
+   * @since 1.0.0
+   */
+  public static int readVarInt(ByteBuffer buffer) {
+    int value = 0;
+    int shift = 0;
+    int b;
+    do {
+      if (shift == MAX_VARINT_BYTES * 7) {
+        throw new IllegalArgumentException("Varint is longer than " + MAX_VARINT_BYTES + " bytes");
+      }
+      b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+
+  /**
+   * Returns the number of bytes {@link #writeVarInt(ByteBuffer, int)} writes for the value.
+   *
+   * @param value The value to measure, read as unsigned.
+   * @return The size of the varint, between 1 and 5.
+   * @since 1.0.0
+   */
+  public static int varIntSize(int value) {
+    // Every seven significant bits take one byte, and zero still takes one
+    return Math.max(1, (38 - Integer.numberOfLeadingZeros(value)) / 7);
+  }
+
+  /**
+   * Maps a signed value to an unsigned one, so values close to zero get a short varint,
+   * whether they are positive or negative.
+   *
+   * @param value The signed value.
+   * @return The zigzag encoded value.
+   * @since 1.0.0
+   */
+  public static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+
+  /**
+   * Reverses {@link #zigzag(int)}.
+   *
+   * @param value The zigzag encoded value.
+   * @return The signed value.
+   * @since 1.0.0
+   */
+  public static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
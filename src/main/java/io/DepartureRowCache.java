@@ -0,0 +1,114 @@
+package io;
+
+import core.Station;
+import core.TrainDeparture;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Cache of the rendered rows of the departure board, one row per {@link TrainDeparture}.
+ * <br>
+ * A row is kept together with the departure it was rendered from, and the version the departure
+ * had at the time. The version increases every time the delay or track is set, and the other
+ * fields never change, so a row is only rendered again when its departure has changed, or has
+ * been replaced by another departure with the same train-number. Showing a board where nothing
+ * has changed only looks up the rows.
+ * <br>
+ * Rows of departures that have left the station are swept out whenever the cache has grown to
+ * twice its size after the last sweep, so the cache does not grow with the uptime of the program.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class DepartureRowCache {
+  private static final int MIN_SWEEP_SIZE = 64;
+
+  private final Function<TrainDeparture, String> renderer;
+  private final HashMap<Integer, CachedRow> rows;
+  private int sweepSize;
+
+  /**
+   * Constructs an empty {@code DepartureRowCache} rendering rows with the given renderer.
+   *
+   * @param renderer Renders the row of a {@code TrainDeparture}.
+   * @since 1.0.0
+   */
+  public DepartureRowCache(Function<TrainDeparture, String> renderer) {
+    this.renderer = renderer;
+    this.rows = new HashMap<>();
+    this.sweepSize = MIN_SWEEP_SIZE;
+  }
+
+  /**
+   * Returns the row of the {@code TrainDeparture}, rendering it only if the departure has changed
+   * since the row was rendered.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to get the row of.
+   * @return The rendered row.
+   * @since 1.0.0
+   */
+  public String get(TrainDeparture trainDeparture) {
+    CachedRow cached = rows.get(trainDeparture.getTrainNumber());
+
+    if (cached == null
+        || cached.trainDeparture != trainDeparture
+        || cached.version != trainDeparture.getVersion()) {
+      cached = new CachedRow(
+          trainDeparture, trainDeparture.getVersion(), renderer.apply(trainDeparture)
+      );
+      rows.put(trainDeparture.getTrainNumber(), cached);
+    }
+    return cached.row;
+  }
+
+  /**
+   * Removes the rows of departures no longer at the station, if the cache has grown to twice its
+   * size after the last sweep. Called after showing the board, so the sweep costs nothing most
+   * of the time.
+   *
+   * @param station The station the departures are shown from.
+   * @since 1.0.0
+   */
+  public void sweepIfGrown(Station station) {
+    if (rows.size() >= sweepSize) {
+      Iterator<CachedRow> iterator = rows.values().iterator();
+      while (iterator.hasNext()) {
+        TrainDeparture trainDeparture = iterator.next().trainDeparture;
+        if (station.getTrainDepartureByTrainNumber(trainDeparture.getTrainNumber())
+            != trainDeparture) {
+          iterator.remove();
+        }
+      }
+      sweepSize = Math.max(MIN_SWEEP_SIZE, rows.size() * 2);
+    }
+  }
+
+  /**
+   * Returns the number of rows in the cache.
+   *
+   * @return The number of rows in the cache.
+   * @since 1.0.0
+   */
+  public int size() {
+    return rows.size();
+  }
+
+  /**
+   * A rendered row, and the departure and version it was rendered from.
+   *
+   * @since 1.0.0
+   */
+  private static final class CachedRow {
+    private final TrainDeparture trainDeparture;
+    private final int version;
+    private final String row;
+
+    private CachedRow(TrainDeparture trainDeparture, int version, String row) {
+      this.trainDeparture = trainDeparture;
+      this.version = version;
+      this.row = row;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package io;
+
+import config.Colors;
+import config.ConfigurationOptions;
+import lang.UserTextFeedback;
+import utility.MinuteOfDay;
+
+/**
+ * Layout of a departure on the departure board, shared by every view showing departures.
+ * The row is built from the values of a departure, so it can be built both from a
+ * {@code TrainDeparture} on the thread changing the station, and from an immutable
+ * {@code TrainDepartureSnapshot} on another thread.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class DepartureRowFormat {
+
+  private DepartureRowFormat() {}
+  // Empty constructor to hide the implicit public one.
+
+  /**
+   * Builds the row of a departure, ending with a line break.
+   * If the track is not set, "TBA" is shown instead of the track number.
+   * If the departure is delayed, the departure time is struck through, and followed by the
+   * departure time including delay.
+   *
+   * @param departureMinuteOfDay The departure time, in minutes since 00:00.
+   * @param delayMinutes The delay, in minutes.
+   * @param effectiveMinuteOfDay The departure time including delay, in minutes since 00:00.
+   * @param line The line.
+   * @param destination The destination.
+   * @param track The track, or -1 if it is not set.
+   * @param trainNumber The train-number.
+   * @return The row of the departure.
+   * @since 1.0.0
+   */
+  public static String format(int departureMinuteOfDay, int delayMinutes,
+      int effectiveMinuteOfDay, String line, String destination, int track, int trainNumber) {
+    // Using StringBuilder to avoid long lines and improve readability
+    StringBuilder row = new StringBuilder();
+
+    if (delayMinutes == 0) {
+      // There is no delay, so we only need to display the departure time
+      MinuteOfDay.appendTo(row, departureMinuteOfDay)
+          .append("      ");  // Spaces representing the allocated space for the departure time,
+      // including delay
+    } else {
+      row.append(Colors.RED_BRIGHT + Colors.STRIKETHROUGH);
+      MinuteOfDay.appendTo(row, departureMinuteOfDay)
+          .append(Colors.RESET + Colors.WHITE_BRIGHT)
+          .append(" ");
+      // The departure-time including delay is stored in the departure, so nothing is combined
+      MinuteOfDay.appendTo(row, effectiveMinuteOfDay);
+    }
+
+    row.append(" ")
+        .append(line)
+        .append(" ".repeat(ConfigurationOptions.MAX_LINE_LENGTH - line.length()))
+        .append(" ")
+        .append(destination)
+        .append(" ".repeat(ConfigurationOptions.MAX_DESTINATION_LENGTH - destination.length()))
+        .append(" ");
+
+    if (track == -1) {
+      // If the track is not set, we display "TBA" instead of the track number
+      row.append(UserTextFeedback.TBA);
+    } else {
+      row.append(track)
+          .append(" ".repeat(
+              ConfigurationOptions.MAX_TRACK_LENGTH - String.valueOf(track).length()
+          ));
+    }
+
+    row.append("          ")
+        // Empty string for spacing the trainnumber away form the details
+        .append(trainNumber).append("\n");
+    return row.toString();
+  }
+}
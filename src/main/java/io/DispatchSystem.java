@@ -2,10 +2,19 @@ package io;
 
 import config.Colors;
 import config.ConfigurationOptions;
+import core.DeparturePage;
 import core.Station;
 import core.TrainDeparture;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 import lang.UserTextFeedback;
+import utility.IncrementalRenderer;
 import utility.InputHandler;
 import utility.Printer;
 
@@ -15,9 +24,22 @@ import utility.Printer;
  * and connects the {@code Station} to the user with a text-based interface.
  * <br>
  * The program can be started with the {@link #start()} method.
+ * <br>
+ * The station is saved to a {@link StationSnapshotFile} on exit, or when the user asks for it,
+ * and restored from the file on the next start. Every change made after the last save is
+ * written to a {@link StationJournal}, and replayed on top of the snapshot on the next start,
+ * so the changes are not lost if the program stops without saving. A
+ * {@link StationCheckpointer} saves the station in the background whenever the journal has grown
+ * enough, so the journal, and the time it takes to replay it, stays small.
+ * <br>
+ * The user can turn on a {@link LiveBoard}, which keeps the departure board up to date at the
+ * top of the terminal from a thread of its own, while the menu is used below it. The frames of
+ * the live board are published to the terminal, to a file read by platform displays, and to a
+ * local socket, each written by a thread of its own. The sinks, and the port of the socket, are
+ * only opened while the live board runs.
  *
  * @author Jonas Birkeli
- * @version 1.7.0
+ * @version 1.19.0
  * @since 1.0.0
  */
 public class DispatchSystem {
@@ -31,27 +53,165 @@ public class DispatchSystem {
   private int state;
   private boolean running;
   private final Station station;
+  private final StationSnapshotFile stationSnapshotFile;
+  private StationJournal stationJournal;
+  private StationCheckpointer stationCheckpointer;
+  private final DepartureRowCache departureRowCache;
+  private final DepartureRowCache boardRowCache;
+  private final IncrementalRenderer boardRenderer;
+  private final LiveBoard liveBoard;
+  private final BoardPublisher boardPublisher;
   private final InputHandler inputHandler;
   private final Printer printer;
 
   /**
    * Constructs a new {@code DispatchApp}. This only initializes the fields of the class.
    * The program does not start until the {@link #start()} method is called.
-   * The constructor will add some filler train departures to the station,
-   * to make the station look more realistic.
+   * The station is restored from the snapshot file if there is one. Otherwise, the constructor
+   * will add some filler train departures to the station, to make the station look more
+   * realistic.
    *
    * @since 1.2.0
    */
   public DispatchSystem() {
     state = 0;
     running = true;
-    station = new Station();
     inputHandler = new InputHandler();
     printer = new Printer();
+    departureRowCache = new DepartureRowCache(this::renderTrainDepartureDetails);
+    boardRowCache = new DepartureRowCache(this::renderBoardRow);
+    boardRenderer = new IncrementalRenderer(printer);
+    stationSnapshotFile = new StationSnapshotFile(
+        Path.of(ConfigurationOptions.STATION_SNAPSHOT_FILE)
+    );
+    station = restoreStation();
+    openJournal();
+    boardPublisher = new BoardPublisher();
+    liveBoard = new LiveBoard(station, boardPublisher, ConfigurationOptions.LIVE_BOARD_ROWS,
+        ConfigurationOptions.LIVE_BOARD_FRAMES_PER_SECOND);
+  }
+
+  /**
+   * Restores the station from the snapshot file.
+   * If there is no snapshot file, or it can not be read, a new station with some filler train
+   * departures is made instead, and the user is told why.
+   *
+   * @return The restored station, or a new station with filler train departures.
+   * @since 1.10.0
+   */
+  private Station restoreStation() {
+    Station restoredStation = null;
+
+    if (stationSnapshotFile.exists()) {
+      try {
+        restoredStation = stationSnapshotFile.load();
+        printer.println(String.format(UserTextFeedback.PROMPT_STATION_RESTORED,
+            restoredStation.getTrainDeparturesFrom(0, 0).count(), stationSnapshotFile.getPath()));
+      } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+        printer.printError(String.format(UserTextFeedback.ERROR_RESTORING_STATION, e));
+      }
+    }
+
+    if (restoredStation == null) {
+      // Adding some filler train departures to make the station look more realistic,
+      // instead of forcing the user to add departures just to use and test the program.
+      restoredStation = new Station();
+      restoredStation.addFillerTrainDepartures();
+    }
+    return restoredStation;
+  }
+
+  /**
+   * Opens the journal, replays the changes in it on the station, and starts writing new changes
+   * to it. If the journal can not be used, the user is told, and the program runs without it.
+   *
+   * @since 1.11.0
+   */
+  private void openJournal() {
+    Path journalPath = Path.of(ConfigurationOptions.STATION_JOURNAL_FILE);
+
+    try {
+      stationJournal = new StationJournal(journalPath, ConfigurationOptions.JOURNAL_BATCH_SIZE,
+          ConfigurationOptions.JOURNAL_BATCH_DELAY_MILLIS);
+      int replayed = stationJournal.replay(station);
+      if (replayed > 0) {
+        printer.println(String.format(
+            UserTextFeedback.PROMPT_JOURNAL_REPLAYED, replayed, journalPath
+        ));
+      }
+      station.setStationObserver(stationJournal);
+      stationCheckpointer = new StationCheckpointer(stationSnapshotFile, stationJournal,
+          ConfigurationOptions.CHECKPOINT_JOURNAL_BYTES);
+    } catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+      printer.printError(String.format(UserTextFeedback.ERROR_JOURNAL, e));
+      closeJournal();
+    }
+  }
 
-    // Adding some filler train departures to make the station look more realistic,
-    // instead of forcing the user to add departures just to use and test the program.
-    station.addFillerTrainDepartures();
+  /**
+   * Adds the sinks the live board is published to: the terminal, the platform display file,
+   * and the local socket. Called when the live board starts, and the sinks are closed again when
+   * it stops. If the socket can not be opened, the user is told, and the board is published
+   * without it.
+   *
+   * @since 1.17.0
+   */
+  private void addBoardSinks() {
+    // The board has a printer of its own, only used by the thread of the terminal sink
+    boardPublisher.addSink(new TerminalSink(new Printer(), liveBoard.getHeight()));
+    boardPublisher.addSink(new FileSink(Path.of(ConfigurationOptions.BOARD_DISPLAY_FILE)));
+
+    try {
+      boardPublisher.addSink(new SocketSink(new InetSocketAddress(
+          InetAddress.getLoopbackAddress(), ConfigurationOptions.BOARD_SOCKET_PORT
+      )));
+    } catch (IOException e) {
+      printer.printError(String.format(UserTextFeedback.ERROR_BOARD_SINK, e));
+    }
+  }
+
+  /**
+   * Stops writing changes to the journal, and closes it after writing the changes not written
+   * yet. A checkpoint running in the background is finished first.
+   * Nothing happens if the journal is not open.
+   *
+   * @since 1.11.0
+   */
+  private void closeJournal() {
+    if (stationCheckpointer != null) {
+      try {
+        stationCheckpointer.close();
+      } catch (IOException e) {
+        printer.printError(String.format(UserTextFeedback.ERROR_SAVING_STATION, e));
+      }
+      stationCheckpointer = null;
+    }
+
+    if (stationJournal != null) {
+      station.setStationObserver(null);
+      try {
+        stationJournal.close();
+      } catch (IOException e) {
+        printer.printError(String.format(UserTextFeedback.ERROR_JOURNAL, e));
+      }
+      stationJournal = null;
+    }
+  }
+
+  /**
+   * Starts a checkpoint of the station in the background if the journal has grown enough since
+   * the last one. The user is only told if the last checkpoint failed.
+   *
+   * @since 1.12.0
+   */
+  private void checkpointIfDue() {
+    if (stationCheckpointer != null) {
+      try {
+        stationCheckpointer.checkpointIfDue(station);
+      } catch (IOException e) {
+        printer.printError(String.format(UserTextFeedback.ERROR_SAVING_STATION, e));
+      }
+    }
   }
 
   /**
@@ -73,6 +233,7 @@ public class DispatchSystem {
    *   <li>Change time</li>
    *   <li>Exit</li>
    *   <li>Help</li>
+   *   <li>Save station</li>
    * </ul>
    *
    * @since 1.0.0
@@ -110,9 +271,23 @@ public class DispatchSystem {
             exitApplication();
         case ConfigurationOptions.STATE_HELP ->
             help();
+        case ConfigurationOptions.STATE_SAVE_STATION ->
+            saveStation();
+        case ConfigurationOptions.STATE_LIVE_BOARD ->
+            toggleLiveBoard();
         default ->
             running = false;
       }
+      if (liveBoard.isRunning()) {
+        // Handing the changes of the command to the live board
+        station.publishSnapshot();
+      }
+      checkpointIfDue();
+
+      IOException boardFailure = boardPublisher.takeFailure();
+      if (boardFailure != null) {
+        printer.printError(String.format(UserTextFeedback.ERROR_BOARD_SINK, boardFailure));
+      }
       if (state != ConfigurationOptions.STATE_EXIT) {
         // If we are not exiting the program, we wait for user input before clearing the screen.
         // This way, the user has time to read the output before it is cleared.
@@ -152,8 +327,10 @@ public class DispatchSystem {
     printer.println(String.valueOf(selectedTrainDepartureDetails));
     printer.println(UserTextFeedback.MAIN_MENU_OPTIONS);
 
-    // User input, must be between 1 and 9, incorrect input is not accepted
-    state = inputHandler.getValidIntInput(UserTextFeedback.INPUT_CHOICE, 1, 10);
+    // User input, must be between 1 and 12, incorrect input is not accepted
+    state = inputHandler.getValidIntInput(
+        UserTextFeedback.INPUT_CHOICE, 1, ConfigurationOptions.STATE_LIVE_BOARD
+    );
   }
 
   /**
@@ -171,24 +348,65 @@ public class DispatchSystem {
    *     <li>Train number</li>
    *   </ul>
    * </p>
+   * The departures are shown one page at a time. After each page, the user is asked whether
+   * to show the next page, if there is one. Every page is drawn over the last one by the
+   * {@link IncrementalRenderer}, so only the rows that differ are written to the terminal.
    *
    * @since 1.0.0
    */
   private void viewTrainDepartures() {
-    // Appends the clock to the end of the title as it uses print and not println
-    printer.println("\n" + station.getStationClock().getTimeAsString());
-    // Format of which departures are displayed:
-    printer.println(ConfigurationOptions.STATION_DEPARTURE_SCREEN_TITLE);
+    // The menu is on the terminal, so the first page is drawn on a cleared screen
+    boardRenderer.reset();
 
-    // Loops through all departures, and prints them if they are valid
+    // Prints one page of departures at a time, and asks for more if there are more
     // Departures are sorted by departure time
     // Departures with earlier departure time than current time are not displayed
-    printer.print(Colors.WHITE_BRIGHT);  // ANSI escape code for bold white text
-    station.getStreamOfTimeFilteredTrainDepartures()
-        .map(this::buildTrainDepartureDetails) // Gets details of each departure
-        .forEach(printer::print);
+    String pageToken = null;
+    boolean showMore = true;
 
-    printer.println(Colors.RESET + "\n");
+    while (showMore) {
+      DeparturePage page = station.getTrainDeparturePage(
+          ConfigurationOptions.DEPARTURE_BOARD_PAGE_SIZE, pageToken
+      );
+      List<String> lines = buildBoardLines(page.getTrainDepartures());
+      if (liveBoard.isRunning()) {
+        // The top of the terminal belongs to the live board, so the page is printed below it
+        printer.beginFrame();
+        lines.forEach(printer::println);
+        printer.endFrame();
+      } else {
+        boardRenderer.render(lines);
+      }
+
+      showMore = page.hasNextPage() && inputHandler.getValidStringInput(
+          UserTextFeedback.PROMPT_SHOW_MORE_DEPARTURES, -1
+      ).equalsIgnoreCase("y");
+      pageToken = page.getNextPageToken();
+    }
+
+    printer.println("\n");
+    departureRowCache.sweepIfGrown(station);
+    boardRowCache.sweepIfGrown(station);
+  }
+
+  /**
+   * Builds the lines of the departure board: the station time, the title, and one row for every
+   * given {@code TrainDeparture}. The rows are taken from the board row cache.
+   *
+   * @param trainDepartures The {@code TrainDeparture}s to show on the board.
+   * @return The lines of the departure board.
+   * @since 1.15.0
+   */
+  private List<String> buildBoardLines(List<TrainDeparture> trainDepartures) {
+    List<String> lines = new ArrayList<>(trainDepartures.size() + 3);
+    lines.add("");
+    lines.add(station.getStationClock().getTimeAsString());
+    // Format of which departures are displayed:
+    lines.add(ConfigurationOptions.STATION_DEPARTURE_SCREEN_TITLE);
+    for (TrainDeparture trainDeparture : trainDepartures) {
+      lines.add(boardRowCache.get(trainDeparture));
+    }
+    return lines;
   }
 
   /**
@@ -232,7 +450,8 @@ public class DispatchSystem {
           UserTextFeedback.PROMPT_ENTER_TRACK_HELP, -1, 68
       );
 
-      trainDeparture = new TrainDeparture(
+      // Created through the station, so the line and destination are shared with other departures
+      trainDeparture = station.createTrainDeparture(
           departureHour, departureMinute, line, destination, track, trainNumber
       );
 
@@ -340,8 +559,8 @@ public class DispatchSystem {
 
       int track = inputHandler.getValidIntInput(UserTextFeedback.PROMPT_ENTER_TRACK, 1, 68);
 
-      station.getSelectedTrainDeparture().setTrack(track);
-      // Updates track of selected departure
+      station.setTrack(station.getSelectedTrainDeparture().getTrainNumber(), track);
+      // Updates track of selected departure, and publishes the change to readers of the board
 
       printer.println(UserTextFeedback.PROMPT_TRACK_ASSIGNED_SUCCESSFULLY);
 
@@ -366,8 +585,9 @@ public class DispatchSystem {
       int delayHour = inputHandler.getValidIntInput(UserTextFeedback.PROMPT_ENTER_HOUR, 0, 23);
       int delayMinute = inputHandler.getValidIntInput(UserTextFeedback.PROMPT_ENTER_MINUTE, 0, 59);
 
-      station.getSelectedTrainDeparture().setDelay(delayHour, delayMinute);
-      // Updates delay of departure
+      station.setDelay(
+          station.getSelectedTrainDeparture().getTrainNumber(), delayHour, delayMinute);
+      // Updates delay of departure, and publishes the change to readers of the board
     } else {
       // If no departure is selected, an error message is displayed
       printer.printError(UserTextFeedback.ERROR_NO_TRAIN_SELECTED);
@@ -452,14 +672,65 @@ public class DispatchSystem {
 
   /**
    * Exits the application by breaking the main loop, and printing a status message to the user.
+   * The station is saved first, so it is restored on the next start.
    *
    * @since 1.0.0
    */
   private void exitApplication() {
+    liveBoard.stop();
+    boardPublisher.close();
+    saveStation();
+    closeJournal();
     printer.println(UserTextFeedback.PROMPT_EXIT);
     running = false;
   }
 
+  /**
+   * Starts the live board if it is not running, or stops it if it is.
+   * The sinks of the board are opened when it starts, and closed when it stops.
+   * While the board is running, clearing the screen leaves the rows of the board alone.
+   *
+   * @since 1.16.0
+   */
+  private void toggleLiveBoard() {
+    if (liveBoard.isRunning()) {
+      liveBoard.stop();
+      // Frees the port of the socket, so the board can be started again
+      boardPublisher.close();
+      printer.setFirstClearedRow(1);
+      printer.println(UserTextFeedback.PROMPT_LIVE_BOARD_STOPPED);
+    } else {
+      // The board is drawn from published snapshots, so the current state is published first
+      station.publishSnapshot();
+      addBoardSinks();
+      liveBoard.start();
+      printer.setFirstClearedRow(liveBoard.getHeight() + 1);
+      printer.println(UserTextFeedback.PROMPT_LIVE_BOARD_STARTED);
+    }
+  }
+
+  /**
+   * Saves the station to the snapshot file, and tells the user whether it worked.
+   * With a journal, the station is saved as a checkpoint, which also empties the journal,
+   * and waits for any checkpoint already running in the background.
+   *
+   * @since 1.10.0
+   */
+  private void saveStation() {
+    try {
+      if (stationCheckpointer != null) {
+        stationCheckpointer.checkpoint(station);
+      } else {
+        stationSnapshotFile.save(station);
+      }
+      printer.println(String.format(
+          UserTextFeedback.PROMPT_STATION_SAVED, stationSnapshotFile.getPath()
+      ));
+    } catch (IOException e) {
+      printer.printError(String.format(UserTextFeedback.ERROR_SAVING_STATION, e));
+    }
+  }
+
   /**
    * Displays a help message to the user on how the program works.
    * Explains what to do to modify a {@code TrainDeparture},
@@ -484,72 +755,61 @@ public class DispatchSystem {
    * and displays the actual departure time.
    * <br>
    * If all values are present, the method returns a string with all values.
+   * <br>
+   * The string is taken from the {@link DepartureRowCache}, and only built again if the
+   * {@code TrainDeparture} has changed since it was last built.
    *
    * @param trainDeparture The {@code TrainDeparture} to build a string representation of.
    * @return A string representation of the {@code TrainDeparture}.
    * @since 1.7.0
    */
   private String buildTrainDepartureDetails(TrainDeparture trainDeparture) {
-    // Using StringBuilder to avoid long lines and improve readability
-    StringBuilder objectInformation = new StringBuilder();
-
-    if (trainDeparture.getDelay().getHour() == 0 && trainDeparture.getDelay().getMinute() == 0) {
-      // There is no delay, so we only need to display the departure time
-      objectInformation.append(trainDeparture.getDepartureTime().getTimeAsString())
-          .append("      ");  // Spaces representing the allocated space for the departure time,
-      // including delay
-    } else {
-      objectInformation.append(Colors.RED_BRIGHT + Colors.STRIKETHROUGH)
-            .append(trainDeparture.getDepartureTime().getTimeAsString())
-            .append(Colors.RESET + Colors.WHITE_BRIGHT)
-            .append(" ")
-            .append(trainDeparture
-                .getDepartureTime()
-                .combine(trainDeparture.getDelay()).getTimeAsString()
-          // Combining the departure-time with delay to get the actual departure time
-          );
-    }
+    return departureRowCache.get(trainDeparture);
+  }
 
-    objectInformation.append(" ")
-       .append(trainDeparture.getLine())
-        .append(" ".repeat(
-            ConfigurationOptions.MAX_LINE_LENGTH - trainDeparture.getLine().length())
-        )
-        .append(" ")
-        .append(trainDeparture.getDestination())
-        .append(" ".repeat(
-            ConfigurationOptions.MAX_DESTINATION_LENGTH - trainDeparture.getDestination().length())
-        )
-        .append(" ");
-
-    if (trainDeparture.getTrack() == -1) {
-      // If the track is not set, we display "TBA" instead of the track number
-      objectInformation.append(UserTextFeedback.TBA);
-    } else {
-      objectInformation.append(trainDeparture.getTrack())
-          .append(" ".repeat(
-              ConfigurationOptions.MAX_TRACK_LENGTH - String.valueOf(
-                  trainDeparture.getTrack()).length()
-              )
-          );
-    }
+  /**
+   * Builds the row of a {@code TrainDeparture} on the departure board. The row is the string of
+   * {@link #renderTrainDepartureDetails(TrainDeparture)} without the line break, and in bold white,
+   * so it can be drawn on its own.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to build the row of.
+   * @return The row of the {@code TrainDeparture}, or an empty string if it is not valid.
+   * @since 1.15.0
+   */
+  private String renderBoardRow(TrainDeparture trainDeparture) {
+    String details = renderTrainDepartureDetails(trainDeparture);
+    String row = "";
 
-    objectInformation.append("          ")
-        // Empty string for spacing the trainnumber away form the details
-        .append(trainDeparture.getTrainNumber()).append("\n");
+    if (!details.isEmpty()) {
+      row = Colors.WHITE_BRIGHT + details.substring(0, details.length() - 1) + Colors.RESET;
+    }
+    return row;
+  }
 
+  /**
+   * Builds the string returned by {@link #buildTrainDepartureDetails(TrainDeparture)}, without
+   * looking in the cache.
+   *
+   * @param trainDeparture The {@code TrainDeparture} to build a string representation of.
+   * @return A string representation of the {@code TrainDeparture}.
+   * @since 1.13.0
+   */
+  private String renderTrainDepartureDetails(TrainDeparture trainDeparture) {
     // Initializing a temporary string for returning, in case some values are not set
     String returnString = "";
 
     // If some values are not set, the required fields are not set and therefore the departure
     // is not valid.
     if (trainDeparture.isValidDeparture()) {
-      returnString = String.valueOf(objectInformation);
+      returnString = DepartureRowFormat.format(trainDeparture.getDepartureMinuteOfDay(),
+          trainDeparture.getDelayMinutes(), trainDeparture.getEffectiveMinuteOfDay(),
+          trainDeparture.getLine(), trainDeparture.getDestination(), trainDeparture.getTrack(),
+          trainDeparture.getTrainNumber());
     }
 
     // Is empty if some values are not set
-    // else, the objectInformation is returned
+    // else, the row is returned
     return returnString;
-
   }
+
 }
\ No newline at end of file
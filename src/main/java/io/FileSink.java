@@ -0,0 +1,59 @@
+package io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sink writing the departure board as text to a file, for a platform display that reads the
+ * file now and then. Every frame is written to a temporary file next to the real one, and then
+ * moved over it, so a reader always finds a whole frame, never half of one.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class FileSink implements OutputSink {
+  private final Path path;
+  private final Path temporaryPath;
+
+  /**
+   * Constructs a new {@code FileSink} writing to the given path.
+   * Nothing is written until the first frame.
+   *
+   * @param path The path of the file.
+   * @since 1.0.0
+   */
+  public FileSink(Path path) {
+    this.path = path;
+    this.temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+  }
+
+  @Override
+  public void write(BoardFrame frame) throws IOException {
+    ByteBuffer text = frame.getText();
+
+    try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      while (text.hasRemaining()) {
+        channel.write(text);
+      }
+    }
+    Files.move(temporaryPath, path,
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Does nothing, since no file is kept open. The last frame is left in the file.
+   *
+   * @since 1.0.0
+   */
+  @Override
+  public void close() {
+    // Every frame closes its file
+  }
+}
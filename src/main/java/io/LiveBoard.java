@@ -0,0 +1,196 @@
+package io;
+
+import config.Colors;
+import config.ConfigurationOptions;
+import core.Station;
+import core.StationSnapshot;
+import core.TrainDepartureSnapshot;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import utility.MinuteOfDay;
+
+/**
+ * Departure board kept up to date at the top of the terminal by a thread of its own, while the
+ * dispatcher keeps using the menu below it.
+ * <br>
+ * The board is drawn a fixed number of times a second from the latest published
+ * {@link StationSnapshot} of the station, which never changes and is read without locks, so the
+ * board never waits for the dispatcher, and the dispatcher never waits for the board. Frames
+ * where the snapshot has not changed are skipped. The rest are rendered once, and handed to a
+ * {@link BoardPublisher}, which writes them to the terminal and any other sink of the board.
+ * <br>
+ * While the board is running, the {@link TerminalSink} makes the rows below it a scrolling region
+ * of the terminal, so the menu and the input of the dispatcher scroll underneath the board
+ * without moving it. The terminal is only written by the thread of that sink, which is told when
+ * the board starts and stops after the frames handed to it before.
+ * The rows of a departure are kept from one frame to the next for as long as its snapshot is
+ * on the board, so only departures that changed are formatted again.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public final class LiveBoard {
+  private static final int HEADER_LINES = 2;
+
+  private final Station station;
+  private final BoardPublisher publisher;
+  private final int rowCount;
+  private final long framePeriodMillis;
+  private ScheduledExecutorService executor;
+  private StationSnapshot drawnSnapshot;
+  private IdentityHashMap<TrainDepartureSnapshot, String> rows;
+
+  /**
+   * Constructs a new {@code LiveBoard} showing the first departures of the station.
+   * The board is not shown until {@link #start()} is called.
+   *
+   * @param station The station to show the departures of.
+   * @param publisher The publisher the frames of the board are handed to.
+   * @param rowCount The number of departures on the board. Must be positive.
+   * @param framesPerSecond The number of times a second the board is drawn. Must be positive.
+   * @throws IllegalArgumentException If the number of departures or frames is not positive.
+   * @since 1.2.0
+   */
+  public LiveBoard(Station station, BoardPublisher publisher, int rowCount,
+      int framesPerSecond) {
+    if (rowCount <= 0 || framesPerSecond <= 0) {
+      throw new IllegalArgumentException("Rows and frames per second must be positive");
+    }
+    this.station = station;
+    this.publisher = publisher;
+    this.rowCount = rowCount;
+    this.framePeriodMillis = Math.max(1, 1000 / framesPerSecond);
+    this.rows = new IdentityHashMap<>();
+  }
+
+  /**
+   * Returns the number of terminal rows used by the board.
+   *
+   * @return The number of terminal rows used by the board.
+   * @since 1.0.0
+   */
+  public int getHeight() {
+    return HEADER_LINES + rowCount;
+  }
+
+  /**
+   * Checks whether the board is running.
+   *
+   * @return {@code true} if the board is running, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean isRunning() {
+    return executor != null;
+  }
+
+  /**
+   * Starts drawing the board on the top rows of the terminal, and leaves the cursor on the row
+   * below it. Nothing happens if the board is already running.
+   * Must be called from the thread changing the station, which should publish a snapshot first.
+   *
+   * @since 1.0.0
+   */
+  public void start() {
+    if (executor == null) {
+      // The sinks set up the terminal and start over, before the first frame is handed to them
+      publisher.boardStarted();
+      drawnSnapshot = null;
+
+      executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-board");
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.scheduleAtFixedRate(this::drawFrame, 0, framePeriodMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Stops drawing the board, and waits for the sinks to write the frames already published and
+   * give the whole terminal back.
+   * Nothing happens if the board is not running.
+   *
+   * @since 1.0.0
+   */
+  public void stop() {
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      executor = null;
+      // The sinks take down the terminal after the last frame, on their own threads
+      publisher.boardStopped(1000);
+    }
+  }
+
+  /**
+   * Renders the board from the latest published snapshot, and publishes it, unless the snapshot
+   * has not changed since the last frame.
+   *
+   * @return {@code true} if the board was published, {@code false} if the frame was skipped.
+   * @since 1.0.0
+   */
+  boolean drawFrame() {
+    StationSnapshot snapshot = station.getSnapshot();
+    boolean drawn = snapshot != drawnSnapshot;
+
+    if (drawn) {
+      publisher.publish(new BoardFrame(buildLines(snapshot)));
+      drawnSnapshot = snapshot;
+    }
+    return drawn;
+  }
+
+  /**
+   * Builds the lines of the board from a snapshot: the station time, the title, and one row for
+   * each of the first departures. Rows of departures on the last frame are reused.
+   *
+   * @param snapshot The snapshot to build the board from.
+   * @return The lines of the board.
+   * @since 1.0.0
+   */
+  private List<String> buildLines(StationSnapshot snapshot) {
+    List<TrainDepartureSnapshot> departures = snapshot.getTrainDepartures();
+    int shown = Math.min(rowCount, departures.size());
+    IdentityHashMap<TrainDepartureSnapshot, String> shownRows = new IdentityHashMap<>(shown);
+    List<String> lines = new ArrayList<>(getHeight());
+
+    lines.add(MinuteOfDay.format(snapshot.getStationMinuteOfDay()));
+    lines.add(ConfigurationOptions.STATION_DEPARTURE_SCREEN_TITLE);
+    for (int i = 0; i < shown; i++) {
+      TrainDepartureSnapshot departure = departures.get(i);
+      String row = rows.get(departure);
+      if (row == null) {
+        // A snapshot never changes, so its row only has to be formatted once
+        row = formatRow(departure);
+      }
+      shownRows.put(departure, row);
+      lines.add(row);
+    }
+    // Only keeping the rows still on the board
+    rows = shownRows;
+    return lines;
+  }
+
+  /**
+   * Formats the row of a departure on the board, in bold white and without a line break.
+   *
+   * @param departure The departure to format.
+   * @return The row of the departure.
+   * @since 1.0.0
+   */
+  private static String formatRow(TrainDepartureSnapshot departure) {
+    String row = DepartureRowFormat.format(departure.getDepartureMinuteOfDay(),
+        departure.getDelayMinutes(), departure.getEffectiveMinuteOfDay(), departure.getLine(),
+        departure.getDestination(), departure.getTrack(), departure.getTrainNumber());
+    return Colors.WHITE_BRIGHT + row.substring(0, row.length() - 1) + Colors.RESET;
+  }
+}
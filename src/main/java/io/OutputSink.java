@@ -0,0 +1,59 @@
+package io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Place the departure board is written to, such as the terminal of the dispatcher, a file read by
+ * a platform display, or a socket. Frames are handed to a sink by a {@link BoardPublisher}, which
+ * calls the sink from a thread of its own, one frame at a time.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+public interface OutputSink extends Closeable {
+
+  /**
+   * Writes a frame of the departure board.
+   * Frames can be skipped when the sink is slow, so every frame must be written in full, and not
+   * as a change to a frame the sink has not seen.
+   *
+   * @param frame The frame to write.
+   * @throws IOException If the frame could not be written.
+   * @since 1.0.0
+   */
+  void write(BoardFrame frame) throws IOException;
+
+  /**
+   * Forgets what has been written, so the next frame is written as if it was the first.
+   * Called when something else may have been written to the same place. Does nothing by default.
+   *
+   * @since 1.0.0
+   */
+  default void reset() {
+    // Nothing is remembered by default
+  }
+
+  /**
+   * Called when the board starts, before its first frame, on the thread writing the frames.
+   * Calls {@link #reset()} by default.
+   *
+   * @throws IOException If the sink could not be set up for the board.
+   * @since 1.1.0
+   */
+  default void boardStarted() throws IOException {
+    reset();
+  }
+
+  /**
+   * Called when the board stops, after its last frame, on the thread writing the frames.
+   * Does nothing by default.
+   *
+   * @throws IOException If the sink could not be taken down.
+   * @since 1.1.0
+   */
+  default void boardStopped() throws IOException {
+    // Nothing to take down by default
+  }
+}
@@ -0,0 +1,163 @@
+package io;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Sink sending the departure board to every program connected to a local socket, either a TCP
+ * port or a Unix domain socket.
+ * <br>
+ * Programs can connect at any time, and get every frame from the next one on. Every frame starts
+ * with the ANSI sequence clearing the screen, so a terminal connected to the socket shows the
+ * board as it is. A program that has disconnected, or can not be written to, is dropped.
+ * <br>
+ * The connections never block, so a program that does not read never holds back the sink or the
+ * other programs. What a program can not take of a frame right away is kept for it, and sent
+ * before anything else on the next frame. The frames in between are skipped for that program,
+ * and a program that takes nothing for 50 frames in a row is dropped.
+ * <br>
+ * Like every {@link OutputSink}, the sink must only be used from one thread at a time, which the
+ * {@link BoardPublisher} does by closing the sink on the thread writing its frames.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+public final class SocketSink implements OutputSink {
+  private static final byte[] CLEAR_SCREEN = "\033[H\033[2J".getBytes(StandardCharsets.UTF_8);
+  private static final int MAX_STALLED_FRAMES = 50;
+
+  private final ServerSocketChannel server;
+  private final List<Client> clients;
+
+  /**
+   * Constructs a new {@code SocketSink} listening on the given address.
+   *
+   * @param address The address to listen on, either an {@code InetSocketAddress} or a
+   *        {@code UnixDomainSocketAddress}.
+   * @throws IOException If the socket could not be opened.
+   * @since 1.0.0
+   */
+  public SocketSink(SocketAddress address) throws IOException {
+    this.server = address instanceof UnixDomainSocketAddress
+        ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+        : ServerSocketChannel.open();
+    try {
+      server.bind(address);
+      // Connections are taken when a frame is written, so waiting for them must not block
+      server.configureBlocking(false);
+    } catch (IOException e) {
+      server.close();
+      throw e;
+    }
+    this.clients = new ArrayList<>();
+  }
+
+  /**
+   * Returns the address the socket listens on, with the port given by the system if port 0 was
+   * asked for.
+   *
+   * @return The address the socket listens on.
+   * @throws IOException If the address could not be read.
+   * @since 1.0.0
+   */
+  public SocketAddress getAddress() throws IOException {
+    return server.getLocalAddress();
+  }
+
+  @Override
+  public void write(BoardFrame frame) throws IOException {
+    SocketChannel accepted = server.accept();
+    while (accepted != null) {
+      // A program that does not read must never block the thread writing the frames
+      accepted.configureBlocking(false);
+      clients.add(new Client(accepted));
+      accepted = server.accept();
+    }
+
+    Iterator<Client> iterator = clients.iterator();
+    while (iterator.hasNext()) {
+      Client client = iterator.next();
+      boolean dropped;
+      try {
+        dropped = !client.send(frame);
+      } catch (IOException e) {
+        // The program has disconnected, which only concerns that program
+        dropped = true;
+      }
+      if (dropped) {
+        client.channel.close();
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Disconnects every program, and stops listening. A Unix domain socket file is removed.
+   *
+   * @throws IOException If the socket could not be closed.
+   * @since 1.0.0
+   */
+  @Override
+  public void close() throws IOException {
+    for (Client client : clients) {
+      client.channel.close();
+    }
+    clients.clear();
+
+    SocketAddress address = server.getLocalAddress();
+    server.close();
+    if (address instanceof UnixDomainSocketAddress) {
+      Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+    }
+  }
+
+  /**
+   * Program connected to the socket, with the part of a frame it has not taken yet.
+   *
+   * @since 1.1.0
+   */
+  private static final class Client {
+    private final SocketChannel channel;
+    private ByteBuffer[] pending;
+    private int stalledFrames;
+
+    private Client(SocketChannel channel) {
+      this.channel = channel;
+    }
+
+    /**
+     * Sends the rest of the frame the program has not taken yet, if there is one, and then the
+     * given frame, without waiting for the program. If the rest can not be sent in full, the
+     * given frame is skipped.
+     *
+     * @return {@code false} if the program has taken nothing for too many frames in a row.
+     * @throws IOException If the program has disconnected.
+     */
+    private boolean send(BoardFrame frame) throws IOException {
+      boolean progressed = false;
+
+      if (pending != null) {
+        progressed = channel.write(pending) > 0;
+        pending = pending[1].hasRemaining() ? pending : null;
+      }
+      if (pending == null) {
+        pending = new ByteBuffer[] {ByteBuffer.wrap(CLEAR_SCREEN), frame.getText()};
+        progressed |= channel.write(pending) > 0;
+        pending = pending[1].hasRemaining() ? pending : null;
+      }
+      stalledFrames = pending == null || progressed ? 0 : stalledFrames + 1;
+      return stalledFrames < MAX_STALLED_FRAMES;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package io;
+
+import core.Station;
+import core.StationSnapshot;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Saves checkpoints of a {@link Station}, so its {@link StationJournal} stays short.
+ * A checkpoint saves a snapshot of the station to the {@link StationSnapshotFile}, and then
+ * discards the records of the journal the snapshot already has. Starting the program then only
+ * replays the changes since the last checkpoint, however long the program has been running.
+ * <br>
+ * The thread changing the station only publishes the snapshot and takes the mark of the
+ * journal, which are both cheap. Writing the snapshot and compacting the journal are done by a
+ * background thread, one checkpoint at a time, while the station keeps changing. A new
+ * checkpoint is due when the journal has grown by a given number of bytes since the last one.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class StationCheckpointer implements AutoCloseable {
+  private final StationSnapshotFile snapshotFile;
+  private final StationJournal journal;
+  private final long journalBytesPerCheckpoint;
+  private final ExecutorService executor;
+  private long lastMark;
+  private Future<?> pending;
+
+  /**
+   * Constructs a new {@code StationCheckpointer} saving to the given snapshot file and
+   * compacting the given journal.
+   *
+   * @param snapshotFile The file the snapshots are saved to.
+   * @param journal The journal of the station.
+   * @param journalBytesPerCheckpoint The number of bytes the journal grows by before a new
+   *        checkpoint is due. Must be positive.
+   * @throws IllegalArgumentException If the number of bytes is not positive.
+   * @since 1.0.0
+   */
+  public StationCheckpointer(
+      StationSnapshotFile snapshotFile, StationJournal journal, long journalBytesPerCheckpoint
+  ) {
+    if (journalBytesPerCheckpoint <= 0) {
+      throw new IllegalArgumentException("Journal bytes per checkpoint must be positive");
+    }
+    this.snapshotFile = snapshotFile;
+    this.journal = journal;
+    this.journalBytesPerCheckpoint = journalBytesPerCheckpoint;
+    this.lastMark = journal.mark();
+    this.executor = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "station-checkpoint");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Starts a checkpoint in the background if the journal has grown enough since the last one,
+   * and no checkpoint is running. Must be called from the thread changing the station.
+   *
+   * @param station The station to checkpoint.
+   * @return {@code true} if a checkpoint was started, {@code false} otherwise.
+   * @throws IOException If the last checkpoint in the background failed.
+   * @since 1.0.0
+   */
+  public boolean checkpointIfDue(Station station) throws IOException {
+    boolean started = false;
+
+    if (pending != null && pending.isDone()) {
+      Future<?> finished = pending;
+      pending = null;
+      // Reporting the failure of the last checkpoint, if it failed
+      waitFor(finished);
+    }
+
+    if (pending == null && journal.mark() - lastMark >= journalBytesPerCheckpoint) {
+      pending = startCheckpoint(station);
+      started = true;
+    }
+    return started;
+  }
+
+  /**
+   * Saves a checkpoint, and waits until it is done. Checkpoints already running in the
+   * background are done first. Must be called from the thread changing the station.
+   *
+   * @param station The station to checkpoint.
+   * @throws IOException If the snapshot could not be saved, or the journal could not be
+   *        compacted.
+   * @since 1.0.0
+   */
+  public void checkpoint(Station station) throws IOException {
+    // A failure of a checkpoint in the background does not matter, since this one replaces it
+    pending = null;
+    waitFor(startCheckpoint(station));
+  }
+
+  /**
+   * Waits for the checkpoint running in the background, if any, and stops the background
+   * thread.
+   *
+   * @throws IOException If the checkpoint running in the background failed.
+   * @since 1.0.0
+   */
+  @Override
+  public void close() throws IOException {
+    executor.shutdown();
+    if (pending != null) {
+      Future<?> finished = pending;
+      pending = null;
+      waitFor(finished);
+    }
+  }
+
+  /**
+   * Publishes a snapshot of the station, takes the mark of the journal, and hands both to the
+   * background thread, which saves the snapshot and then discards the records before the mark.
+   *
+   * @param station The station to checkpoint.
+   * @return The running checkpoint.
+   * @since 1.0.0
+   */
+  private Future<?> startCheckpoint(Station station) {
+    StationSnapshot snapshot = station.publishSnapshot();
+    long mark = journal.mark();
+    lastMark = mark;
+
+    return executor.submit(() -> {
+      snapshotFile.save(snapshot);
+      // Only discarded once the snapshot is saved, so no change is lost if saving fails
+      journal.discardBefore(mark);
+      return null;
+    });
+  }
+
+  /**
+   * Waits for a checkpoint to be done.
+   *
+   * @param checkpoint The running checkpoint.
+   * @throws IOException If the checkpoint failed, or the wait was interrupted.
+   * @since 1.0.0
+   */
+  private static void waitFor(Future<?> checkpoint) throws IOException {
+    try {
+      checkpoint.get();
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException
+          ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a checkpoint", e);
+    }
+  }
+}
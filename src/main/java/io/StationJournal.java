@@ -0,0 +1,500 @@
+package io;
+
+import core.Station;
+import core.StationObserver;
+import core.TrainDeparture;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import utility.MinuteOfDay;
+
+/**
+ * Write-ahead log of the changes made to a {@link Station}.
+ * The journal observes the station, and appends a record for every change. On startup, the
+ * records are applied again, in order, on top of the last saved snapshot of the station.
+ * <br>
+ * Records are not written to disk one at a time. They are collected in a batch in memory, and
+ * the whole batch is written and synced to disk at once, a group commit. A batch is committed
+ * when it holds {@code batchSize} records, or when it is {@code batchDelayMillis} old,
+ * whichever comes first. A crash therefore loses at most the last batch, and the dispatcher only
+ * pays for a sync once per batch, not for every change.
+ * <br>
+ * The journal has two batch buffers. A commit swaps them, and writes the full one while new
+ * records go to the other. Commits are always done by a background thread, either when the
+ * delay runs out, or right after a record fills the batch, so the thread changing the station
+ * never waits for the disk.
+ * <br>
+ * Every record is written as a frame: its length, a CRC32 of its content, and the content.
+ * The content is a record type followed by its values, written with {@link DepartureCodec}.
+ * Every frame stands on its own, so the lines and destinations of an added departure are
+ * written in full. Reading stops at the first frame that is cut short or does not match its
+ * CRC32, which is where a crash stopped the last write, and the journal continues from there.
+ * Each record takes only the room its content needs in the batch. A record with more than
+ * {@value #MAX_RECORD_SIZE} bytes of content, such as a departure with a very long destination,
+ * is not written. Instead, the next commit throws an {@code IOException}, the same as for a
+ * failed background commit, since the journal no longer has every change of the station.
+ * <br>
+ * Records are found by their mark, the number of bytes added to the journal before them since
+ * it was opened. After a snapshot of the station has been saved, the records before the mark
+ * taken with the snapshot are discarded with {@link #discardBefore(long)}, so the journal only
+ * holds the changes the last snapshot does not have.
+ *
+ * @author Jonas Birkeli
+ * @version 1.2.0
+ * @since 1.0.0
+ */
+public final class StationJournal implements StationObserver, AutoCloseable {
+  private static final byte RECORD_ADDED = 1;
+  private static final byte RECORD_REMOVED = 2;
+  private static final byte RECORD_SELECTED = 3;
+  private static final byte RECORD_STATION_TIME = 4;
+  private static final byte RECORD_DELAY = 5;
+  private static final byte RECORD_TRACK = 6;
+
+  private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+  private static final int MAX_RECORD_SIZE = 1 << 16;
+  private static final int MAX_VALUES_SIZE = 2 * 5;  // Two varints of five bytes at most
+
+  private final Path path;
+  private final Path temporaryPath;
+  private FileChannel channel;
+  private long fileStart;
+  private long appendedBytes;
+  private final int batchSize;
+  private final DepartureCodec codec;
+  private final CRC32 crc;
+  private final Object commitLock;
+  private final ScheduledExecutorService committer;
+  private ByteBuffer batch;
+  private ByteBuffer spareBatch;
+  private int batchRecords;
+  private IOException failure;
+
+  /**
+   * Opens the journal at the given path, creating the file if it does not exist.
+   * Call {@link #replay(Station)} before observing a station, so new records are appended after
+   * the records already in the file.
+   *
+   * @param path The path of the journal file.
+   * @param batchSize The number of records in a batch before it is committed. Must be positive.
+   * @param batchDelayMillis The longest time in milliseconds a record waits before it is
+   *        committed. Must be positive.
+   * @throws IOException If the file could not be opened.
+   * @throws IllegalArgumentException If the batch size or delay is not positive.
+   * @since 1.0.0
+   */
+  public StationJournal(Path path, int batchSize, long batchDelayMillis) throws IOException {
+    if (batchSize <= 0 || batchDelayMillis <= 0) {
+      throw new IllegalArgumentException("Batch size and delay must be positive");
+    }
+    this.path = path;
+    this.temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+    this.channel = open(path);
+    this.batchSize = batchSize;
+    this.codec = new DepartureCodec();
+    this.crc = new CRC32();
+    this.commitLock = new Object();
+    this.batch = ByteBuffer.allocateDirect(4096);
+    this.spareBatch = ByteBuffer.allocateDirect(4096);
+    this.batchRecords = 0;
+
+    committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "station-journal");
+      thread.setDaemon(true);
+      return thread;
+    });
+    committer.scheduleWithFixedDelay(
+        this::commitInBackground, batchDelayMillis, batchDelayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Applies every record in the journal to the station, in the order they were written.
+   * The station should not be observed by the journal yet, so the records are not written again.
+   * Anything after the last whole record, left by a crash in the middle of a write, is cut off,
+   * and new records are appended after the last whole record.
+   *
+   * @param station The station to apply the records to.
+   * @return The number of records applied.
+   * @throws IOException If the journal could not be read.
+   * @since 1.0.0
+   */
+  public int replay(Station station) throws IOException {
+    int applied = 0;
+
+    synchronized (commitLock) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      int end = 0;
+      ByteBuffer record = nextRecord(buffer);
+
+      while (record != null) {
+        apply(record, station);
+        applied++;
+        end = buffer.position();
+        record = nextRecord(buffer);
+      }
+      // Cutting off a record left half-written by a crash, so new records follow whole ones
+      channel.truncate(end);
+      channel.position(end);
+
+      synchronized (this) {
+        fileStart = 0;
+        appendedBytes = end;
+      }
+    }
+    return applied;
+  }
+
+  /**
+   * Writes every record added so far to disk, and waits until they are synced.
+   *
+   * @throws IOException If the records could not be written, now or by an earlier background
+   *        commit.
+   * @since 1.0.0
+   */
+  public void commit() throws IOException {
+    synchronized (commitLock) {
+      ByteBuffer full;
+      synchronized (this) {
+        if (failure != null) {
+          throw failure;
+        }
+        // Swapping the batches, so new records can be added while this one is written
+        full = batch;
+        batch = spareBatch;
+        spareBatch = full;
+        batchRecords = 0;
+      }
+
+      full.flip();
+      try {
+        if (full.hasRemaining()) {
+          while (full.hasRemaining()) {
+            channel.write(full);
+          }
+          channel.force(false);
+        }
+      } finally {
+        full.clear();
+      }
+    }
+  }
+
+  /**
+   * Returns the mark of the next record, the number of bytes added to the journal since it was
+   * opened, including records not committed yet. Taken together with a snapshot of the station,
+   * on the thread changing it, so the mark tells which records the snapshot already has.
+   *
+   * @return The mark of the next record.
+   * @since 1.1.0
+   */
+  public synchronized long mark() {
+    return appendedBytes;
+  }
+
+  /**
+   * Discards every record before the mark, after committing the records not written yet.
+   * Called after a snapshot taken at the mark has been saved, since the snapshot has the changes
+   * of those records. The records after the mark are copied to a temporary file, which is then
+   * moved over the journal, so a crash while discarding leaves the old journal in place.
+   * Records can be added while this runs, and are committed to the new journal.
+   *
+   * @param mark The mark returned by {@link #mark()} when the snapshot was taken.
+   * @throws IOException If the journal could not be written.
+   * @since 1.1.0
+   */
+  public void discardBefore(long mark) throws IOException {
+    synchronized (commitLock) {
+      commit();
+      long discarded = mark - fileStart;
+
+      if (discarded > 0) {
+        long kept = channel.size() - discarded;
+        try (FileChannel compacted = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+          long copied = 0;
+          while (copied < kept) {
+            copied += channel.transferTo(discarded + copied, kept - copied, compacted);
+          }
+          compacted.force(true);
+        }
+        Files.move(temporaryPath, path,
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel.close();
+        channel = open(path);
+        channel.position(channel.size());
+        fileStart = mark;
+      }
+    }
+  }
+
+  /**
+   * Removes every record from the journal, after committing the records not written yet.
+   * Called after the station has been saved to a snapshot, which already has every change.
+   *
+   * @throws IOException If the journal could not be written.
+   * @since 1.0.0
+   */
+  public void truncate() throws IOException {
+    synchronized (commitLock) {
+      discardBefore(mark());
+    }
+  }
+
+  /**
+   * Commits the records not written yet, stops the background commits, and closes the file.
+   *
+   * @throws IOException If the records could not be written, or the file could not be closed.
+   * @since 1.0.0
+   */
+  @Override
+  public void close() throws IOException {
+    committer.shutdown();
+    synchronized (commitLock) {
+      try {
+        commit();
+      } finally {
+        channel.close();
+      }
+    }
+  }
+
+  @Override
+  public void trainDepartureAdded(TrainDeparture trainDeparture) {
+    synchronized (this) {
+      // Every record stands on its own, so the strings are written in full
+      int size = DepartureCodec.encodedSize(trainDeparture);
+
+      if (1 + size > MAX_RECORD_SIZE) {
+        rejectRecord(new IOException("Departure " + trainDeparture.getTrainNumber()
+            + " takes " + (1 + size) + " bytes, more than the journal record limit of "
+            + MAX_RECORD_SIZE));
+      } else {
+        int start = beginRecord(RECORD_ADDED, size);
+        codec.reset();
+        codec.writeTrainDeparture(batch, trainDeparture);
+        endRecord(start);
+      }
+    }
+  }
+
+  @Override
+  public void trainDepartureRemoved(int trainNumber) {
+    synchronized (this) {
+      int start = beginRecord(RECORD_REMOVED, MAX_VALUES_SIZE);
+      DepartureCodec.writeVarInt(batch, DepartureCodec.zigzag(trainNumber));
+      endRecord(start);
+    }
+  }
+
+  @Override
+  public void trainDepartureSelected(int trainNumber) {
+    synchronized (this) {
+      int start = beginRecord(RECORD_SELECTED, MAX_VALUES_SIZE);
+      DepartureCodec.writeVarInt(batch, DepartureCodec.zigzag(trainNumber));
+      endRecord(start);
+    }
+  }
+
+  @Override
+  public void stationTimeChanged(int minuteOfDay) {
+    synchronized (this) {
+      int start = beginRecord(RECORD_STATION_TIME, MAX_VALUES_SIZE);
+      DepartureCodec.writeVarInt(batch, minuteOfDay);
+      endRecord(start);
+    }
+  }
+
+  @Override
+  public void delayChanged(int trainNumber, int delayMinutes) {
+    synchronized (this) {
+      int start = beginRecord(RECORD_DELAY, MAX_VALUES_SIZE);
+      DepartureCodec.writeVarInt(batch, DepartureCodec.zigzag(trainNumber));
+      DepartureCodec.writeVarInt(batch, delayMinutes);
+      endRecord(start);
+    }
+  }
+
+  @Override
+  public void trackChanged(int trainNumber, int track) {
+    synchronized (this) {
+      int start = beginRecord(RECORD_TRACK, MAX_VALUES_SIZE);
+      DepartureCodec.writeVarInt(batch, DepartureCodec.zigzag(trainNumber));
+      DepartureCodec.writeVarInt(batch, DepartureCodec.zigzag(track));
+      endRecord(start);
+    }
+  }
+
+  /**
+   * Makes room for a record in the batch, and writes its type after a space for the frame
+   * header. Must be called while holding the lock of the journal.
+   *
+   * @param type The type of the record.
+   * @param size The largest number of bytes the values of the record can take.
+   * @return The position of the frame in the batch.
+   * @since 1.0.0
+   */
+  private int beginRecord(byte type, int size) {
+    int frameSize = FRAME_HEADER_SIZE + 1 + size;
+
+    if (batch.remaining() < frameSize) {
+      ByteBuffer larger = ByteBuffer.allocateDirect(
+          Math.max(batch.capacity() * 2, batch.position() + frameSize));
+      batch.flip();
+      larger.put(batch);
+      batch = larger;
+    }
+    int start = batch.position();
+    batch.position(start + FRAME_HEADER_SIZE);
+    batch.put(type);
+    return start;
+  }
+
+  /**
+   * Fills in the frame header of the record, and commits the batch if it is full.
+   * Must be called while holding the lock of the journal.
+   *
+   * @param start The position of the frame in the batch.
+   * @since 1.0.0
+   */
+  private void endRecord(int start) {
+    int contentStart = start + FRAME_HEADER_SIZE;
+    int length = batch.position() - contentStart;
+
+    crc.reset();
+    crc.update(batch.duplicate().position(contentStart).limit(contentStart + length));
+    batch.putInt(start, length);
+    batch.putInt(start + Integer.BYTES, (int) crc.getValue());
+    appendedBytes += batch.position() - start;
+
+    if (++batchRecords == batchSize && !committer.isShutdown()) {
+      // Committed by the background thread, so the thread changing the station does not wait
+      committer.execute(this::commitInBackground);
+    }
+  }
+
+  /**
+   * Keeps the reason a record was not written, to be thrown by the next commit on the thread
+   * changing the station. Must be called while holding the lock of the journal.
+   *
+   * @param reason The reason the record was not written.
+   * @since 1.2.0
+   */
+  private void rejectRecord(IOException reason) {
+    if (failure == null) {
+      failure = reason;
+    }
+  }
+
+  /**
+   * Commits the batch from the background thread. A failure is kept, and thrown by the next
+   * commit on the thread changing the station.
+   *
+   * @since 1.0.0
+   */
+  private void commitInBackground() {
+    try {
+      commit();
+    } catch (IOException e) {
+      synchronized (this) {
+        failure = e;
+      }
+    }
+  }
+
+  /**
+   * Opens the journal file for reading and writing, creating it if it does not exist.
+   *
+   * @param path The path of the journal file.
+   * @return The opened file.
+   * @throws IOException If the file could not be opened.
+   * @since 1.1.0
+   */
+  private static FileChannel open(Path path) throws IOException {
+    return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Reads the next whole record of the journal, checking its length and CRC32.
+   *
+   * @param buffer The journal, positioned at the start of a frame.
+   * @return The content of the record, or {@code null} if there is no whole record left.
+   * @since 1.0.0
+   */
+  private ByteBuffer nextRecord(ByteBuffer buffer) {
+    ByteBuffer record = null;
+
+    if (buffer.remaining() >= FRAME_HEADER_SIZE) {
+      int start = buffer.position();
+      int length = buffer.getInt(start);
+      int expectedCrc = buffer.getInt(start + Integer.BYTES);
+      int contentStart = start + FRAME_HEADER_SIZE;
+
+      if (length > 0 && length <= MAX_RECORD_SIZE && length <= buffer.limit() - contentStart) {
+        ByteBuffer content = buffer.duplicate().position(contentStart)
+            .limit(contentStart + length);
+        crc.reset();
+        crc.update(content.duplicate());
+        if ((int) crc.getValue() == expectedCrc) {
+          record = content;
+          buffer.position(contentStart + length);
+        }
+      }
+    }
+    return record;
+  }
+
+  /**
+   * Applies one record to the station.
+   *
+   * @param record The content of the record.
+   * @param station The station to apply it to.
+   * @throws IOException If the record has an unknown type.
+   * @since 1.0.0
+   */
+  private void apply(ByteBuffer record, Station station) throws IOException {
+    byte type = record.get();
+
+    if (type == RECORD_ADDED) {
+      codec.reset();
+      station.addTrainDeparture(codec.readTrainDeparture(record));
+    } else if (type == RECORD_REMOVED) {
+      if (station.selectTrainDeparture(DepartureCodec.unzigzag(
+          DepartureCodec.readVarInt(record))) == 0) {
+        station.removeTrainDeparture();
+      }
+    } else if (type == RECORD_SELECTED) {
+      station.selectTrainDeparture(DepartureCodec.unzigzag(DepartureCodec.readVarInt(record)));
+    } else if (type == RECORD_STATION_TIME) {
+      int minuteOfDay = DepartureCodec.readVarInt(record);
+      station.setStationTime(MinuteOfDay.hour(minuteOfDay), MinuteOfDay.minute(minuteOfDay));
+    } else if (type == RECORD_DELAY) {
+      TrainDeparture trainDeparture = station.getTrainDepartureByTrainNumber(
+          DepartureCodec.unzigzag(DepartureCodec.readVarInt(record)));
+      int delayMinutes = DepartureCodec.readVarInt(record);
+      if (trainDeparture != null) {
+        // Set on the departure, so the station does not publish a snapshot for every record
+        trainDeparture.setDelay(MinuteOfDay.hour(delayMinutes), MinuteOfDay.minute(delayMinutes));
+      }
+    } else if (type == RECORD_TRACK) {
+      TrainDeparture trainDeparture = station.getTrainDepartureByTrainNumber(
+          DepartureCodec.unzigzag(DepartureCodec.readVarInt(record)));
+      int track = DepartureCodec.unzigzag(DepartureCodec.readVarInt(record));
+      if (trainDeparture != null) {
+        trainDeparture.setTrack(track);
+      }
+    } else {
+      throw new IOException("Unknown journal record type " + type);
+    }
+  }
+}
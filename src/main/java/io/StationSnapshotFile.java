@@ -0,0 +1,125 @@
+package io;
+
+import core.Station;
+import core.StationSnapshot;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File holding a snapshot of a {@code Station}, written with {@link DepartureCodec}.
+ * <br>
+ * Both saving and loading memory-map the file, so the codec reads and writes the page cache
+ * directly, without copying through a stream. A snapshot is first written to a temporary file
+ * next to the real one, and then moved over it, so a crash while saving leaves the last saved
+ * snapshot in place.
+ * <br>
+ * Every departure of the station is saved, including those before the station time, with the
+ * selected departure. The departures are saved in the order of the departure index, and the
+ * lines and destinations in the order they were first used, so loading hands the station
+ * departures that are already sorted, and symbols that get the same codes as before.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+public final class StationSnapshotFile {
+  private final Path path;
+  private final Path temporaryPath;
+  private final DepartureCodec codec;
+
+  /**
+   * Constructs a new {@code StationSnapshotFile} at the given path.
+   * Nothing is read or written until {@link #save(Station)} or {@link #load()} is called.
+   *
+   * @param path The path of the snapshot file.
+   * @since 1.0.0
+   */
+  public StationSnapshotFile(Path path) {
+    this.path = path;
+    this.temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+    this.codec = new DepartureCodec();
+  }
+
+  /**
+   * Returns the path of the snapshot file.
+   *
+   * @return The path of the snapshot file.
+   * @since 1.0.0
+   */
+  public Path getPath() {
+    return path;
+  }
+
+  /**
+   * Checks whether a snapshot has been saved to the file.
+   *
+   * @return {@code true} if the file exists, {@code false} otherwise.
+   * @since 1.0.0
+   */
+  public boolean exists() {
+    return Files.isRegularFile(path);
+  }
+
+  /**
+   * Publishes a snapshot of the station, and saves it to the file.
+   * Must be called from the thread changing the station.
+   *
+   * @param station The station to save.
+   * @throws IOException If the snapshot could not be written.
+   * @since 1.0.0
+   */
+  public void save(Station station) throws IOException {
+    save(station.publishSnapshot());
+  }
+
+  /**
+   * Saves an already published snapshot to the file. The snapshot never changes, so this can
+   * be called from any thread.
+   *
+   * @param snapshot The snapshot to save.
+   * @throws IOException If the snapshot could not be written.
+   * @since 1.0.0
+   */
+  public void save(StationSnapshot snapshot) throws IOException {
+    int size = DepartureCodec.encodedSize(snapshot);
+
+    try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      synchronized (codec) {
+        codec.writeStation(snapshot, buffer);
+      }
+      // Making sure the snapshot is on disk before it replaces the old one
+      buffer.force();
+    }
+    Files.move(temporaryPath, path,
+        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Loads the station saved in the file.
+   *
+   * @return The station saved in the file.
+   * @throws IOException If the file could not be read.
+   * @throws IllegalArgumentException If the file does not hold a station of a known version.
+   * @throws java.nio.BufferUnderflowException If the file ends before the station does.
+   * @since 1.0.0
+   */
+  public Station load() throws IOException {
+    Station station;
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      synchronized (codec) {
+        station = codec.readStation(buffer);
+      }
+    }
+    return station;
+  }
+}
@@ -0,0 +1,103 @@
+package io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import utility.IncrementalRenderer;
+import utility.Printer;
+
+/**
+ * Sink drawing the departure board on the top rows of the terminal.
+ * The board is drawn by an {@link IncrementalRenderer}, which compares every frame with the last
+ * frame drawn by this sink, so only changed rows are written, even when frames are skipped.
+ * <br>
+ * While the board is running, the rows below it are made a scrolling region of the terminal.
+ * The region is set up and removed by the sink itself, on the thread writing the frames, so the
+ * printer of the sink is only ever used by that thread.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+public final class TerminalSink implements OutputSink {
+  private final Printer printer;
+  private final int height;
+  private final IncrementalRenderer renderer;
+
+  /**
+   * Constructs a new {@code TerminalSink} drawing through the given {@code Printer}.
+   *
+   * @param printer The printer to draw through.
+   * @param height The number of rows at the top of the terminal to draw on.
+   * @since 1.0.0
+   */
+  public TerminalSink(Printer printer, int height) {
+    this.printer = printer;
+    this.height = height;
+    this.renderer = new IncrementalRenderer(printer, height);
+  }
+
+  @Override
+  public void write(BoardFrame frame) throws IOException {
+    try {
+      renderer.render(frame.getLines());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public void reset() {
+    renderer.reset();
+  }
+
+  /**
+   * Clears the terminal, makes the rows below the board scroll on their own, and moves the
+   * cursor there. The board is then drawn from scratch.
+   *
+   * @throws IOException If the terminal could not be written.
+   * @since 1.1.0
+   */
+  @Override
+  public void boardStarted() throws IOException {
+    printSequence("\033[H\033[2J\033[" + (height + 1) + "r\033[" + (height + 1) + ";1H");
+    renderer.reset();
+  }
+
+  /**
+   * Removes the scrolling region, and clears the board away.
+   *
+   * @throws IOException If the terminal could not be written.
+   * @since 1.1.0
+   */
+  @Override
+  public void boardStopped() throws IOException {
+    printSequence("\033[r\033[H\033[2J");
+  }
+
+  /**
+   * Does nothing, since the terminal stays open for the rest of the program.
+   *
+   * @since 1.0.0
+   */
+  @Override
+  public void close() {
+    // The terminal is not closed
+  }
+
+  /**
+   * Writes an escape sequence to the terminal as one frame.
+   *
+   * @param sequence The escape sequence to write.
+   * @throws IOException If the terminal could not be written.
+   * @since 1.1.0
+   */
+  private void printSequence(String sequence) throws IOException {
+    try {
+      printer.beginFrame();
+      printer.print(sequence);
+      printer.endFrame();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+}
@@ -15,6 +15,8 @@ import static config.ConfigurationOptions.STATE_CHANGE_TIME;
 import static config.ConfigurationOptions.STATE_EXIT;
 import static config.ConfigurationOptions.STATE_HELP;
 import static config.ConfigurationOptions.STATE_REMOVE_DEPARTURE;
+import static config.ConfigurationOptions.STATE_LIVE_BOARD;
+import static config.ConfigurationOptions.STATE_SAVE_STATION;
 import static config.ConfigurationOptions.STATE_SEARCH_BY_DESTINATION;
 import static config.ConfigurationOptions.STATE_SELECT_TRAIN_BY_NUMBER;
 import static config.ConfigurationOptions.STATE_VIEW_DEPARTURES;
@@ -24,7 +26,7 @@ import static config.ConfigurationOptions.STATE_VIEW_DEPARTURES;
  * This class makes it easy to adjust values and/or add new features to the application.
  * Also serves as a language file.
  *
- * @version 1.0.0
+ * @version 1.4.0
  * @since 1.0.0
  */
 public class UserTextFeedback {
@@ -86,11 +88,20 @@ public class UserTextFeedback {
       .append(STATE_EXIT)
       .append(". Exit\n")
       .append(STATE_HELP)
-      .append(". Help\n");
+      .append(". Help\n")
+      .append(STATE_SAVE_STATION)
+      .append(". Save station\n")
+      .append(STATE_LIVE_BOARD)
+      .append(". Live board on/off\n");
   public static final String MAIN_MENU_OPTIONS = String.valueOf(mainMenuMessage);
   // Making it accessible outside the class
 
 
+  // *********************
+  // VIEW TRAIN DEPARTURES
+  // **********************
+  public static final String PROMPT_SHOW_MORE_DEPARTURES = "Show more departures? (Y/n)";
+
   // *********************
   // ADD TRAIN DEPARTURE
   // **********************
@@ -172,6 +183,8 @@ public class UserTextFeedback {
       .append("Assign a track to a selectd departure\n")
       .append("Assign a delay to a selected departure\n")
       .append("Change the time of the station\n")
+      .append("Save the station, which is also done on exit, and restored on the next start\n")
+      .append("Keep a live departure board at the top of the screen while using the menu\n")
       .append("\n\n")
       .append(WHITE_BOLD_BRIGHT)
       .append("How to modify a train departure:\n")
@@ -189,6 +202,27 @@ public class UserTextFeedback {
   public static final String HELP_MESSAGE = String.valueOf(helpMessage);
   // Making it accessible outside the class
 
+  // *********************
+  // SAVE AND RESTORE STATION
+  // **********************
+  public static final String PROMPT_STATION_SAVED = GREEN_BRIGHT
+      + "Station saved to %s" + RESET;
+  public static final String ERROR_SAVING_STATION = "Could not save the station: %s";
+  public static final String PROMPT_STATION_RESTORED = "Restored %d train departures from %s";
+  public static final String ERROR_RESTORING_STATION =
+      "Could not restore the station, starting with example departures: %s";
+  public static final String PROMPT_JOURNAL_REPLAYED = "Replayed %d changes from %s";
+  public static final String ERROR_JOURNAL =
+      "Could not use the journal, changes since the last save may be lost: %s";
+
+  // *********************
+  // LIVE BOARD
+  // **********************
+  public static final String PROMPT_LIVE_BOARD_STARTED = GREEN_BRIGHT
+      + "The live board is shown above the menu. Choose the option again to stop it." + RESET;
+  public static final String PROMPT_LIVE_BOARD_STOPPED = "The live board has been stopped.";
+  public static final String ERROR_BOARD_SINK = "Could not publish the live board: %s";
+
   // *********************
   // EXIT APPLICATION
   // **********************
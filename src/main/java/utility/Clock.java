@@ -5,15 +5,18 @@ package utility;
  * It is used to keep track of time.
  * It only represents the time as a 24-hour clock.
  * Overflow is considered and checked when updating time.
+ * <br>
+ * The time is stored as minutes since 00:00, and every calculation is done by
+ * {@link MinuteOfDay}. Code reading many times, such as sorting and filtering departures,
+ * should use {@code MinuteOfDay} directly, so no {@code Clock} objects are created.
  *
  * @author Jonas Birkeli
- * @version 1.2.0
+ * @version 1.5.0
  * @since 1.0.0
  */
 public class Clock {
   // Variables used in this class
-  private int hour;
-  private int minute;
+  private int minuteOfDay;
 
   /**
    * Constructs a new {@code clock} with the given parameters.
@@ -38,6 +41,19 @@ public class Clock {
     setTime(0, 0);
   }
 
+  /**
+   * Returns a new {@code Clock} showing the given time.
+   *
+   * @param minuteOfDay The time in minutes since 00:00, between 0 and 1439.
+   * @return A new {@code Clock} showing the time.
+   * @since 1.4.0
+   */
+  public static Clock ofMinuteOfDay(int minuteOfDay) {
+    Clock clock = new Clock();
+    clock.minuteOfDay = minuteOfDay;
+    return clock;
+  }
+
   /**
    * Sets the {@code hour} and {@code minute} of the clock.
    * Overflow will result in modulo of 24 for hour and modulo of 60 for minute,
@@ -52,58 +68,8 @@ public class Clock {
    * @since 1.0.0
    */
   public void setTime(int hour, int minute) {
-    if (0 > hour) {
-      // If hour is invalid, set hour to 0
-      hour = 0;
-    }
-    if (0 > minute) {
-      // If minute is invalid, set minute to 0
-      minute = 0;
-    }
-
-    hour += minute / 60;  // Adds how many times minute fits within 60 minutes to hour.
-    // Floor division
-
-    minute %= 60;  // Overflow check
-    hour %= 24;  // Overflow check
-
-    // Sets new values
-    setHour(hour);
-    setMinute(minute);
-  }
-
-  /**
-   * Sets the {@code hour} of the clock.
-   * Checking for overflow is done in {@link #setTime(int, int)}.
-   *
-   * @param hour The hour of the clock.
-   *             Must be between 0 and 23.
-   *             If not, the hour will be set to 0.
-   * @since 1.0.0
-   */
-  private void setHour(int hour) {
-    if (0 > hour || hour > 23) {
-      this.hour = 0;
-    } else {
-      this.hour = hour;
-    }
-  }
-
-  /**
-   * Sets the {@code minute} of the clock.
-   * Checking for overflow is done in {@link #setTime(int, int)}.
-   *
-   * @param minute The minute of the clock.
-   *               Must be between 0 and 59.
-   *               If not, the minute will be set to 0.
-   * @since 1.0.0
-   */
-  private void setMinute(int minute) {
-    if (0 > minute || minute > 59) {
-      this.minute = 0;
-    } else {
-      this.minute = minute;
-    }
+    // Negative values are set to 0, and overflow is handled by MinuteOfDay
+    minuteOfDay = MinuteOfDay.of(hour, minute);
   }
 
   /**
@@ -114,7 +80,7 @@ public class Clock {
    * @since 1.2.0
    */
   public int getHour() {
-    return hour;
+    return MinuteOfDay.hour(minuteOfDay);
   }
 
   /**
@@ -125,7 +91,19 @@ public class Clock {
    * @since 1.2.0
    */
   public int getMinute() {
-    return minute;
+    return MinuteOfDay.minute(minuteOfDay);
+  }
+
+  /**
+   * Returns the time of the clock as the number of minutes since midnight.
+   * The value is between 0 and 1439, and orders the same way as the time itself,
+   * which makes it usable as a key when sorting or indexing by time.
+   *
+   * @return The number of minutes since 00:00.
+   * @since 1.3.0
+   */
+  public int getMinuteOfDay() {
+    return minuteOfDay;
   }
 
   /**
@@ -141,21 +119,7 @@ public class Clock {
    * @since 1.0.0
    */
   public String getTimeAsString() {
-    StringBuilder time = new StringBuilder();
-
-    // Adds a 0 in front of the hour if the hour is less than 10
-    if (hour < 10) {
-      time.append("0");
-    }
-    time.append(hour).append(":");
-
-    // Adds a 0 in front of the minute if the minute is less than 10
-    if (minute < 10) {
-      time.append("0");
-    }
-    time.append(minute);
-    // Returns the time as a string
-    return String.valueOf(time);
+    return MinuteOfDay.format(minuteOfDay);
   }
 
   /**
@@ -169,15 +133,6 @@ public class Clock {
    * @since 1.2.0
    */
   public Clock combine(Clock delay) {
-    int newHour = this.hour + delay.getHour();
-    int newMinute = this.minute + delay.getMinute();
-
-    newHour += newMinute / 60;  // How many times minute fits within 60
-    // Floor division, not accounting for negative numbers
-
-    newHour %= 24;  // Overflow check
-    newMinute %= 60;  // Overflow check
-
-    return new Clock(newHour, newMinute);
+    return ofMinuteOfDay(MinuteOfDay.plus(minuteOfDay, delay.getMinuteOfDay()));
   }
 }
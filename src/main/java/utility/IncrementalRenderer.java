@@ -0,0 +1,158 @@
+package utility;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Draws a screen of lines on the terminal, only writing the lines that changed since the last
+ * time the screen was drawn.
+ * <br>
+ * The renderer remembers the lines of the last screen. When a new screen is drawn, every line
+ * is compared with the line drawn at the same row last time, and only the lines that differ are
+ * written, each after an ANSI sequence moving the cursor to the start of its row, and followed by
+ * a sequence erasing the rest of the row. The bytes written for a screen therefore grow with the
+ * number of changed lines, not the number of lines on the screen, which matters on slow serial
+ * and SSH terminals. The first screen, and the first after {@link #reset()}, clears the terminal
+ * and writes every line.
+ * <br>
+ * Every line must be complete on its own, including any colors, since it can be written without
+ * the lines before it, and must not contain a line break. Lines are compared with
+ * {@code equals}, which returns at once for the same string, so handing over cached lines makes
+ * comparing cheap. After every screen, the cursor is left on the row below the last line, and
+ * anything below it is erased. The whole screen is written as one frame of the {@link Printer}.
+ * <br>
+ * A renderer can instead be given a fixed number of rows at the top of the terminal, leaving the
+ * rest to other output. It then never clears the terminal, lines past its rows are not drawn,
+ * missing lines are drawn empty, and the cursor is saved before drawing and put back after,
+ * so output written below is not disturbed.
+ *
+ * @author Jonas Birkeli
+ * @version 1.1.0
+ * @since 1.0.0
+ */
+public class IncrementalRenderer {
+  private static final String CLEAR_SCREEN = "\033[H\033[2J";
+  private static final String ERASE_LINE = "\033[K";
+  private static final String ERASE_BELOW = "\033[J";
+  private static final String SAVE_CURSOR = "\0337";
+  private static final String RESTORE_CURSOR = "\0338";
+
+  private final Printer printer;
+  private final int height;
+  private String[] drawnLines;
+  private int drawnCount;
+  private boolean cleared;
+
+  /**
+   * Constructs a new {@code IncrementalRenderer} drawing through the given {@code Printer}.
+   *
+   * @param printer The printer to draw through.
+   * @since 1.0.0
+   */
+  public IncrementalRenderer(Printer printer) {
+    this(printer, 0);
+  }
+
+  /**
+   * Constructs a new {@code IncrementalRenderer} drawing through the given {@code Printer} on a
+   * fixed number of rows at the top of the terminal.
+   *
+   * @param printer The printer to draw through.
+   * @param height The number of rows to draw on, or 0 to use the whole terminal.
+   * @throws IllegalArgumentException If the height is negative.
+   * @since 1.1.0
+   */
+  public IncrementalRenderer(Printer printer, int height) {
+    if (height < 0) {
+      throw new IllegalArgumentException("Height must not be negative");
+    }
+    this.printer = printer;
+    this.height = height;
+    this.drawnLines = new String[0];
+    this.drawnCount = 0;
+    this.cleared = false;
+  }
+
+  /**
+   * Draws the lines as the new screen, writing only the lines that changed since the last screen.
+   *
+   * @param lines The lines of the screen, from the top row down.
+   * @return The number of lines written.
+   * @since 1.0.0
+   */
+  public int render(List<String> lines) {
+    int written = 0;
+    int rowCount = height > 0 ? height : lines.size();
+    printer.beginFrame();
+
+    if (height > 0) {
+      printer.print(SAVE_CURSOR);
+    }
+    if (!cleared) {
+      // Nothing is known about the rows, so every line is drawn
+      if (height == 0) {
+        printer.print(CLEAR_SCREEN);
+      }
+      drawnCount = 0;
+      cleared = true;
+    }
+    if (drawnLines.length < rowCount) {
+      drawnLines = Arrays.copyOf(drawnLines, Math.max(rowCount, drawnLines.length * 2));
+    }
+
+    for (int row = 0; row < rowCount; row++) {
+      String line = row < lines.size() ? lines.get(row) : "";
+      if (row >= drawnCount || !line.equals(drawnLines[row])) {
+        printer.print(cursorTo(row));
+        printer.print(line);
+        printer.print(ERASE_LINE);
+        drawnLines[row] = line;
+        written++;
+      }
+    }
+
+    if (height > 0) {
+      printer.print(RESTORE_CURSOR);
+    } else {
+      // Leaving the cursor below the screen, and erasing what was drawn or typed there
+      printer.print(cursorTo(rowCount));
+      printer.print(ERASE_BELOW);
+      Arrays.fill(drawnLines, rowCount, Math.max(rowCount, drawnCount), null);
+    }
+    drawnCount = rowCount;
+
+    printer.endFrame();
+    return written;
+  }
+
+  /**
+   * Returns the number of rows the renderer draws on.
+   *
+   * @return The number of rows, or 0 if the renderer uses the whole terminal.
+   * @since 1.1.0
+   */
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * Forgets the last screen, so the next screen clears the terminal and writes every line.
+   * Called when something else has been written to the terminal.
+   *
+   * @since 1.0.0
+   */
+  public void reset() {
+    cleared = false;
+  }
+
+  /**
+   * Returns the ANSI sequence moving the cursor to the start of the given row.
+   *
+   * @param row The row, counted from 0 at the top of the terminal.
+   * @return The ANSI sequence.
+   * @since 1.0.0
+   */
+  private static String cursorTo(int row) {
+    return "\033[" + (row + 1) + ";1H";
+  }
+}
@@ -0,0 +1,109 @@
+package utility;
+
+/**
+ * Static helpers for times of day stored as a plain {@code int}: the number of minutes since
+ * 00:00, between 0 and 1439. Such a time orders the same way as the time itself, and is
+ * compared, added and stored without creating any objects, unlike {@link Clock}.
+ * <br>
+ * The same rules as {@code Clock} apply when creating a time from an hour and a minute:
+ * negative values are set to 0, minutes above 59 carry over to the hour, and hours wrap
+ * around at midnight.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class MinuteOfDay {
+  public static final int MINUTES_PER_DAY = 24 * 60;
+
+  /**
+   * Not used, as the class only has static methods.
+   *
+   * @since 1.0.0
+   */
+  private MinuteOfDay() {
+  }
+
+  /**
+   * Returns the time of the given hour and minute, in minutes since 00:00.
+   * Overflow is handled the same way as in {@link Clock#setTime(int, int)}.
+   *
+   * @param hour The hour of the time. Set to 0 if negative.
+   * @param minute The minute of the time. Set to 0 if negative.
+   * @return The time in minutes since 00:00, between 0 and 1439.
+   * @since 1.0.0
+   */
+  public static int of(int hour, int minute) {
+    int validHour = Math.max(hour, 0);
+    int validMinute = Math.max(minute, 0);
+
+    validHour += validMinute / 60;  // Adds how many times minute fits within 60 minutes to hour
+    return (validHour % 24) * 60 + validMinute % 60;
+  }
+
+  /**
+   * Returns the hour of the time.
+   *
+   * @param minuteOfDay The time in minutes since 00:00.
+   * @return The hour, between 0 and 23.
+   * @since 1.0.0
+   */
+  public static int hour(int minuteOfDay) {
+    return minuteOfDay / 60;
+  }
+
+  /**
+   * Returns the minute of the time.
+   *
+   * @param minuteOfDay The time in minutes since 00:00.
+   * @return The minute, between 0 and 59.
+   * @since 1.0.0
+   */
+  public static int minute(int minuteOfDay) {
+    return minuteOfDay % 60;
+  }
+
+  /**
+   * Adds a number of minutes to the time. Like {@link Clock#combine(Clock)},
+   * the result wraps around at midnight.
+   *
+   * @param minuteOfDay The time in minutes since 00:00.
+   * @param minutes The number of minutes to add. Must not be negative.
+   * @return The new time in minutes since 00:00.
+   * @since 1.0.0
+   */
+  public static int plus(int minuteOfDay, int minutes) {
+    return (minuteOfDay + minutes) % MINUTES_PER_DAY;
+  }
+
+  /**
+   * Appends the time to the builder as {@code HH:MM}, without creating a string for it.
+   *
+   * @param builder The builder to append the time to.
+   * @param minuteOfDay The time in minutes since 00:00.
+   * @return The given builder.
+   * @since 1.0.0
+   */
+  public static StringBuilder appendTo(StringBuilder builder, int minuteOfDay) {
+    int hour = hour(minuteOfDay);
+    int minute = minute(minuteOfDay);
+
+    return builder
+        .append((char) ('0' + hour / 10))
+        .append((char) ('0' + hour % 10))
+        .append(':')
+        .append((char) ('0' + minute / 10))
+        .append((char) ('0' + minute % 10));
+  }
+
+  /**
+   * Returns the time as a string with correct formatting, for example 00:00, 09:09 or 23:59.
+   *
+   * @param minuteOfDay The time in minutes since 00:00.
+   * @return The time as {@code HH:MM}.
+   * @since 1.0.0
+   */
+  public static String format(int minuteOfDay) {
+    return appendTo(new StringBuilder(5), minuteOfDay).toString();
+  }
+}
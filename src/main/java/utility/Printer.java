@@ -3,16 +3,77 @@ package utility;
 import static config.Colors.RED_BRIGHT;
 import static config.Colors.RESET;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
 /**
  * Class for handling user output.
  * This class makes it easy to adjust values and/or add new features to the application,
  * like adding colors to the output, or changing the output stream.
+ * <br>
+ * Output can be collected into a frame with {@link #beginFrame()} and {@link #endFrame()}.
+ * Everything printed in between is appended to one buffer, which is reused for every frame,
+ * and the whole frame is written to the output at once when it ends. A screen of departures
+ * is then written with a single write, instead of one write for every line.
+ * <br>
+ * When the top of the terminal is used by something else, such as a live departure board,
+ * {@link #setFirstClearedRow(int)} makes {@link #clearScreen()} leave the rows above alone.
  *
  * @author Jonas Birkeli
- * @version 1.0.0
+ * @version 1.2.0
  * @since 1.0.0
  */
 public class Printer {
+  private static final int INITIAL_FRAME_BYTES = 8192;
+  private static final String CLEAR_SCREEN = "\033[H\033[2J";
+
+  private final PrintStream out;
+  private final WritableByteChannel frameOut;
+  private final StringBuilder frame;
+  private final CharsetEncoder encoder;
+  private ByteBuffer frameBytes;
+  private boolean framing;
+  private String clearSequence;
+
+  /**
+   * Constructs a new {@code Printer} printing to the standard output.
+   *
+   * @since 1.1.0
+   */
+  public Printer() {
+    this(System.out, new FileOutputStream(FileDescriptor.out).getChannel());
+  }
+
+  /**
+   * Constructs a new {@code Printer} printing to the given stream. Frames are written to the
+   * given channel, which must write to the same place as the stream. Frames are encoded with the
+   * default charset, like the standard output.
+   *
+   * @param out The stream to print to.
+   * @param frameOut The channel to write frames to.
+   * @since 1.1.0
+   */
+  public Printer(PrintStream out, WritableByteChannel frameOut) {
+    this.out = out;
+    this.frameOut = frameOut;
+    this.frame = new StringBuilder();
+    this.encoder = Charset.defaultCharset().newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.frameBytes = ByteBuffer.allocateDirect(INITIAL_FRAME_BYTES);
+    this.framing = false;
+    this.clearSequence = CLEAR_SCREEN;
+  }
 
   /**
    * Prints a message to the standard output, including the newline character.
@@ -21,23 +82,33 @@ public class Printer {
    *   <br>
    *   <a href="https://docs.oracle.com/javase/8/docs/api/java/lang/System.html#out">System.out</a>
    * </p>
+   * Inside a frame, the message is added to the frame instead.
    *
    * @param message The message to print.
    * @since 1.0.0
    */
   public void println(String message) {
-    System.out.println(message);
+    if (framing) {
+      frame.append(message).append(System.lineSeparator());
+    } else {
+      out.println(message);
+    }
   }
 
   /**
    * Prints a message to the standard output, excluding the newline character.
    * This method is equivalent to {@code System.out.print(message)}.
+   * Inside a frame, the message is added to the frame instead.
    *
    * @param message The message to print.
    * @since 1.0.0
    */
   public void print(String message) {
-    System.out.print(message);
+    if (framing) {
+      frame.append(message);
+    } else {
+      out.print(message);
+    }
   }
 
   /**
@@ -46,23 +117,102 @@ public class Printer {
    * This method is not supported on all operating systems.
    * If the method is not supported, the screen is not cleared.
    * This method has been created using CoPilot.
+   * Inside a frame, the screen is cleared when the frame is written.
+   * Only the rows from the first cleared row and down are cleared.
    *
    * @since 1.0.0
    */
   public void clearScreen() {
     // Produced by CoPilot
-    System.out.print("\033[H\033[2J");
-    System.out.flush();
+    print(clearSequence);
+    if (!framing) {
+      out.flush();
+    }
   }
 
   /**
    * Prints an error message to the standard error stream colored in red,
    * including the newline character.
    * This method is equivalent to {@code System.err.println(message)}.
+   * Errors are never added to a frame.
    *
    * @param message The error message to be printed to user.
    */
   public void printError(String message) {
     System.err.println(RED_BRIGHT + message + RESET);
   }
+
+  /**
+   * Sets the first row cleared by {@link #clearScreen()}. The rows above are left alone, and the
+   * cursor is moved to the start of the first cleared row instead of the top of the terminal.
+   *
+   * @param row The first row to clear, counted from 1 at the top of the terminal. 1 or less
+   *        clears the whole screen.
+   * @since 1.2.0
+   */
+  public void setFirstClearedRow(int row) {
+    clearSequence = row <= 1 ? CLEAR_SCREEN : "\033[" + row + ";1H\033[J";
+  }
+
+  /**
+   * Starts a frame. Everything printed until {@link #endFrame()} is collected, and written
+   * at once when the frame ends. Anything collected in an unfinished frame is discarded.
+   *
+   * @since 1.1.0
+   */
+  public void beginFrame() {
+    frame.setLength(0);
+    framing = true;
+  }
+
+  /**
+   * Ends the frame, and writes everything printed since {@link #beginFrame()} to the output
+   * with a single write. Output printed before the frame is written first.
+   * Nothing happens if no frame has been started.
+   *
+   * @throws UncheckedIOException If the frame could not be written.
+   * @since 1.1.0
+   */
+  public void endFrame() {
+    if (framing) {
+      framing = false;
+      encodeFrame();
+      // Anything printed before the frame is still buffered in the stream, and must come first
+      out.flush();
+      try {
+        while (frameBytes.hasRemaining()) {
+          frameOut.write(frameBytes);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Encodes the frame into the reused byte buffer, growing it if the frame does not
+   * fit. The buffer is left ready to be written.
+   *
+   * @since 1.1.0
+   */
+  private void encodeFrame() {
+    CoderResult result = CoderResult.OVERFLOW;
+
+    while (result.isOverflow()) {
+      CharBuffer chars = CharBuffer.wrap(frame);
+      encoder.reset();
+      frameBytes.clear();
+      result = encoder.encode(chars, frameBytes, true);
+      if (!result.isOverflow()) {
+        result = encoder.flush(frameBytes);
+      }
+      if (result.isOverflow()) {
+        // The frame did not fit, so the buffer is grown and the frame encoded again
+        frameBytes = ByteBuffer.allocateDirect(Math.max(
+            frameBytes.capacity() * 2, (int) (frame.length() * encoder.maxBytesPerChar())
+        ));
+      }
+    }
+    frameBytes.flip();
+  }
 }
@@ -0,0 +1,68 @@
+package benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import utility.IncrementalRenderer;
+import utility.MinuteOfDay;
+import utility.Printer;
+
+/**
+ * Counts the bytes written to the terminal when a departure board is refreshed with a few
+ * changed rows, comparing a full reprint after clearing the screen against the
+ * {@code IncrementalRenderer}, which only writes the changed rows.
+ * <br>
+ * Not run as part of the tests. Run the main method directly.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class BoardRefreshBenchmark {
+  private static final int[] SIZES = {20, 200, 2_000};
+  private static final int[] CHANGES = {1, 10};
+
+  /**
+   * Refreshes boards of every size with every number of changes, and prints one line for each.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    System.out.printf("%6s %8s %18s %18s%n", "rows", "changes", "full bytes", "incremental bytes");
+
+    for (int size : SIZES) {
+      for (int changes : CHANGES) {
+        List<String> lines = createLines(size);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Printer printer = new Printer(new PrintStream(output, true), Channels.newChannel(output));
+        IncrementalRenderer renderer = new IncrementalRenderer(printer);
+        renderer.render(lines);
+        int fullBytes = output.size();
+
+        for (int i = 0; i < changes; i++) {
+          int row = (i * 7919) % size;
+          lines.set(row, lines.get(row).replace("Spor", "SPOR"));
+        }
+        output.reset();
+        renderer.render(lines);
+
+        System.out.printf("%6d %8d %18d %18d%n", size, changes, fullBytes, output.size());
+      }
+    }
+  }
+
+  private static List<String> createLines(int size) {
+    List<String> lines = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      StringBuilder line = new StringBuilder("\033[0;97m");
+      MinuteOfDay.appendTo(line, i % 1440).append("       F").append(i % 20)
+          .append("  Øvraørnefjeddstakkslåttå Spor ").append(1 + i % 20)
+          .append("          ").append(i + 1).append("\033[0m");
+      lines.add(line.toString());
+    }
+    return lines;
+  }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import core.Station;
+import core.TrainDeparture;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the time to load a full timetable of 1M departures into an empty {@code Station},
+ * one departure at a time with {@code Station.addTrainDeparture}, and in one call with
+ * {@code Station.addTrainDepartures}. The departures are created up front, so only loading is
+ * measured.
+ * <br>
+ * Not run as part of the tests. Run the main method with enough heap, for example
+ * {@code -Xms4g -Xmx4g}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class BulkLoadBenchmark {
+  private static final int DEPARTURES = 1_000_000;
+  private static final int ROUNDS = 5;
+
+  /**
+   * Loads the timetable both ways and prints the best time of every round.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    List<TrainDeparture> timetable = new ArrayList<>(DEPARTURES);
+    for (int i = 0; i < DEPARTURES; i++) {
+      TrainDeparture trainDeparture = new TrainDeparture(
+          (i / 60) % 24, i % 60, "F" + (i % 20), "By " + (i % 400), 1 + i % 20, i + 1
+      );
+      trainDeparture.setDelay(0, i % 15);
+      timetable.add(trainDeparture);
+    }
+
+    double singleMillis = Double.MAX_VALUE;
+    double bulkMillis = Double.MAX_VALUE;
+    for (int round = 0; round < ROUNDS; round++) {
+      // Every round loads into a new station, so the first rounds also warm up
+      long start = System.nanoTime();
+      Station single = new Station();
+      for (TrainDeparture trainDeparture : timetable) {
+        single.addTrainDeparture(trainDeparture);
+      }
+      singleMillis = Math.min(singleMillis, (System.nanoTime() - start) / 1_000_000.0);
+      check(single);
+
+      start = System.nanoTime();
+      Station bulk = new Station();
+      bulk.addTrainDepartures(timetable);
+      bulkMillis = Math.min(bulkMillis, (System.nanoTime() - start) / 1_000_000.0);
+      check(bulk);
+    }
+
+    System.out.printf("%10s %20s %20s%n", "departures", "addTrainDeparture ms",
+        "addTrainDepartures ms");
+    System.out.printf("%10d %20.1f %20.1f%n", DEPARTURES, singleMillis, bulkMillis);
+  }
+
+  private static void check(Station station) {
+    if (station.getNextTrainDepartures(1).isEmpty()) {
+      throw new IllegalStateException("Station was not loaded");
+    }
+  }
+}
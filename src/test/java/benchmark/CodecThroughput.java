@@ -0,0 +1,103 @@
+package benchmark;
+
+import core.Station;
+import core.StationSnapshot;
+import core.TrainDeparture;
+import io.DepartureCodec;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the throughput of {@code DepartureCodec} in departures per second, for writing a
+ * station snapshot, reading the departures back, and reading back a whole {@code Station}
+ * with its indexes.
+ * <br>
+ * Not run as part of the tests. Run the main method with a fixed heap for stable numbers,
+ * for example {@code -Xms2g -Xmx2g}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class CodecThroughput {
+  private static final int DEPARTURES = 1_000_000;
+  private static final int ROUNDS = 5;
+
+  /**
+   * Writes and reads a large station several times, and prints the throughput of each step.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    Station station = new Station();
+    List<TrainDeparture> timetable = new ArrayList<>(DEPARTURES);
+    for (int i = 0; i < DEPARTURES; i++) {
+      TrainDeparture trainDeparture = new TrainDeparture(
+          (i / 60) % 24, i % 60, "F" + (i % 20), "By " + (i % 400), 1 + i % 20, i + 1
+      );
+      trainDeparture.setDelay(0, i % 7 == 0 ? i % 30 : 0);
+      timetable.add(trainDeparture);
+    }
+    station.addTrainDepartures(timetable);
+    StationSnapshot snapshot = station.publishSnapshot();
+    int count = snapshot.getAllTrainDepartures().size();
+
+    int size = DepartureCodec.encodedSize(snapshot);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+    DepartureCodec codec = new DepartureCodec();
+    System.out.printf("%d departures in %d bytes, %.1f bytes per departure%n",
+        count, size, (double) size / count);
+
+    double writeNanos = time(() -> {
+      buffer.clear();
+      codec.writeStation(snapshot, buffer);
+      return buffer.position();
+    });
+
+    double readRecordsNanos = time(() -> {
+      buffer.rewind();
+      DepartureCodec reader = new DepartureCodec();
+      // Skipping the header: magic number, version, station time, selection and count
+      buffer.position(Integer.BYTES + 1);
+      DepartureCodec.readVarInt(buffer);
+      buffer.get();
+      int records = DepartureCodec.readVarInt(buffer);
+      int checksum = 0;
+      for (int i = 0; i < records; i++) {
+        checksum += reader.readTrainDeparture(buffer).getTrack();
+      }
+      return checksum;
+    });
+
+    double readStationNanos = time(() -> {
+      buffer.rewind();
+      return codec.readStation(buffer).getTrainDepartureByTrainNumber(1).getTrack();
+    });
+
+    System.out.printf("%-24s %16s%n", "step", "departures/s");
+    System.out.printf("%-24s %16.0f%n", "write station", count / (writeNanos / 1e9));
+    System.out.printf("%-24s %16.0f%n", "read departures", count / (readRecordsNanos / 1e9));
+    System.out.printf("%-24s %16.0f%n", "read station", count / (readStationNanos / 1e9));
+  }
+
+  private static double time(Step step) {
+    long checksum = 0;
+    checksum += step.run();  // Warming up
+    long start = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      checksum += step.run();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    if (checksum == 0) {
+      throw new IllegalStateException("Nothing was written or read");
+    }
+    return (double) elapsed / ROUNDS;
+  }
+
+  @FunctionalInterface
+  private interface Step {
+    long run();
+  }
+}
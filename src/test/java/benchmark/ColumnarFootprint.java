@@ -0,0 +1,99 @@
+package benchmark;
+
+import core.ColumnarDepartureStore;
+import core.Station;
+import core.TrainDeparture;
+import utility.MinuteOfDay;
+
+/**
+ * Reports the heap footprint of 1M departures in a {@code Station}, where every departure is a
+ * {@code TrainDeparture} object with its own line and destination strings, against the same
+ * departures in a {@code ColumnarDepartureStore}. Also times one scan of the board in each.
+ * <br>
+ * The departures are created the way a timetable import creates them, with new strings for
+ * every row. Each store is measured in its own method, so only one of them is reachable at a
+ * time.
+ * Not run as part of the tests. Run the main method with a fixed heap for stable numbers,
+ * for example {@code -Xms4g -Xmx4g}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ColumnarFootprint {
+  private static final int DEPARTURES = 1_000_000;
+  private static final int ROUNDS = 10;
+
+  /**
+   * Fills both stores and prints the footprint and scan time of each.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    System.out.printf("%-24s %14s %12s %12s%n", "storage", "bytes", "bytes/row", "scan ms");
+    measureStation();
+    measureColumnarStore();
+  }
+
+  private static void measureStation() {
+    long before = usedHeap();
+    Station station = new Station();
+    for (int i = 0; i < DEPARTURES; i++) {
+      station.addTrainDeparture(createDeparture(i));
+    }
+    long bytes = usedHeap() - before;
+    double millis = time(() -> station.getStreamOfTimeFilteredTrainDepartures().count());
+
+    System.out.printf("%-24s %14d %12.1f %12.1f%n", "Station (objects)",
+        bytes, (double) bytes / DEPARTURES, millis);
+  }
+
+  private static void measureColumnarStore() {
+    long before = usedHeap();
+    ColumnarDepartureStore store = new ColumnarDepartureStore();
+    for (int i = 0; i < DEPARTURES; i++) {
+      store.addTrainDeparture(createDeparture(i));
+    }
+    long bytes = usedHeap() - before;
+    int stationMinute = MinuteOfDay.of(0, 0);
+    double millis = time(() -> store.getStreamOfTimeFilteredTrainDepartures(stationMinute).count());
+
+    System.out.printf("%-24s %14d %12.1f %12.1f%n", "ColumnarDepartureStore",
+        bytes, (double) bytes / store.size(), millis);
+  }
+
+  private static TrainDeparture createDeparture(int i) {
+    TrainDeparture trainDeparture = new TrainDeparture(
+        (i / 60) % 24, i % 60, "F" + (i % 20), "By " + (i % 400), 1 + i % 20, i + 1
+    );
+    trainDeparture.setDelay(0, i % 15);
+    return trainDeparture;
+  }
+
+  private static double time(Scan scan) {
+    long checksum = scan.run();  // Warming up
+    long start = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      checksum += scan.run();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    if (checksum == 0) {
+      throw new IllegalStateException("No departures found");
+    }
+    return elapsed / 1_000_000.0 / ROUNDS;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  @FunctionalInterface
+  private interface Scan {
+    long run();
+  }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import core.ConcurrentStation;
+import core.TrainDeparture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how many board reads and writes a {@code ConcurrentStation} handles a second, with
+ * a number of threads reading the board while other threads add, remove and delay departures.
+ * <br>
+ * Not run as part of the tests. Run the main method directly, optionally with the number of
+ * readers, the number of writers and the duration in milliseconds as arguments.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ConcurrentStationThroughput {
+  private static final int TRAIN_NUMBERS = 5_000;
+
+  /**
+   * Runs the readers and writers, and prints the reads and writes a second.
+   *
+   * @param args The number of readers, writers and milliseconds, defaulting to 4, 2 and 2000.
+   * @throws InterruptedException If interrupted while waiting for the threads.
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int readers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    int writers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+    long durationMillis = args.length > 2 ? Long.parseLong(args[2]) : 2_000;
+
+    ConcurrentStation station = new ConcurrentStation();
+    AtomicBoolean running = new AtomicBoolean(true);
+    LongAdder boardReads = new LongAdder();
+    LongAdder writes = new LongAdder();
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < readers; i++) {
+      threads.add(new Thread(() -> {
+        while (running.get()) {
+          station.getStreamOfTimeFilteredTrainDepartures().count();
+          boardReads.increment();
+        }
+      }));
+    }
+    for (int i = 0; i < writers; i++) {
+      threads.add(new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running.get()) {
+          int trainNumber = 1 + random.nextInt(TRAIN_NUMBERS);
+          switch (random.nextInt(3)) {
+            case 0 -> station.addTrainDeparture(new TrainDeparture(
+                random.nextInt(24), random.nextInt(60), "F1", "Hamar", 1, trainNumber));
+            case 1 -> station.removeTrainDeparture(trainNumber);
+            default -> station.setDelay(trainNumber, 0, random.nextInt(60));
+          }
+          writes.increment();
+        }
+      }));
+    }
+
+    threads.forEach(Thread::start);
+    Thread.sleep(durationMillis);
+    running.set(false);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    System.out.printf("ConcurrentStation: %d readers, %d writers, %d ms: "
+            + "%.0f board reads/s, %.0f writes/s%n",
+        readers, writers, durationMillis,
+        boardReads.sum() * 1000.0 / durationMillis, writes.sum() * 1000.0 / durationMillis);
+  }
+}
@@ -0,0 +1,52 @@
+package benchmark;
+
+import core.Station;
+import core.TrainDeparture;
+
+/**
+ * Measures the latency of {@code Station.getAllTrainDeparturesByPartialDestination} on a large
+ * hub timetable, for queries matching many, few and no departures.
+ * <br>
+ * Not run as part of the tests. Run the main method directly.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class DestinationSearchBenchmark {
+  private static final int DEPARTURES = 300_000;
+  private static final int DESTINATIONS = 400;
+  private static final int ROUNDS = 200;
+  private static final String[] QUERIES = {"by 1", "by 123", "lillehammer", "xyz", "y"};
+
+  /**
+   * Fills a station and prints the average latency of every query.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    Station station = new Station();
+    for (int i = 0; i < DEPARTURES; i++) {
+      station.addTrainDeparture(new TrainDeparture(
+          (i / 60) % 24, i % 60, "F" + (i % 20), "By " + (i % DESTINATIONS), 1 + i % 20, i + 1
+      ));
+    }
+    station.addTrainDeparture(new TrainDeparture(23, 18, "F10", "Lillehammer", 20, DEPARTURES + 1));
+
+    System.out.printf("%-12s %10s %14s%n", "query", "matches", "us/search");
+    for (String query : QUERIES) {
+      long matches = 0;
+      // Warming up before measuring
+      for (int round = 0; round < ROUNDS; round++) {
+        matches = station.getAllTrainDeparturesByPartialDestination(query).count();
+      }
+
+      long start = System.nanoTime();
+      for (int round = 0; round < ROUNDS; round++) {
+        matches = station.getAllTrainDeparturesByPartialDestination(query).count();
+      }
+      double micros = (System.nanoTime() - start) / 1_000.0 / ROUNDS;
+      System.out.printf("%-12s %10d %14.1f%n", query, matches, micros);
+    }
+  }
+}
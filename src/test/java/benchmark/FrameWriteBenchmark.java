@@ -0,0 +1,165 @@
+package benchmark;
+
+import config.Colors;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import utility.MinuteOfDay;
+import utility.Printer;
+
+/**
+ * Compares writing a departure board through {@code Printer} one fragment at a time, as the
+ * board was written before frames, against collecting the board into one frame and writing it
+ * at once. The output goes to {@code /dev/null} through a stream set up like
+ * {@code System.out}, and the number of writes reaching the file is counted, since every one
+ * of them is a system call.
+ * <br>
+ * Not run as part of the tests. Run the main method directly.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class FrameWriteBenchmark {
+  private static final int[] SIZES = {1_000, 10_000};
+  private static final int WARMUP_ROUNDS = 50;
+  private static final int ROUNDS = 200;
+
+  /**
+   * Writes boards of every size both ways, and prints one line per size.
+   *
+   * @param args Not used.
+   * @throws IOException If {@code /dev/null} could not be opened.
+   */
+  public static void main(String[] args) throws IOException {
+    System.out.printf("%6s %18s %14s %18s %14s%n",
+        "rows", "fragments ms/frame", "writes/frame", "framed ms/frame", "writes/frame");
+
+    try (FileOutputStream devNull = new FileOutputStream("/dev/null")) {
+      CountingOutputStream countingStream = new CountingOutputStream(devNull);
+      CountingChannel countingChannel = new CountingChannel(devNull.getChannel());
+      // Set up like System.out, which flushes on every line break
+      PrintStream out = new PrintStream(new BufferedOutputStream(countingStream, 8192), true);
+      Printer printer = new Printer(out, countingChannel);
+
+      for (int size : SIZES) {
+        List<String> rows = createRows(size);
+
+        time(() -> writeFragments(printer, rows), WARMUP_ROUNDS);
+        countingStream.writes = 0;
+        double fragmentsMillis = time(() -> writeFragments(printer, rows), ROUNDS);
+        double fragmentWrites = (double) countingStream.writes / ROUNDS;
+
+        time(() -> writeFrame(printer, rows), WARMUP_ROUNDS);
+        countingStream.writes = 0;
+        countingChannel.writes = 0;
+        double framedMillis = time(() -> writeFrame(printer, rows), ROUNDS);
+        double framedWrites = (double) (countingStream.writes + countingChannel.writes) / ROUNDS;
+
+        System.out.printf("%6d %18.3f %14.1f %18.3f %14.1f%n",
+            size, fragmentsMillis, fragmentWrites, framedMillis, framedWrites);
+      }
+    }
+  }
+
+  /**
+   * Writes the board the way {@code DispatchSystem} did before frames.
+   */
+  private static void writeFragments(Printer printer, List<String> rows) {
+    printer.println("\n12:00");
+    printer.print(Colors.WHITE_BRIGHT);
+    rows.forEach(printer::print);
+    printer.print(Colors.RESET);
+  }
+
+  /**
+   * Writes the board as one frame.
+   */
+  private static void writeFrame(Printer printer, List<String> rows) {
+    printer.beginFrame();
+    writeFragments(printer, rows);
+    printer.endFrame();
+  }
+
+  private static double time(Runnable frame, int rounds) {
+    long start = System.nanoTime();
+    for (int i = 0; i < rounds; i++) {
+      frame.run();
+    }
+    return (System.nanoTime() - start) / 1e6 / rounds;
+  }
+
+  /**
+   * Creates rows laid out like the rows of the departure board.
+   */
+  private static List<String> createRows(int size) {
+    List<String> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      StringBuilder row = new StringBuilder();
+      MinuteOfDay.appendTo(row, i % 1440).append("       F").append(i % 20)
+          .append("  Øvraørnefjeddstakkslåttå ").append(1 + i % 20)
+          .append("          ").append(i + 1).append('\n');
+      rows.add(row.toString());
+    }
+    return rows;
+  }
+
+  /**
+   * Stream counting the writes passed on to the stream below it.
+   */
+  private static final class CountingOutputStream extends OutputStream {
+    private final OutputStream out;
+    private long writes;
+
+    private CountingOutputStream(OutputStream out) {
+      this.out = out;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      writes++;
+      out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      writes++;
+      out.write(b, off, len);
+    }
+  }
+
+  /**
+   * Channel counting the writes passed on to the file below it.
+   */
+  private static final class CountingChannel implements WritableByteChannel {
+    private final FileChannel channel;
+    private long writes;
+
+    private CountingChannel(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+      writes++;
+      return channel.write(source);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package benchmark;
+
+import core.OffHeapStation;
+import core.Station;
+import core.TrainDeparture;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compares garbage collection pauses of {@code Station} and {@code OffHeapStation} under a
+ * sustained mutation load. Both stations are loaded with the same timetable, and then get a
+ * steady mix of delays and replaced departures, while the next departures are read every
+ * 100 ms like the departure board does.
+ * <br>
+ * Pauses are measured in two ways: the time spent in garbage collection as reported by the
+ * collectors, and the largest stall seen by a thread sleeping 1 ms at a time, which also catches
+ * pauses the collectors do not report.
+ * <br>
+ * Not run as part of the tests. For clean numbers, run each station in its own JVM by passing
+ * {@code station} or {@code offheap} as the argument, with the same heap, for example
+ * {@code -Xms4g -Xmx4g}. Without an argument both are run, one after the other.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class GcPauseComparison {
+  private static final int DEPARTURES = 2_000_000;
+  private static final long RUN_MILLIS = 20_000;
+  private static final long RENDER_INTERVAL_NANOS = 100_000_000L;
+  private static final int BOARD_SIZE = 20;
+
+  /**
+   * Runs the load against the chosen station, or both, and prints one line per station.
+   *
+   * @param args {@code station}, {@code offheap}, or nothing for both.
+   * @throws InterruptedException If interrupted while waiting for the stall thread.
+   */
+  public static void main(String[] args) throws InterruptedException {
+    String mode = args.length > 0 ? args[0] : "both";
+
+    System.out.printf("%-16s %10s %10s %12s %14s %12s%n",
+        "station", "gc count", "gc ms", "max stall ms", "stalls >10 ms", "mutations");
+    if (!mode.equals("offheap")) {
+      run("Station", new StationLoad());
+    }
+    if (!mode.equals("station")) {
+      run("OffHeapStation", new OffHeapLoad());
+    }
+  }
+
+  private static void run(String name, Load load) throws InterruptedException {
+    load.fill();
+    System.gc();
+
+    long gcCountBefore = gcCount();
+    long gcMillisBefore = gcMillis();
+    AtomicBoolean running = new AtomicBoolean(true);
+    long[] stalls = new long[2];  // Largest stall in nanoseconds, and number of stalls over 10 ms
+
+    Thread stallThread = new Thread(() -> {
+      while (running.get()) {
+        long start = System.nanoTime();
+        try {
+          Thread.sleep(1);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        long stall = System.nanoTime() - start - 1_000_000L;
+        stalls[0] = Math.max(stalls[0], stall);
+        if (stall > 10_000_000L) {
+          stalls[1]++;
+        }
+      }
+    });
+    stallThread.setDaemon(true);
+    stallThread.start();
+
+    long mutations = 0;
+    long checksum = 0;
+    long deadline = System.nanoTime() + RUN_MILLIS * 1_000_000L;
+    long nextRender = System.nanoTime();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+
+    while (System.nanoTime() < deadline) {
+      int trainNumber = 1 + random.nextInt(DEPARTURES);
+      if ((mutations & 3) == 0) {
+        // Every fourth change replaces the departure, as a timetable update does
+        load.replace(createDeparture(trainNumber - 1, random.nextInt(1440)));
+      } else {
+        load.delay(trainNumber, random.nextInt(30));
+      }
+      mutations++;
+
+      if (System.nanoTime() >= nextRender) {
+        checksum += load.render();
+        // Counting from the end of the render, so a slow board does not starve the mutations
+        nextRender = System.nanoTime() + RENDER_INTERVAL_NANOS;
+      }
+    }
+    running.set(false);
+    stallThread.join();
+
+    if (checksum == 0) {
+      throw new IllegalStateException("The board was never read");
+    }
+    System.out.printf("%-16s %10d %10d %12.1f %14d %12d%n", name,
+        gcCount() - gcCountBefore, gcMillis() - gcMillisBefore,
+        stalls[0] / 1_000_000.0, stalls[1], mutations);
+  }
+
+  private static TrainDeparture createDeparture(int i, int minuteOfDay) {
+    return new TrainDeparture(
+        minuteOfDay / 60, minuteOfDay % 60, "F" + (i % 20), "By " + (i % 400), 1 + i % 20, i + 1
+    );
+  }
+
+  private static List<TrainDeparture> createTimetable() {
+    List<TrainDeparture> timetable = new ArrayList<>(DEPARTURES);
+    for (int i = 0; i < DEPARTURES; i++) {
+      timetable.add(createDeparture(i, i % 1440));
+    }
+    return timetable;
+  }
+
+  private static long gcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(collector.getCollectionCount(), 0);
+    }
+    return count;
+  }
+
+  private static long gcMillis() {
+    long millis = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(collector.getCollectionTime(), 0);
+    }
+    return millis;
+  }
+
+  /**
+   * The operations of the load, done against one kind of station.
+   */
+  private interface Load {
+    void fill();
+
+    void replace(TrainDeparture trainDeparture);
+
+    void delay(int trainNumber, int minutes);
+
+    int render();
+  }
+
+  private static final class StationLoad implements Load {
+    private final Station station = new Station();
+
+    @Override
+    public void fill() {
+      station.addTrainDepartures(createTimetable());
+    }
+
+    @Override
+    public void replace(TrainDeparture trainDeparture) {
+      station.addTrainDeparture(trainDeparture);
+    }
+
+    @Override
+    public void delay(int trainNumber, int minutes) {
+      TrainDeparture trainDeparture = station.getTrainDepartureByTrainNumber(trainNumber);
+      if (trainDeparture != null) {
+        trainDeparture.setDelay(0, minutes);
+      }
+    }
+
+    @Override
+    public int render() {
+      return station.getNextTrainDepartures(BOARD_SIZE).size();
+    }
+  }
+
+  private static final class OffHeapLoad implements Load {
+    private final OffHeapStation station = new OffHeapStation(DEPARTURES);
+
+    @Override
+    public void fill() {
+      station.addTrainDepartures(createTimetable());
+    }
+
+    @Override
+    public void replace(TrainDeparture trainDeparture) {
+      station.addTrainDeparture(trainDeparture);
+    }
+
+    @Override
+    public void delay(int trainNumber, int minutes) {
+      station.setDelay(trainNumber, 0, minutes);
+    }
+
+    @Override
+    public int render() {
+      return station.getNextTrainDepartures(BOARD_SIZE).size();
+    }
+  }
+}
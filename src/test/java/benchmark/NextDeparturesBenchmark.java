@@ -0,0 +1,74 @@
+package benchmark;
+
+import core.Station;
+import core.TrainDeparture;
+import java.util.List;
+
+/**
+ * Compares {@code Station.getNextTrainDepartures} against reading the board through
+ * {@code Station.getStreamOfTimeFilteredTrainDepartures}, which is what the departure board
+ * does today. Both the full stream, as printed by the board, and the stream cut to the same
+ * number of departures are measured.
+ * <br>
+ * Not run as part of the tests. Run the main method directly.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class NextDeparturesBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int COUNT = 20;
+  private static final int ROUNDS = 50;
+
+  /**
+   * Runs the comparison for every size and prints one line per size.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    System.out.printf("%10s %16s %16s %16s%n",
+        "departures", "full stream us", "stream+limit us", "next " + COUNT + " us");
+
+    for (int size : SIZES) {
+      Station station = new Station();
+      for (int i = 0; i < size; i++) {
+        TrainDeparture trainDeparture = new TrainDeparture(
+            (i * 7 / 60) % 24, (i * 7) % 60, "F1", "Hamar", 1, i + 1
+        );
+        trainDeparture.setDelay(0, i % 15);
+        station.addTrainDeparture(trainDeparture);
+      }
+      station.setStationTime(12, 0);
+
+      double fullMicros = time(() -> station.getStreamOfTimeFilteredTrainDepartures().toList());
+      double limitMicros = time(() ->
+          station.getStreamOfTimeFilteredTrainDepartures().limit(COUNT).toList());
+      double nextMicros = time(() -> station.getNextTrainDepartures(COUNT));
+
+      System.out.printf("%10d %16.1f %16.1f %16.1f%n", size, fullMicros, limitMicros, nextMicros);
+    }
+  }
+
+  private static double time(Query query) {
+    int checksum = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      checksum += query.run().size();  // Warming up
+    }
+    long start = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      checksum += query.run().size();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    if (checksum == 0) {
+      throw new IllegalStateException("No departures found");
+    }
+    return elapsed / 1_000.0 / ROUNDS;
+  }
+
+  @FunctionalInterface
+  private interface Query {
+    List<TrainDeparture> run();
+  }
+}
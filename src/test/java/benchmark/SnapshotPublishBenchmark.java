@@ -0,0 +1,76 @@
+package benchmark;
+
+import core.Station;
+import core.TrainDeparture;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the cost of publishing a {@code StationSnapshot} after one change, for boards of
+ * 10k, 100k and 1M departures. A delay set through {@code Station.setDelay} publishes by moving
+ * only the delayed departure on the board, while adding a departure makes the station build the
+ * whole board again on the next {@code Station.publishSnapshot}, which is what every delay and
+ * track change used to cost.
+ * <br>
+ * Not run as part of the tests. Run the main method with enough heap, for example
+ * {@code -Xms4g -Xmx4g}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SnapshotPublishBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int DELAYS = 20_000;
+  private static final int REBUILDS = 20;
+  private static final int ROUNDS = 5;
+
+  /**
+   * Publishes after single delays and after full rebuilds, and prints the best time per publish
+   * of every round.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    System.out.printf("%10s %22s %22s%n", "departures", "setDelay publish us",
+        "full rebuild publish us");
+
+    for (int size : SIZES) {
+      List<TrainDeparture> timetable = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        timetable.add(new TrainDeparture(
+            (i / 60) % 20, i % 60, "F" + (i % 20), "By " + (i % 400), 1 + i % 20, i + 1
+        ));
+      }
+      Station station = new Station();
+      station.addTrainDepartures(timetable);
+      station.publishSnapshot();
+
+      double delayMicros = Double.MAX_VALUE;
+      double rebuildMicros = Double.MAX_VALUE;
+      for (int round = 0; round < ROUNDS; round++) {
+        // The first rounds also warm up
+        long start = System.nanoTime();
+        for (int i = 0; i < DELAYS; i++) {
+          station.setDelay(1 + (int) ((i * 7919L) % size), 0, (round + i) % 30);
+        }
+        delayMicros = Math.min(delayMicros, (System.nanoTime() - start) / 1_000.0 / DELAYS);
+
+        start = System.nanoTime();
+        for (int i = 0; i < REBUILDS; i++) {
+          station.addTrainDeparture(timetable.get(i));
+          station.publishSnapshot();
+        }
+        rebuildMicros = Math.min(rebuildMicros, (System.nanoTime() - start) / 1_000.0 / REBUILDS);
+      }
+      check(station, size);
+      System.out.printf("%10d %22.2f %22.2f%n", size, delayMicros, rebuildMicros);
+    }
+  }
+
+  private static void check(Station station, int size) {
+    if (station.getSnapshot().getTrainDepartures().size() != size) {
+      throw new IllegalStateException("Board does not hold every departure");
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import core.Station;
+import core.TrainDeparture;
+import io.StationSnapshotFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how long it takes to restore a {@code Station} with 1M departures from a
+ * {@code StationSnapshotFile}, as done when the application starts.
+ * <br>
+ * Not run as part of the tests. Run the main method with {@code save} first, and then with
+ * {@code load} in a new JVM, so the load is measured as on a real start, before the code has
+ * been compiled by the JIT. Without an argument, both are done in the same JVM.
+ * The file is written to the temporary directory.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SnapshotStartup {
+  private static final int DEPARTURES = 1_000_000;
+
+  /**
+   * Saves a large station, loads it, or both, and prints the time taken.
+   *
+   * @param args {@code save}, {@code load}, or nothing for both.
+   * @throws IOException If the snapshot file could not be written or read.
+   */
+  public static void main(String[] args) throws IOException {
+    String mode = args.length > 0 ? args[0] : "both";
+    StationSnapshotFile file = new StationSnapshotFile(
+        Path.of(System.getProperty("java.io.tmpdir"), "startup-benchmark.snapshot"));
+
+    if (!mode.equals("load")) {
+      Station station = new Station();
+      List<TrainDeparture> timetable = new ArrayList<>(DEPARTURES);
+      for (int i = 0; i < DEPARTURES; i++) {
+        TrainDeparture trainDeparture = new TrainDeparture(
+            (i / 60) % 24, i % 60, "F" + (i % 20), "By " + (i % 400), 1 + i % 20, i + 1
+        );
+        trainDeparture.setDelay(0, i % 7 == 0 ? i % 30 : 0);
+        timetable.add(trainDeparture);
+      }
+      station.addTrainDepartures(timetable);
+
+      long start = System.nanoTime();
+      file.save(station);
+      System.out.printf("saved %d bytes in %.1f ms%n",
+          Files.size(file.getPath()), (System.nanoTime() - start) / 1e6);
+    }
+
+    if (!mode.equals("save")) {
+      long start = System.nanoTime();
+      Station station = file.load();
+      System.out.printf("loaded %d departures in %.1f ms%n",
+          station.getTrainDeparturesFrom(0, 0).count(), (System.nanoTime() - start) / 1e6);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package benchmark;
+
+import core.TrainDeparture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares sorting {@code TrainDeparture}s with the comparison used before sort keys, which
+ * checked {@code equals} before comparing the times, against {@code TrainDeparture.compareTo},
+ * which compares the sort keys, and against sorting the sort keys alone as primitive
+ * {@code long}s.
+ * <br>
+ * Not run as part of the tests. Run the main method directly.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class SortKeyBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int ROUNDS = 10;
+
+  /**
+   * The comparison of {@code TrainDeparture.compareTo} before sort keys were added.
+   */
+  private static final Comparator<TrainDeparture> EQUALS_FIRST = (a, b) -> {
+    int state;
+    if (a.equals(b)) {
+      state = 0;
+    } else {
+      state = Integer.compare(a.getEffectiveMinuteOfDay(), b.getEffectiveMinuteOfDay());
+      if (state == 0) {
+        state = Integer.compare(a.getDepartureMinuteOfDay(), b.getDepartureMinuteOfDay());
+      }
+    }
+    return state;
+  };
+
+  /**
+   * Runs the comparison for every size and prints one line per size.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    System.out.printf("%10s %16s %16s %16s%n",
+        "departures", "equals first ms", "compareTo ms", "long[] ms");
+
+    for (int size : SIZES) {
+      List<TrainDeparture> departures = createDepartures(size);
+
+      double equalsFirstMillis = time(() -> sortedCopy(departures, EQUALS_FIRST));
+      double compareToMillis = time(() -> sortedCopy(departures, Comparator.naturalOrder()));
+      double sortKeyMillis = time(() -> {
+        long[] keys = new long[departures.size()];
+        for (int i = 0; i < keys.length; i++) {
+          keys[i] = departures.get(i).getSortKey();
+        }
+        Arrays.sort(keys);
+        return (int) keys[0];
+      });
+
+      System.out.printf("%10d %16.2f %16.2f %16.2f%n",
+          size, equalsFirstMillis, compareToMillis, sortKeyMillis);
+    }
+  }
+
+  private static List<TrainDeparture> createDepartures(int size) {
+    Random random = new Random(42);
+    List<TrainDeparture> departures = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int minute = random.nextInt(1440);
+      TrainDeparture trainDeparture = new TrainDeparture(
+          minute / 60, minute % 60, "F" + (i % 20), "By " + (i % 400), 1 + i % 20, i + 1
+      );
+      trainDeparture.setDelay(0, random.nextInt(4) == 0 ? random.nextInt(30) : 0);
+      departures.add(trainDeparture);
+    }
+    return departures;
+  }
+
+  private static int sortedCopy(List<TrainDeparture> departures,
+      Comparator<TrainDeparture> comparator) {
+    List<TrainDeparture> copy = new ArrayList<>(departures);
+    copy.sort(comparator);
+    return copy.get(0).getTrainNumber();
+  }
+
+  private static double time(Sort sort) {
+    long checksum = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      checksum += sort.run();  // Warming up
+    }
+    long start = System.nanoTime();
+    for (int round = 0; round < ROUNDS; round++) {
+      checksum += sort.run();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    if (checksum == 0) {
+      throw new IllegalStateException("Sorting was optimised away");
+    }
+    return elapsed / 1_000_000.0 / ROUNDS;
+  }
+
+  @FunctionalInterface
+  private interface Sort {
+    int run();
+  }
+}
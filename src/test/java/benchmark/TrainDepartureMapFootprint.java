@@ -0,0 +1,101 @@
+package benchmark;
+
+import core.TrainDeparture;
+import core.TrainDepartureMap;
+import java.util.HashMap;
+
+/**
+ * Compares the heap footprint and lookup time of {@code TrainDepartureMap} against
+ * {@code HashMap<Integer, TrainDeparture>} at 10k, 100k and 1M departures.
+ * Only the memory used by the map itself is measured, the {@code TrainDeparture}s are created
+ * up front and shared by both maps.
+ * <br>
+ * Not run as part of the tests. Run the main method with a fixed heap for stable numbers,
+ * for example {@code -Xms2g -Xmx2g}.
+ *
+ * @author Jonas Birkeli
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class TrainDepartureMapFootprint {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int LOOKUP_ROUNDS = 5;
+
+  /**
+   * Runs the comparison for every size and prints one line per size.
+   *
+   * @param args Not used.
+   */
+  public static void main(String[] args) {
+    System.out.printf("%10s %16s %16s %14s %14s%n",
+        "departures", "HashMap bytes", "TDMap bytes", "HashMap ns/op", "TDMap ns/op");
+
+    for (int size : SIZES) {
+      TrainDeparture[] departures = createDepartures(size);
+
+      long before = usedHeap();
+      HashMap<Integer, TrainDeparture> hashMap = new HashMap<>();
+      for (TrainDeparture departure : departures) {
+        hashMap.put(departure.getTrainNumber(), departure);
+      }
+      long hashMapBytes = usedHeap() - before;
+
+      before = usedHeap();
+      TrainDepartureMap trainDepartureMap = new TrainDepartureMap();
+      for (TrainDeparture departure : departures) {
+        trainDepartureMap.put(departure.getTrainNumber(), departure);
+      }
+      long trainDepartureMapBytes = usedHeap() - before;
+
+      double hashMapNanos = timeLookups(size, hashMap::get);
+      double trainDepartureMapNanos = timeLookups(size, trainDepartureMap::get);
+
+      System.out.printf("%10d %16d %16d %14.1f %14.1f%n", size,
+          hashMapBytes, trainDepartureMapBytes, hashMapNanos, trainDepartureMapNanos);
+
+      // Keeping both maps reachable until both have been measured
+      if (hashMap.size() != trainDepartureMap.size()) {
+        throw new IllegalStateException("Maps differ in size");
+      }
+    }
+  }
+
+  private static TrainDeparture[] createDepartures(int size) {
+    TrainDeparture[] departures = new TrainDeparture[size];
+    for (int i = 0; i < size; i++) {
+      departures[i] = new TrainDeparture(
+          (i / 60) % 24, i % 60, "F" + (i % 20), "Destination " + (i % 50), 1 + i % 20, i + 1
+      );
+    }
+    return departures;
+  }
+
+  private static double timeLookups(int size, Lookup lookup) {
+    long checksum = 0;
+    long start = System.nanoTime();
+    for (int round = 0; round < LOOKUP_ROUNDS; round++) {
+      for (int trainNumber = 1; trainNumber <= size; trainNumber++) {
+        checksum += lookup.get(trainNumber).getTrack();
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+
+    if (checksum == 0) {
+      throw new IllegalStateException("Lookups were optimised away");
+    }
+    return (double) elapsed / ((long) size * LOOKUP_ROUNDS);
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  @FunctionalInterface
+  private interface Lookup {
+    TrainDeparture get(int trainNumber);
+  }
+}
@@ -0,0 +1,144 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.MinuteOfDay;
+
+class ColumnarDepartureStoreTest {
+  ColumnarDepartureStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new ColumnarDepartureStore();
+    store.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo S", 4, 50));
+    store.addTrainDeparture(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55));
+    store.addTrainDeparture(new TrainDeparture(6, 0, "L3", "Oslo S", -1, 60));
+  }
+
+  @AfterEach
+  void tearDown() {
+    store = null;
+  }
+
+  @Test
+  void getTrainDepartureByTrainNumberPositiveTest() {
+    TrainDeparture trainDeparture = store.getTrainDepartureByTrainNumber(55);
+    assertEquals(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55), trainDeparture,
+        "Departure read from the columns should have the values it was added with");
+    assertEquals(3, store.size(), "Store should contain 3 departures");
+  }
+
+  @Test
+  void getTrainDepartureByTrainNumberNegativeTest() {
+    assertNull(store.getTrainDepartureByTrainNumber(51), "Train number 51 should not exist");
+    assertFalse(store.hasTrainDepartureWithTrainNumber(51), "Train number 51 should not exist");
+  }
+
+  @Test
+  void removeTrainDeparturePositiveTest() {
+    assertTrue(store.removeTrainDeparture(50), "Train number 50 should be removed");
+    assertEquals(2, store.size(), "Store should contain 2 departures");
+    // Train 60 was the last row, and is moved into the row of train 50
+    assertEquals(6 * 60, store.getTrainDepartureByTrainNumber(60).getDepartureMinuteOfDay(),
+        "Moved departure should still be found by train-number");
+  }
+
+  @Test
+  void removeTrainDepartureNegativeTest() {
+    assertFalse(store.removeTrainDeparture(51), "Missing train number should not be removed");
+    assertEquals(3, store.size(), "Size should not change");
+  }
+
+  @Test
+  void getStreamOfTimeFilteredTrainDeparturesTest() {
+    assertTrue(store.setDelay(50, 1, 0), "Train number 50 should be delayed");
+
+    assertEquals(List.of(60, 50, 55),
+        store.getStreamOfTimeFilteredTrainDepartures(MinuteOfDay.of(5, 30))
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Delayed train 50 should stay on the board, sorted by departure time with delay");
+    assertEquals(List.of(55),
+        store.getStreamOfTimeFilteredTrainDepartures(MinuteOfDay.of(6, 30))
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Only train 55 should be left at 06:30");
+  }
+
+  @Test
+  void getAllTrainDeparturesByPartialDestinationTest() {
+    assertEquals(List.of(50, 60),
+        store.getAllTrainDeparturesByPartialDestination("OSLO")
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Search should not be case sensitive, and be sorted by departure time");
+    assertEquals(0, store.getAllTrainDeparturesByPartialDestination("Hamar").count(),
+        "No departure should go to Hamar");
+  }
+
+  @Test
+  void getNextTrainDeparturesTest() {
+    store.setDelay(50, 1, 30);
+
+    assertEquals(List.of(60, 50),
+        store.getNextTrainDepartures(MinuteOfDay.of(5, 0), 2).stream()
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Train 50 delayed until 06:34 should leave after train 60");
+    assertTrue(store.getNextTrainDepartures(MinuteOfDay.of(5, 0), 0).isEmpty(),
+        "Asking for 0 departures should return none");
+  }
+
+  @Test
+  void setTrackTest() {
+    assertTrue(store.setTrack(60, 3), "Train number 60 should get a track");
+    assertEquals(3, store.getTrainDepartureByTrainNumber(60).getTrack(), "Track should be 3");
+    assertFalse(store.setTrack(51, 3), "Missing train number should not get a track");
+  }
+
+  @Test
+  void boardOrderPositiveTest() {
+    Station station = new Station();
+    ColumnarDepartureStore delayedStore = new ColumnarDepartureStore();
+    TrainDeparture delayed = new TrainDeparture(10, 0, "L1", "Oslo S", 1, 1);
+    delayed.setDelay(0, 30);
+    List<TrainDeparture> trainDepartures = List.of(delayed,
+        new TrainDeparture(10, 10, "L2", "Oslo S", 2, 2),
+        new TrainDeparture(10, 30, "L3", "Oslo S", 3, 3),
+        new TrainDeparture(10, 30, "L4", "Oslo S", 4, 4));
+    for (TrainDeparture trainDeparture : trainDepartures) {
+      station.addTrainDeparture(trainDeparture);
+      delayedStore.addTrainDeparture(trainDeparture);
+    }
+
+    assertEquals(List.of(2, 1, 3, 4),
+        delayedStore.getStreamOfTimeFilteredTrainDepartures(0)
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Departures should be sorted by time with delay, then by scheduled time");
+    assertEquals(station.getStreamOfTimeFilteredTrainDepartures()
+            .map(TrainDeparture::getTrainNumber).toList(),
+        delayedStore.getStreamOfTimeFilteredTrainDepartures(0)
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "The board should be in the same order as the board of the station");
+    assertEquals(station.getAllTrainDeparturesByPartialDestination("oslo")
+            .map(TrainDeparture::getTrainNumber).toList(),
+        delayedStore.getAllTrainDeparturesByPartialDestination("oslo")
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Search results should be in the same order as those of the station");
+    assertEquals(station.getNextTrainDepartures(4).stream()
+            .map(TrainDeparture::getTrainNumber).toList(),
+        delayedStore.getNextTrainDepartures(0, 4).stream()
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Next departures should be in the same order as those of the station");
+  }
+
+  @Test
+  void boardOrderNegativeTest() {
+    Stream<TrainDeparture> board = store.getStreamOfTimeFilteredTrainDepartures(0);
+    store.removeTrainDeparture(50);
+
+    assertEquals(List.of(50, 60, 55), board.map(TrainDeparture::getTrainNumber).toList(),
+        "A stream should not see changes made after it was returned");
+  }
+}
@@ -0,0 +1,157 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.MinuteOfDay;
+
+class ConcurrentStationTest {
+  ConcurrentStation station;
+
+  @BeforeEach
+  void setUp() {
+    station = new ConcurrentStation();
+    station.setStationTime(4, 20);
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+  }
+
+  @AfterEach
+  void tearDown() {
+    station = null;
+  }
+
+  @Test
+  void addAndRemoveTrainDepartureTest() {
+    station.addTrainDeparture(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55));
+    assertTrue(station.hasTrainDepartureWithTrainNumber(55), "Train number 55 should exist");
+    assertEquals(2, station.getStreamOfTimeFilteredTrainDepartures().count(),
+        "Board should contain 2 departures");
+
+    assertTrue(station.removeTrainDeparture(55), "Train number 55 should be removed");
+    assertFalse(station.removeTrainDeparture(55), "Train number 55 should not be removed twice");
+    assertEquals(0, station.getAllTrainDeparturesByPartialDestination("gjø").count(),
+        "Removed departure should not be found by destination");
+  }
+
+  @Test
+  void setStationTimeRemovesDepartedTest() {
+    station.addTrainDeparture(new TrainDeparture(5, 0, "L5", "Gjøvik", 14, 55));
+    assertTrue(station.setDelay(55, 1, 0), "Train number 55 should be delayed");
+
+    assertTrue(station.setStationTime(5, 30), "05:30 should be later than 04:20");
+    assertFalse(station.hasTrainDepartureWithTrainNumber(50),
+        "Train 50 leaving 05:04 should be removed at 05:30");
+    assertTrue(station.hasTrainDepartureWithTrainNumber(55),
+        "Train 55 delayed until 06:00 should not be removed at 05:30");
+    assertFalse(station.setStationTime(5, 0), "05:00 should not be later than 05:30");
+  }
+
+  @Test
+  void addedDepartureIsDetachedTest() {
+    TrainDeparture added = new TrainDeparture(5, 0, "L5", "Gjøvik", 14, 55);
+    station.addTrainDeparture(added);
+
+    // Changing the departure that was added, not through the station
+    added.setDelay(1, 0);
+    added.setTrack(3);
+    assertEquals(0, station.getTrainDepartureByTrainNumber(55).getDelayMinutes(),
+        "A delay set on the added departure should not change the station");
+    assertEquals(14, station.getTrainDepartureByTrainNumber(55).getTrack(),
+        "A track set on the added departure should not change the station");
+    assertNull(added.getOwner(), "The added departure should not be owned by the station");
+
+    assertTrue(station.setStationTime(5, 30), "05:30 should be later than 04:20");
+    assertFalse(station.hasTrainDepartureWithTrainNumber(55),
+        "Train 55 leaving 05:00 in the station should be removed at 05:30");
+  }
+
+  @Test
+  void readersGetSnapshotsTest() {
+    TrainDepartureSnapshot before = station.getTrainDepartureByTrainNumber(50);
+    assertTrue(station.setDelay(50, 0, 10), "Train number 50 should be delayed");
+    assertTrue(station.setTrack(50, 7), "Train number 50 should get a new track");
+
+    assertEquals(0, before.getDelayMinutes(), "A snapshot should not change with the departure");
+    assertEquals(4, before.getTrack(), "A snapshot should not change with the departure");
+    TrainDepartureSnapshot after = station.getTrainDepartureByTrainNumber(50);
+    assertEquals(10, after.getDelayMinutes(), "The latest snapshot should have the new delay");
+    assertEquals(7, after.getTrack(), "The latest snapshot should have the new track");
+    assertSame(after, station.getStreamOfTimeFilteredTrainDepartures().findFirst().orElseThrow(),
+        "The board should hold the latest snapshot");
+    assertNull(station.getTrainDepartureByTrainNumber(51), "Train number 51 should not exist");
+  }
+
+  @Test
+  void readersAndWritersStressTest() throws InterruptedException {
+    // Sizes can be raised from the command line, for example -Dstress.readers=16
+    int readers = Integer.getInteger("stress.readers", 4);
+    int writers = Integer.getInteger("stress.writers", 2);
+    long durationMillis = Long.getLong("stress.millis", 500);
+
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    LongAdder boardReads = new LongAdder();
+    LongAdder writes = new LongAdder();
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < readers; i++) {
+      threads.add(new Thread(() -> {
+        while (running.get()) {
+          // Every board read must be sorted, even while writers change the station
+          long[] previous = {Long.MIN_VALUE};
+          station.getStreamOfTimeFilteredTrainDepartures().forEach(d -> {
+            long key = d.getSortKey();
+            if (key <= previous[0]) {
+              failure.compareAndSet(null, new AssertionError("Board is not sorted"));
+            }
+            // Every value of a snapshot must belong to the same version of the departure
+            if (d.getEffectiveMinuteOfDay() != MinuteOfDay.plus(
+                d.getDepartureMinuteOfDay(), d.getDelayMinutes())
+                || d.getSortKey() != TrainDeparture.sortKeyOf(d.getEffectiveMinuteOfDay(),
+                    d.getDepartureMinuteOfDay(), d.getTrainNumber())) {
+              failure.compareAndSet(null, new AssertionError("Snapshot is torn"));
+            }
+            previous[0] = key;
+          });
+          boardReads.increment();
+        }
+      }));
+    }
+    for (int i = 0; i < writers; i++) {
+      threads.add(new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running.get()) {
+          int trainNumber = 1 + random.nextInt(5_000);
+          switch (random.nextInt(3)) {
+            case 0 -> station.addTrainDeparture(new TrainDeparture(
+                random.nextInt(24), random.nextInt(60), "F1", "Hamar", 1, trainNumber));
+            case 1 -> station.removeTrainDeparture(trainNumber);
+            default -> station.setDelay(trainNumber, 0, random.nextInt(60));
+          }
+          writes.increment();
+        }
+      }));
+    }
+
+    threads.forEach(thread -> thread.setUncaughtExceptionHandler(
+        (t, e) -> failure.compareAndSet(null, e)));
+    threads.forEach(Thread::start);
+    Thread.sleep(durationMillis);
+    running.set(false);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertNull(failure.get(), "No reader or writer should fail");
+    assertTrue(boardReads.sum() > 0, "Readers should not be blocked by writers");
+    assertTrue(writes.sum() > 0, "Writers should not be blocked by readers");
+  }
+}
@@ -0,0 +1,82 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DepartureCalendarTest {
+  DepartureCalendar calendar;
+
+  @BeforeEach
+  void setUp() {
+    calendar = new DepartureCalendar();
+    calendar.add(1020, 55);  // 17:00
+    calendar.add(1020, 50);
+    calendar.add(0, 1);  // 00:00
+    calendar.add(1439, 2);  // 23:59
+  }
+
+  @AfterEach
+  void tearDown() {
+    calendar = null;
+  }
+
+  @Test
+  void drainBeforePositiveTest() {
+    assertEquals(4, calendar.size(), "Calendar should contain 4 entries");
+    assertEquals(List.of(1, 50, 55, 2), drainAll(),
+        "Entries should be ordered by minute, then by train number");
+    assertEquals(0, calendar.size(), "Calendar should be empty after draining every entry");
+  }
+
+  @Test
+  void drainBeforeNegativeTest() {
+    List<Integer> trainNumbers = new ArrayList<>();
+    calendar.drainBefore(0, (minute, trainNumber) -> trainNumbers.add(trainNumber));
+    assertTrue(trainNumbers.isEmpty(), "No entries should be before 00:00");
+    assertEquals(4, calendar.size(), "Calendar should still contain 4 entries");
+  }
+
+  @Test
+  void addAndRemoveTest() {
+    calendar.add(1020, 50);
+    assertEquals(4, calendar.size(), "Adding the same entry twice should not change the size");
+    assertTrue(calendar.remove(1020, 50), "Entry 50 at 17:00 should be removed");
+    assertFalse(calendar.remove(1020, 50), "Entry 50 at 17:00 should not be removed twice");
+    assertFalse(calendar.remove(1021, 55), "Entry 55 is not at 17:01");
+    assertEquals(3, calendar.size(), "Calendar should contain 3 entries");
+  }
+
+  @Test
+  void drainBeforeTest() {
+    List<Integer> drained = new ArrayList<>();
+    calendar.drainBefore(1021, (minute, trainNumber) -> {
+      drained.add(trainNumber);
+      if (trainNumber == 55) {
+        // Entries may be moved to a later bucket while draining
+        calendar.add(1100, trainNumber);
+      }
+    });
+
+    assertEquals(List.of(1, 50, 55), drained, "Entries before 17:01 should be drained in order");
+    assertEquals(List.of(55, 2), drainAll(), "Moved entry and entry at 23:59 should be left");
+  }
+
+  @Test
+  void addAllTest() {
+    calendar.addAll(new int[] {1020, 1020, 1020, 5}, new int[] {52, 50, 49, 7}, 4);
+    assertEquals(7, calendar.size(), "Only the 3 new entries should be added");
+    assertEquals(List.of(1, 7, 49, 50, 52, 55, 2), drainAll(),
+        "Buckets should stay sorted by train-number after adding many at once");
+  }
+
+  private List<Integer> drainAll() {
+    List<Integer> trainNumbers = new ArrayList<>();
+    calendar.drainBefore(1440, (minute, trainNumber) -> trainNumbers.add(trainNumber));
+    return trainNumbers;
+  }
+}
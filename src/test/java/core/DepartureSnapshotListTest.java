@@ -0,0 +1,65 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DepartureSnapshotListTest {
+  TreeMap<Long, TrainDepartureSnapshot> expected;
+  DepartureSnapshotList list;
+
+  @BeforeEach
+  void setUp() {
+    expected = new TreeMap<>();
+    for (int i = 1; i <= 2000; i++) {
+      TrainDepartureSnapshot snapshot =
+          new TrainDeparture(i % 24, i % 60, "L1", "Oslo", 1, i).getSnapshot();
+      expected.put(snapshot.getSortKey(), snapshot);
+    }
+    list = DepartureSnapshotList.of(new ArrayList<>(expected.values()));
+  }
+
+  @Test
+  void withAndWithoutPositiveTest() {
+    DepartureSnapshotList original = list;
+    List<TrainDepartureSnapshot> before = List.copyOf(original);
+    Random random = new Random(42);
+
+    for (int i = 0; i < 5000; i++) {
+      TrainDeparture trainDeparture = new TrainDeparture(random.nextInt(24), random.nextInt(60),
+          "L1", "Oslo", random.nextInt(9) + 1, random.nextInt(4000) + 1);
+      TrainDepartureSnapshot snapshot = trainDeparture.getSnapshot();
+      if (random.nextBoolean()) {
+        expected.put(snapshot.getSortKey(), snapshot);
+        list = list.with(snapshot);
+      } else {
+        expected.remove(snapshot.getSortKey());
+        list = list.without(snapshot.getSortKey());
+      }
+    }
+
+    assertEquals(List.copyOf(expected.values()), list,
+        "The list should hold the same snapshots as a sorted map after the same changes");
+    assertEquals(before, original, "Changes should not be seen in the list they were made from");
+  }
+
+  @Test
+  void withAndWithoutNegativeTest() {
+    assertSame(list, list.without(1L), "Removing a missing sort key should keep the same list");
+    assertThrows(IndexOutOfBoundsException.class, () -> list.get(2000),
+        "Index past the end should not be found");
+    assertThrows(UnsupportedOperationException.class, () -> list.remove(0),
+        "List should not be changeable in place");
+
+    DepartureSnapshotList empty = DepartureSnapshotList.of(List.of());
+    TrainDepartureSnapshot snapshot = expected.firstEntry().getValue();
+    assertTrue(empty.without(snapshot.getSortKey()).isEmpty(), "Empty list should stay empty");
+    assertTrue(empty.with(snapshot).without(snapshot.getSortKey()).isEmpty(),
+        "Removing the only snapshot should give an empty list");
+  }
+}
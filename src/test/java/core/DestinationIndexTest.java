@@ -0,0 +1,78 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DestinationIndexTest {
+  DestinationIndex destinationIndex;
+  TrainDeparture oslo;
+  TrainDeparture gjovik;
+
+  @BeforeEach
+  void setUp() {
+    destinationIndex = new DestinationIndex();
+    oslo = new TrainDeparture(5, 4, "L3", "Oslo S", 4, 50);
+    gjovik = new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55);
+    destinationIndex.add(oslo);
+    destinationIndex.add(gjovik);
+  }
+
+  @AfterEach
+  void tearDown() {
+    destinationIndex = null;
+  }
+
+  @Test
+  void searchPositiveTest() {
+    assertEquals(List.of(gjovik), destinationIndex.search("JØVI"),
+        "Search should not be case sensitive");
+    assertEquals(List.of(oslo), destinationIndex.search("o s"),
+        "Search should match across spaces");
+    assertEquals(List.of(oslo), destinationIndex.search("Os"),
+        "Search shorter than a trigram should still match");
+    assertEquals(2, destinationIndex.search("").size(),
+        "Empty search should match every departure");
+  }
+
+  @Test
+  void searchNegativeTest() {
+    assertTrue(destinationIndex.search("Hamar").isEmpty(), "Hamar should not match");
+    // Has the trigrams "osl" and "slo", but not in this order
+    assertTrue(destinationIndex.search("oslosl").isEmpty(), "Trigrams out of order should not match");
+  }
+
+  @Test
+  void removePositiveTest() {
+    destinationIndex.remove(gjovik);
+    assertTrue(destinationIndex.search("gjøvik").isEmpty(),
+        "Removed departure should not be found");
+
+    destinationIndex.add(gjovik);
+    assertEquals(List.of(gjovik), destinationIndex.search("gjøvik"),
+        "Departure added again should be found");
+  }
+
+  @Test
+  void removeNegativeTest() {
+    // Another departure with the same train-number must not remove the indexed one
+    destinationIndex.remove(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55));
+    assertEquals(List.of(gjovik), destinationIndex.search("gjøvik"),
+        "Indexed departure should still be found");
+  }
+
+  @Test
+  void addAllTest() {
+    TrainDeparture osloLate = new TrainDeparture(22, 0, "L3", "OSLO S", 4, 60);
+    TrainDeparture hamar = new TrainDeparture(7, 0, "R10", "Hamar", 2, 61);
+    destinationIndex.addAll(new TrainDeparture[] {osloLate, hamar, null}, 2);
+
+    assertEquals(2, destinationIndex.search("oslo").size(),
+        "Both departures to Oslo S should be found, whatever the case");
+    assertEquals(List.of(hamar), destinationIndex.search("ama"),
+        "Departure to a new destination should be found");
+  }
+}
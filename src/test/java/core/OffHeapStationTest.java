@@ -0,0 +1,115 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class OffHeapStationTest {
+  OffHeapStation station;
+
+  @BeforeEach
+  void setUp() {
+    station = new OffHeapStation();
+    station.setStationTime(4, 20);
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+  }
+
+  @AfterEach
+  void tearDown() {
+    station = null;
+  }
+
+  @Test
+  void addTrainDeparturePositiveTest() {
+    station.addTrainDeparture(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55));
+
+    assertEquals(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55),
+        station.getTrainDepartureByTrainNumber(55),
+        "Departure read from the buffer should have the values it was added with");
+    assertEquals(List.of(50, 55),
+        station.getStreamOfTimeFilteredTrainDepartures().map(TrainDeparture::getTrainNumber)
+            .toList(),
+        "Board should be sorted by departure time");
+  }
+
+  @Test
+  void addTrainDepartureNegativeTest() {
+    station.addTrainDeparture(null);
+    assertEquals(1, station.size(), "Null should not be added");
+    assertNull(station.getTrainDepartureByTrainNumber(51), "Train number 51 should not exist");
+  }
+
+  @Test
+  void addTrainDeparturesGrowsBufferTest() {
+    OffHeapStation small = new OffHeapStation(16);
+    List<TrainDeparture> timetable = new ArrayList<>();
+    for (int trainNumber = 1; trainNumber <= 100; trainNumber++) {
+      timetable.add(new TrainDeparture(trainNumber % 24, 0, "R10", "Drammen", 2, trainNumber));
+    }
+    small.addTrainDepartures(timetable);
+
+    assertEquals(100, small.size(), "Every departure should be added");
+    assertEquals(100, small.getTrainDepartureByTrainNumber(100).getTrainNumber(),
+        "Last departure should be found after the buffer has grown");
+  }
+
+  @Test
+  void setStationTimeRemovesDepartedTest() {
+    station.addTrainDeparture(new TrainDeparture(5, 0, "L5", "Gjøvik", 14, 55));
+    station.addTrainDeparture(new TrainDeparture(5, 45, "L5", "Gjøvik", 14, 56));
+    assertTrue(station.setDelay(55, 1, 0), "Train number 55 should be delayed");
+
+    assertTrue(station.setStationTime(5, 30), "05:30 should be later than 04:20");
+    assertFalse(station.hasTrainDepartureWithTrainNumber(50),
+        "Train 50 leaving 05:04 should be removed at 05:30");
+    assertEquals(List.of(56, 55),
+        station.getNextTrainDepartures(10).stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Train 55 delayed until 06:00 should leave after train 56");
+    assertFalse(station.setStationTime(5, 0), "05:00 should not be later than 05:30");
+  }
+
+  @Test
+  void removeTrainDepartureTest() {
+    station.addTrainDeparture(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55));
+    assertEquals(0, station.selectTrainDeparture(50), "Train number 50 should be selected");
+    station.removeTrainDeparture();
+
+    assertNull(station.getSelectedTrainDeparture(), "No departure should be selected");
+    assertFalse(station.hasTrainDepartureWithTrainNumber(50), "Train 50 should be removed");
+    assertEquals(18 * 60 + 15,
+        station.getTrainDepartureByTrainNumber(55).getDepartureMinuteOfDay(),
+        "Train 55 moved into the slot of train 50 should still be found");
+  }
+
+  @Test
+  void getAllTrainDeparturesByPartialDestinationTest() {
+    station.addTrainDeparture(new TrainDeparture(4, 30, "L3", "Oslo S", 4, 51));
+
+    assertEquals(List.of(51, 50),
+        station.getAllTrainDeparturesByPartialDestination("OSLO")
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Search should not be case sensitive, and be sorted by departure time");
+    assertEquals(0, station.getAllTrainDeparturesByPartialDestination("Hamar").count(),
+        "No departure should go to Hamar");
+  }
+
+  @Test
+  void getTrainDeparturePageTest() {
+    for (int trainNumber = 51; trainNumber <= 53; trainNumber++) {
+      station.addTrainDeparture(new TrainDeparture(6, 0, "R10", "Drammen", 2, trainNumber));
+    }
+
+    DeparturePage first = station.getTrainDeparturePage(2, null);
+    DeparturePage second = station.getTrainDeparturePage(2, first.getNextPageToken());
+    assertEquals(List.of(52, 53),
+        second.getTrainDepartures().stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Second page should continue after train 51");
+    assertFalse(second.hasNextPage(), "Second page should be the last");
+    assertThrows(IllegalArgumentException.class, () -> station.getTrainDeparturePage(0, null),
+        "Page size 0 should not be allowed");
+  }
+}
@@ -0,0 +1,57 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SortedDeparturesTest {
+  SortedDepartures departures;
+
+  @BeforeEach
+  void setUp() {
+    long[] keys = {10, 20, 30, 40, 0};
+    TrainDeparture[] trainDepartures = new TrainDeparture[keys.length];
+    for (int i = 0; i < 4; i++) {
+      trainDepartures[i] = new TrainDeparture(5, i, "L1", "Oslo", 1, i + 1);
+    }
+    // The last array slot is not in use
+    departures = new SortedDepartures(keys, trainDepartures, 4);
+  }
+
+  @Test
+  void sortedMapPositiveTest() {
+    assertEquals(4, departures.size(), "Only the entries in use should be in the map");
+    assertEquals(2, departures.get(20L).getTrainNumber(), "Key 20 should hold train 2");
+    assertEquals(List.of(20L, 30L), List.copyOf(departures.subMap(15L, 40L).keySet()),
+        "Sub map should hold the keys from 15 up to 40");
+    assertEquals(List.of(10L, 20L), List.copyOf(departures.headMap(30L).keySet()),
+        "Head map should hold the keys below 30");
+    SortedMap<Long, TrainDeparture> tail = departures.tailMap(30L);
+    assertEquals(30L, tail.firstKey(), "Tail map should start at 30");
+    assertEquals(40L, tail.lastKey(), "Tail map should end at 40");
+    assertEquals(List.of(30L), List.copyOf(tail.headMap(40L).keySet()),
+        "Views of views should stay within the outer view");
+
+    TreeMap<Long, TrainDeparture> tree = new TreeMap<>(departures);
+    assertEquals(departures, tree, "A tree built from the map should hold the same entries");
+  }
+
+  @Test
+  void sortedMapNegativeTest() {
+    assertNull(departures.get(25L), "Key 25 should not be in the map");
+    assertNull(departures.get(0L), "Key in an unused slot should not be in the map");
+    assertFalse(departures.containsKey("20"), "Keys of other types should not be found");
+    assertTrue(departures.subMap(21L, 29L).isEmpty(), "Sub map between keys should be empty");
+    assertThrows(NoSuchElementException.class, () -> departures.tailMap(50L).firstKey(),
+        "Empty map should not have a first key");
+    assertThrows(IllegalArgumentException.class, () -> departures.subMap(30L, 20L),
+        "Sub map should not end before it starts");
+    assertThrows(UnsupportedOperationException.class, () -> departures.put(50L, null),
+        "Map should be read-only");
+  }
+}
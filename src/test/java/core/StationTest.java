@@ -2,6 +2,10 @@ package core;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -124,4 +128,350 @@ class StationTest {
     assertNotEquals(1, station.getStationClock().getMinute(), "Minute should not be 1, should be 0");
     // Feedback messages produced by CoPilot
   }
-}
\ No newline at end of file
+
+  @Test
+  void getTrainDeparturesFromPositiveTest() {
+    station.addTrainDeparture(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55));
+    station.addTrainDeparture(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 54));
+    station.addTrainDeparture(new TrainDeparture(7, 30, "R10", "Drammen", 2, 60));
+
+    assertEquals(List.of(54, 55),
+        station.getTrainDeparturesFrom(18, 0).map(TrainDeparture::getTrainNumber).toList(),
+        "Departures from 18:00 should be 54 and 55, ordered by train number");
+    assertEquals(List.of(50, 60, 54, 55),
+        station.getTrainDeparturesFrom(0, 0).map(TrainDeparture::getTrainNumber).toList(),
+        "Departures from 00:00 should be every departure, ordered by departure time");
+  }
+
+  @Test
+  void getTrainDeparturesFromNegativeTest() {
+    station.addTrainDeparture(new TrainDeparture(18, 15, "L5", "Gjøvik", 14, 55));
+    // Replacing train 55 with a new departure time must not leave the old one in the index
+    station.addTrainDeparture(new TrainDeparture(6, 0, "L5", "Gjøvik", 14, 55));
+
+    assertEquals(0, station.getTrainDeparturesFrom(18, 0).count(),
+        "No departures should be left at or after 18:00");
+    assertEquals(2, station.getTrainDeparturesFrom(0, 0).count(),
+        "Replaced departure should only be counted once");
+  }
+
+  @Test
+  void setStationTimeRemovesDepartedTest() {
+    TrainDeparture delayed = new TrainDeparture(5, 0, "L5", "Gjøvik", 14, 55);
+    delayed.setDelay(1, 0);
+    station.addTrainDeparture(delayed);
+    station.addTrainDeparture(new TrainDeparture(5, 10, "R10", "Drammen", 2, 60));
+
+    station.setStationTime(5, 30);
+    assertFalse(station.hasTrainDepartureWithTrainNumber(50),
+        "Train 50 leaving 05:04 should be removed at 05:30");
+    assertFalse(station.hasTrainDepartureWithTrainNumber(60),
+        "Train 60 leaving 05:10 should be removed at 05:30");
+    assertTrue(station.hasTrainDepartureWithTrainNumber(55),
+        "Train 55 delayed until 06:00 should not be removed at 05:30");
+    assertEquals(0, station.getAllTrainDeparturesByPartialDestination("Drammen").count(),
+        "Removed departure should not be found by destination");
+  }
+
+  @Test
+  void setStationTimeKeepsDelayedAfterIndexingTest() {
+    // The delay is set after the departure is added to the station
+    station.getTrainDepartureByTrainNumber(50).setDelay(0, 30);
+
+    station.setStationTime(5, 20);
+    assertTrue(station.hasTrainDepartureWithTrainNumber(50),
+        "Train 50 delayed until 05:34 should not be removed at 05:20");
+    station.setStationTime(5, 35);
+    assertFalse(station.hasTrainDepartureWithTrainNumber(50),
+        "Train 50 delayed until 05:34 should be removed at 05:35");
+  }
+
+  @Test
+  void getTrainDeparturesBetweenPositiveTest() {
+    TrainDeparture delayed = new TrainDeparture(16, 50, "L5", "Gjøvik", 14, 55);
+    delayed.setDelay(0, 20);
+    station.addTrainDeparture(delayed);
+    station.addTrainDeparture(new TrainDeparture(17, 10, "R10", "Drammen", 2, 60));
+    station.addTrainDeparture(new TrainDeparture(17, 10, "R10", "Drammen", 2, 58));
+    station.addTrainDeparture(new TrainDeparture(18, 0, "R11", "Skien", 3, 70));
+
+    assertEquals(List.of(55, 58, 60),
+        station.getTrainDeparturesBetween(17, 0, 18, 0)
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Window 17:00-18:00 should hold the delayed train, ordered by train number at 17:10");
+  }
+
+  @Test
+  void getTrainDeparturesBetweenNegativeTest() {
+    assertEquals(0, station.getTrainDeparturesBetween(6, 0, 5, 0).count(),
+        "Window ending before it starts should be empty");
+    assertEquals(0, station.getTrainDeparturesBetween(5, 4, 5, 4).count(),
+        "Empty window should be empty");
+  }
+
+  @Test
+  void getNextTrainDeparturesPositiveTest() {
+    TrainDeparture delayed = new TrainDeparture(4, 0, "L5", "Gjøvik", 14, 55);
+    delayed.setDelay(1, 30);  // Leaves 05:30
+    station.addTrainDeparture(delayed);
+    station.addTrainDeparture(new TrainDeparture(5, 10, "R10", "Drammen", 2, 60));
+    station.addTrainDeparture(new TrainDeparture(6, 0, "R11", "Skien", 3, 70));
+
+    assertEquals(List.of(50, 60, 55),
+        station.getNextTrainDepartures(3).stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Next 3 departures should be ordered by departure time including delay");
+    assertEquals(List.of(55, 70),
+        station.getNextTrainDepartures(5, 11, 10).stream()
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Departures from 05:11 should be 55 and 70");
+  }
+
+  @Test
+  void getNextTrainDeparturesNegativeTest() {
+    assertTrue(station.getNextTrainDepartures(0).isEmpty(), "Zero departures should be empty");
+    assertTrue(station.getNextTrainDepartures(5, 5, 10).isEmpty(),
+        "No departures should leave after 05:05");
+  }
+
+  @Test
+  void getTrainDeparturePagePositiveTest() {
+    for (int trainNumber = 51; trainNumber <= 54; trainNumber++) {
+      station.addTrainDeparture(new TrainDeparture(6, 0, "R10", "Drammen", 2, trainNumber));
+    }
+
+    DeparturePage first = station.getTrainDeparturePage(2, null);
+    assertEquals(List.of(50, 51),
+        first.getTrainDepartures().stream().map(TrainDeparture::getTrainNumber).toList(),
+        "First page should hold 50 and 51");
+    assertTrue(first.hasNextPage(), "First page should have a next page");
+
+    // A departure added before the cursor must not shift the next page
+    station.addTrainDeparture(new TrainDeparture(5, 30, "R10", "Drammen", 2, 40));
+    DeparturePage second = station.getTrainDeparturePage(2, first.getNextPageToken());
+    assertEquals(List.of(52, 53),
+        second.getTrainDepartures().stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Second page should continue after train 51");
+
+    DeparturePage third = station.getTrainDeparturePage(2, second.getNextPageToken());
+    assertEquals(List.of(54),
+        third.getTrainDepartures().stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Last page should hold train 54");
+    assertFalse(third.hasNextPage(), "Last page should not have a next page");
+  }
+
+  @Test
+  void getTrainDeparturePageNegativeTest() {
+    assertFalse(station.getTrainDeparturePage(1, null).hasNextPage(),
+        "Page holding the only departure should not have a next page");
+    assertThrows(IllegalArgumentException.class, () -> station.getTrainDeparturePage(0, null),
+        "Page size 0 should not be allowed");
+    assertThrows(IllegalArgumentException.class,
+        () -> station.getTrainDeparturePage(2, "not a token"),
+        "Invalid token should not be allowed");
+  }
+
+  @Test
+  void setDelayOnDepartureMovesIndexPositiveTest() {
+    TrainDeparture delayed = new TrainDeparture(5, 0, "R10", "Drammen", 2, 51);
+    station.addTrainDeparture(delayed);
+
+    // Delaying directly on the departure, not through the station
+    delayed.setDelay(0, 30);
+    assertEquals(List.of(50, 51),
+        station.getNextTrainDepartures(10).stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Train 51 delayed until 05:30 should leave after train 50");
+    assertEquals(List.of(51),
+        station.getTrainDeparturesBetween(5, 30, 5, 31).map(TrainDeparture::getTrainNumber)
+            .toList(),
+        "Train 51 should be found at 05:30");
+
+    station.setStationTime(5, 10);
+    assertFalse(station.hasTrainDepartureWithTrainNumber(50),
+        "Train 50 leaving 05:04 should be removed at 05:10");
+    assertTrue(station.hasTrainDepartureWithTrainNumber(51),
+        "Train 51 delayed until 05:30 should not be removed at 05:10");
+  }
+
+  @Test
+  void boardOrderPositiveTest() {
+    station.addTrainDeparture(new TrainDeparture(5, 0, "R10", "Drammen", 2, 51));
+    station.addTrainDeparture(new TrainDeparture(5, 10, "R10", "Drammen", 2, 52));
+    // Train 51 now leaves 05:15, after train 52 but still before it in the timetable
+    station.setDelay(51, 0, 15);
+
+    List<Integer> order = List.of(50, 52, 51);
+    assertEquals(order,
+        station.getStreamOfTimeFilteredTrainDepartures().map(TrainDeparture::getTrainNumber)
+            .toList(),
+        "Board should be ordered by departure time including delay");
+    assertEquals(order,
+        station.getNextTrainDepartures(10).stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Next departures should be in the order of the board");
+    DeparturePage first = station.getTrainDeparturePage(2, null);
+    DeparturePage second = station.getTrainDeparturePage(2, first.getNextPageToken());
+    assertEquals(order, Stream.concat(
+            first.getTrainDepartures().stream(), second.getTrainDepartures().stream())
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Pages should be in the order of the board");
+    assertEquals(order,
+        station.getStreamOfTimeFilteredTrainDepartures().sorted()
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "Natural order should be the order of the board");
+    assertEquals(List.of(52, 51),
+        station.getTrainDeparturesFrom(5, 10).map(TrainDeparture::getTrainNumber).toList(),
+        "Train 51 should be found from 05:10 by its departure time including delay");
+  }
+
+  @Test
+  void boardOrderNegativeTest() {
+    station.addTrainDeparture(new TrainDeparture(5, 10, "R10", "Drammen", 2, 51));
+    station.setDelay(51, 0, 15);
+
+    assertEquals(List.of(50),
+        station.getTrainDeparturesBetween(5, 0, 5, 25).map(TrainDeparture::getTrainNumber)
+            .toList(),
+        "Train 51 delayed until 05:25 should not be found before 05:25");
+    DeparturePage first = station.getTrainDeparturePage(1, null);
+    station.setStationTime(5, 20);
+    assertEquals(List.of(51),
+        station.getTrainDeparturePage(1, first.getNextPageToken()).getTrainDepartures().stream()
+            .map(TrainDeparture::getTrainNumber).toList(),
+        "A page after a departed departure should start at the station time");
+  }
+
+  @Test
+  void setDelayOnDepartureMovesIndexNegativeTest() {
+    TrainDeparture removed = station.getTrainDepartureByTrainNumber(50);
+    station.selectTrainDeparture(50);
+    station.removeTrainDeparture();
+
+    // A removed departure must not be put back in the station when delayed
+    removed.setDelay(1, 0);
+    assertTrue(station.getNextTrainDepartures(10).isEmpty(),
+        "Delaying a removed departure should not add it to the station");
+    assertTrue(station.getTrainDeparturesBetween(6, 0, 6, 5).toList().isEmpty(),
+        "Removed departure should not be found at its new time");
+  }
+
+  @Test
+  void addTrainDeparturesPositiveTest() {
+    TrainDeparture replacement = new TrainDeparture(6, 0, "R10", "Drammen", 2, 50);
+    TrainDeparture early = new TrainDeparture(4, 30, "L1", "Lillestrøm", 1, 51);
+    TrainDeparture late = new TrainDeparture(7, 0, "R10", "Drammen", 2, 52);
+    station.addTrainDepartures(List.of(late, replacement, early));
+
+    assertSame(replacement, station.getTrainDepartureByTrainNumber(50),
+        "Train 50 should be replaced");
+    assertEquals(List.of(51, 50, 52),
+        station.getStreamOfTimeFilteredTrainDepartures().map(TrainDeparture::getTrainNumber)
+            .toList(),
+        "Board should be sorted by departure time");
+    assertEquals(List.of(51, 50, 52),
+        station.getNextTrainDepartures(10).stream().map(TrainDeparture::getTrainNumber).toList(),
+        "Next departures should include every added departure");
+    assertEquals(2, station.getAllTrainDeparturesByPartialDestination("dram").count(),
+        "2 departures should go to Drammen");
+    assertEquals(0, station.getAllTrainDeparturesByPartialDestination("oslo").count(),
+        "Replaced departure to Oslo should not be found");
+  }
+
+  @Test
+  void addTrainDeparturesNegativeTest() {
+    Station emptyStation = new Station();
+    TrainDeparture first = new TrainDeparture(6, 0, "R10", "Drammen", 2, 51);
+    TrainDeparture second = new TrainDeparture(8, 0, "R10", "Drammen", 2, 51);
+    emptyStation.addTrainDepartures(Arrays.asList(first, null, first, second));
+
+    assertEquals(List.of(51),
+        emptyStation.getStreamOfTimeFilteredTrainDepartures().map(TrainDeparture::getTrainNumber)
+            .toList(),
+        "Null should be ignored, and train 51 should only be added once");
+    assertSame(second, emptyStation.getTrainDepartureByTrainNumber(51),
+        "The last departure with train number 51 should be kept");
+    assertTrue(emptyStation.getTrainDeparturesBetween(6, 0, 7, 0).toList().isEmpty(),
+        "The replaced departure at 06:00 should not be found");
+  }
+
+  @Test
+  void createTrainDeparturePositiveTest() {
+    TrainDeparture first = station.createTrainDeparture(
+        6, 0, new String("R10"), new String("Drammen"), 2, 51);
+    TrainDeparture second = station.createTrainDeparture(
+        7, 0, new String("R10"), new String("Drammen"), 2, 52);
+
+    assertSame(first.getLine(), second.getLine(), "Both departures should share one line string");
+    assertSame(first.getDestination(), second.getDestination(),
+        "Both departures should share one destination string");
+    assertFalse(station.hasTrainDepartureWithTrainNumber(51),
+        "Creating a departure should not add it to the station");
+  }
+
+  @Test
+  void createTrainDepartureNegativeTest() {
+    TrainDeparture created = station.createTrainDeparture(5, 4, "L3", "Oslo", 4, 51);
+    TrainDeparture added = new TrainDeparture(5, 4, new String("L3"), "Oslo", 4, 52);
+    station.addTrainDeparture(added);
+
+    assertSame(created.getLine(), added.getLine(),
+        "Departure made outside the station should share the line string once added");
+    assertNotEquals(created, added, "Departures with different train-numbers should differ");
+  }
+
+  @Test
+  void publishSnapshotPositiveTest() {
+    StationSnapshot before = station.publishSnapshot();
+    assertTrue(station.setDelay(50, 0, 10), "Train 50 should be found");
+    StationSnapshot after = station.getSnapshot();
+
+    assertEquals(before.getVersion() + 1, after.getVersion(),
+        "Setting the delay should publish a new version");
+    assertEquals(0, before.getTrainDepartures().get(0).getDelayMinutes(),
+        "The earlier snapshot should keep the old delay");
+    assertEquals(10, after.getTrainDepartures().get(0).getDelayMinutes(),
+        "The new snapshot should have the new delay");
+    assertEquals(5 * 60 + 14, after.getTrainDepartures().get(0).getEffectiveMinuteOfDay(),
+        "The new snapshot should leave at 05:14");
+  }
+
+  @Test
+  void publishSnapshotNegativeTest() {
+    StationSnapshot first = station.publishSnapshot();
+    station.getTrainDepartureByTrainNumber(50).setTrack(7);
+
+    assertSame(first, station.getSnapshot(),
+        "Changes should not be seen by readers before they are published");
+    assertEquals(4, station.getSnapshot().getTrainDepartures().get(0).getTrack(),
+        "The published snapshot should keep the old track");
+    assertFalse(station.setTrack(99, 3), "Train 99 should not be found");
+
+    StationSnapshot second = station.publishSnapshot();
+    assertSame(second, station.publishSnapshot(),
+        "Publishing without changes should keep the same snapshot");
+    assertThrows(UnsupportedOperationException.class,
+        () -> second.getTrainDepartures().clear(), "Snapshot list should not be changeable");
+  }
+
+  @Test
+  void publishSnapshotIncrementalTest() {
+    for (int i = 100; i < 3000; i++) {
+      station.addTrainDeparture(new TrainDeparture(5 + i % 18, i % 60, "L1", "Oslo", 1, i));
+    }
+    station.publishSnapshot();
+    Random random = new Random(7);
+
+    for (int i = 0; i < 500; i++) {
+      int trainNumber = random.nextInt(2900) + 100;
+      if (random.nextBoolean()) {
+        station.setDelay(trainNumber, random.nextInt(3), random.nextInt(60));
+      } else {
+        station.getTrainDepartureByTrainNumber(trainNumber).setTrack(random.nextInt(9) + 1);
+        station.publishSnapshot();
+      }
+      assertEquals(
+          station.getStreamOfTimeFilteredTrainDepartures().map(TrainDeparture::getSnapshot)
+              .toList(),
+          station.getSnapshot().getTrainDepartures(),
+          "The published board should match the station after every change");
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SymbolTableTest {
+  SymbolTable symbolTable;
+
+  @BeforeEach
+  void setUp() {
+    symbolTable = new SymbolTable();
+    symbolTable.intern("Lillehammer");
+    symbolTable.intern("F10");
+  }
+
+  @AfterEach
+  void tearDown() {
+    symbolTable = null;
+  }
+
+  @Test
+  void internPositiveTest() {
+    String copy = new String("Lillehammer");
+    int code = symbolTable.intern(copy);
+
+    assertEquals(0, code, "Lillehammer should keep its first code");
+    assertNotSame(copy, symbolTable.symbol(code), "The table should keep its own copy");
+    assertEquals("lillehammer", symbolTable.folded(code), "Folded form should be lower case");
+    assertEquals(2, symbolTable.size(), "Interning a known string should not add to the table");
+  }
+
+  @Test
+  void internNegativeTest() {
+    assertEquals(-1, symbolTable.codeOf("Hamar"), "Hamar should not be in the table");
+    assertEquals(2, symbolTable.size(), "Looking up a missing string should not add it");
+  }
+
+  @Test
+  void codesContainingPositiveTest() {
+    boolean[] matching = symbolTable.codesContaining("HAMM");
+    assertTrue(matching[symbolTable.codeOf("Lillehammer")], "Lillehammer should match HAMM");
+    assertFalse(matching[symbolTable.codeOf("F10")], "F10 should not match HAMM");
+  }
+
+  @Test
+  void codesContainingNegativeTest() {
+    boolean[] matching = symbolTable.codesContaining("Oslo");
+    assertFalse(matching[0] || matching[1], "No string should match Oslo");
+  }
+}
@@ -0,0 +1,97 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TrainDepartureMapTest {
+  TrainDepartureMap map;
+  TrainDeparture trainDeparture;
+
+  @BeforeEach
+  void setUp() {
+    map = new TrainDepartureMap();
+    trainDeparture = new TrainDeparture(5, 4, "L3", "Oslo", 4, 50);
+    map.put(50, trainDeparture);
+  }
+
+  @AfterEach
+  void tearDown() {
+    map = null;
+    trainDeparture = null;
+  }
+
+  @Test
+  void getPositiveTest() {
+    assertSame(trainDeparture, map.get(50), "Train number 50 should return the stored departure");
+    assertTrue(map.containsKey(50), "Train number 50 should exist");
+    assertEquals(1, map.size(), "Map should contain 1 departure");
+  }
+
+  @Test
+  void getNegativeTest() {
+    assertNull(map.get(51), "Train number 51 should not exist");
+    assertFalse(map.containsKey(-1), "Train number -1 should not exist");
+  }
+
+  @Test
+  void putReplacesExistingTest() {
+    TrainDeparture replacement = new TrainDeparture(6, 0, "L3", "Oslo", 4, 50);
+    assertSame(trainDeparture, map.put(50, replacement), "Old departure should be returned");
+    assertSame(replacement, map.get(50), "New departure should be stored");
+    assertEquals(1, map.size(), "Replacing should not change the size");
+  }
+
+  @Test
+  void removePositiveTest() {
+    assertSame(trainDeparture, map.remove(50), "Removed departure should be returned");
+    assertNull(map.get(50), "Train number 50 should not exist after removal");
+    assertTrue(map.isEmpty(), "Map should be empty after removal");
+  }
+
+  @Test
+  void removeNegativeTest() {
+    assertNull(map.remove(51), "Removing a missing train number should return null");
+    assertEquals(1, map.size(), "Removing a missing train number should not change the size");
+  }
+
+  @Test
+  void matchesHashMapAfterRandomOperationsTest() {
+    // Random puts and removes over a small key range forces collisions, resizes and shifting
+    HashMap<Integer, TrainDeparture> expected = new HashMap<>();
+    expected.put(50, trainDeparture);
+    Random random = new Random(42);
+
+    for (int i = 0; i < 20_000; i++) {
+      int trainNumber = 1 + random.nextInt(2_000);
+      if (random.nextBoolean()) {
+        TrainDeparture departure = new TrainDeparture(1, 1, "L1", "Hamar", 1, trainNumber);
+        assertSame(expected.put(trainNumber, departure), map.put(trainNumber, departure),
+            "Put should return the same replaced departure as a HashMap");
+      } else {
+        assertSame(expected.remove(trainNumber), map.remove(trainNumber),
+            "Remove should return the same departure as a HashMap");
+      }
+    }
+
+    assertEquals(expected.size(), map.size(), "Size should match the HashMap");
+    for (int trainNumber = 1; trainNumber <= 2_000; trainNumber++) {
+      assertSame(expected.get(trainNumber), map.get(trainNumber),
+          "Lookup of " + trainNumber + " should match the HashMap");
+    }
+  }
+
+  @Test
+  void ensureCapacityTest() {
+    map.ensureCapacity(1000);
+    for (int trainNumber = 1; trainNumber <= 1000; trainNumber++) {
+      map.put(trainNumber, new TrainDeparture(6, 0, "L3", "Oslo", 4, trainNumber));
+    }
+    assertEquals(1000, map.size(), "Map should hold 1000 departures");
+    assertEquals(999, map.get(999).getTrainNumber(), "Train number 999 should exist");
+  }
+}
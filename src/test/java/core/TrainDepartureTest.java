@@ -177,4 +177,102 @@ class TrainDepartureTest {
     assertNotEquals(0, trainDeparture.compareTo(trainDeparture3), "Should be less or -1");
     // Feedback messages produced by CoPilot
   }
-}
\ No newline at end of file
+
+  @Test
+  void getEffectiveMinuteOfDayPositiveTest() {
+    assertEquals(5 * 60 + 4, trainDeparture.getEffectiveMinuteOfDay(),
+        "Departure without delay should leave at 05:04");
+
+    trainDeparture.setDelay(1, 30);
+    assertEquals(6 * 60 + 34, trainDeparture.getEffectiveMinuteOfDay(),
+        "Departure delayed 01:30 should leave at 06:34");
+  }
+
+  @Test
+  void getEffectiveMinuteOfDayNegativeTest() {
+    trainDeparture.setDelay(1, 30);
+    trainDeparture.setDelay(-1, 30);
+    assertEquals(5 * 60 + 4, trainDeparture.getEffectiveMinuteOfDay(),
+        "Negative delay should reset the departure to 05:04");
+  }
+
+  @Test
+  void getVersionPositiveTest() {
+    int version = trainDeparture.getVersion();
+
+    trainDeparture.setDelay(0, 5);
+    trainDeparture.setTrack(2);
+    assertEquals(version + 2, trainDeparture.getVersion(),
+        "Setting delay and track should increase the version twice");
+  }
+
+  @Test
+  void getVersionNegativeTest() {
+    int version = trainDeparture.getVersion();
+
+    trainDeparture.getDestination();
+    trainDeparture.getEffectiveMinuteOfDay();
+    assertEquals(version, trainDeparture.getVersion(), "Reading should not change the version");
+  }
+
+  @Test
+  void compareToDelayedPositiveTest() {
+    TrainDeparture later = new TrainDeparture(5, 10, "L3", "Oslo", 4, 51);
+    trainDeparture.setDelay(0, 10);
+
+    assertEquals(1, trainDeparture.compareTo(later),
+        "05:04 delayed until 05:14 should be after 05:10");
+    assertEquals(-1, later.compareTo(trainDeparture),
+        "05:10 should be before 05:04 delayed until 05:14");
+  }
+
+  @Test
+  void getSortKeyPositiveTest() {
+    TrainDeparture sameTime = new TrainDeparture(5, 4, "L3", "Oslo", 4, 51);
+    TrainDeparture later = new TrainDeparture(5, 10, "L3", "Oslo", 4, 49);
+    assertTrue(trainDeparture.getSortKey() < sameTime.getSortKey(),
+        "Departures at the same time should be ordered by train-number");
+    assertTrue(trainDeparture.getSortKey() < later.getSortKey(),
+        "05:04 should be before 05:10, whatever the train-numbers");
+
+    trainDeparture.setDelay(0, 10);
+    assertTrue(trainDeparture.getSortKey() > later.getSortKey(),
+        "05:04 delayed until 05:14 should be after 05:10 once the delay is set");
+    assertEquals(50, (int) trainDeparture.getSortKey(),
+        "Lower half of the sort key should be the train-number");
+  }
+
+  @Test
+  void getSortKeyNegativeTest() {
+    TrainDeparture delayed = new TrainDeparture(5, 0, "L3", "Oslo", 4, 49);
+    delayed.setDelay(0, 4);
+
+    assertNotEquals(0, trainDeparture.compareTo(delayed),
+        "Departures leaving at the same time should not be ordered as equal");
+    assertEquals(1, trainDeparture.compareTo(delayed),
+        "Same time including delay should be ordered by the time without delay");
+    assertEquals(Long.signum(trainDeparture.getSortKey() - delayed.getSortKey()),
+        trainDeparture.compareTo(delayed), "compareTo should agree with the sort keys");
+  }
+
+  @Test
+  void getSnapshotPositiveTest() {
+    TrainDepartureSnapshot snapshot = trainDeparture.getSnapshot();
+    trainDeparture.setDelay(0, 5);
+
+    assertEquals(0, snapshot.getDelayMinutes(), "Snapshot should not change with the departure");
+    assertEquals(5, trainDeparture.getSnapshot().getDelayMinutes(),
+        "New snapshot should have the new delay");
+    assertEquals(trainDeparture.getVersion(), trainDeparture.getSnapshot().getVersion(),
+        "New snapshot should have the version of the departure");
+  }
+
+  @Test
+  void getSnapshotNegativeTest() {
+    TrainDepartureSnapshot snapshot = trainDeparture.getSnapshot();
+    trainDeparture.getDestination();
+
+    assertSame(snapshot, trainDeparture.getSnapshot(),
+        "Unchanged departure should give out the same snapshot");
+  }
+}
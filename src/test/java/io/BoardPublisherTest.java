@@ -0,0 +1,170 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BoardPublisherTest {
+  BoardPublisher publisher;
+  List<String> fastWrites;
+
+  @BeforeEach
+  void setUp() {
+    publisher = new BoardPublisher();
+    fastWrites = new CopyOnWriteArrayList<>();
+    publisher.addSink(new RecordingSink(fastWrites));
+  }
+
+  @AfterEach
+  void tearDown() {
+    publisher.close();
+    publisher = null;
+  }
+
+  @Test
+  void publishPositiveTest() throws InterruptedException {
+    CountDownLatch slowStarted = new CountDownLatch(1);
+    CountDownLatch slowRelease = new CountDownLatch(1);
+    List<String> slowWrites = new CopyOnWriteArrayList<>();
+    publisher.addSink(new RecordingSink(slowWrites) {
+      @Override
+      public void write(BoardFrame frame) throws IOException {
+        slowStarted.countDown();
+        try {
+          slowRelease.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        super.write(frame);
+      }
+    });
+
+    publisher.publish(frame("first"));
+    assertTrue(slowStarted.await(1, TimeUnit.SECONDS), "The slow sink should start writing");
+    publisher.publish(frame("second"));
+    publisher.publish(frame("third"));
+
+    // The fast sink does not wait for the slow one
+    for (int i = 0; i < 100 && !fastWrites.contains("third"); i++) {
+      Thread.sleep(10);
+    }
+    assertEquals("third", fastWrites.get(fastWrites.size() - 1),
+        "The fast sink should write the latest frame while the slow sink is busy");
+
+    slowRelease.countDown();
+    publisher.awaitWritten(1000);
+    assertEquals(List.of("first", "third"), slowWrites,
+        "The slow sink should skip to the latest frame");
+  }
+
+  @Test
+  void publishNegativeTest() {
+    publisher.addSink(new OutputSink() {
+      @Override
+      public void write(BoardFrame frame) throws IOException {
+        throw new IOException("Display disconnected");
+      }
+
+      @Override
+      public void close() {
+        // Nothing to close
+      }
+    });
+
+    publisher.publish(frame("first"));
+    publisher.awaitWritten(1000);
+    assertEquals("Display disconnected", publisher.takeFailure().getMessage(),
+        "The failure of the sink should be kept");
+    assertNull(publisher.takeFailure(), "A failure should only be taken once");
+
+    publisher.publish(frame("second"));
+    publisher.awaitWritten(1000);
+    assertEquals(List.of("first", "second"), fastWrites,
+        "A failing sink should not stop the other sinks");
+    assertNull(publisher.takeFailure(), "A failed sink should not be written to again");
+  }
+
+  @Test
+  void boardStoppedPositiveTest() {
+    List<String> calls = new CopyOnWriteArrayList<>();
+    publisher.addSink(new RecordingSink(calls) {
+      @Override
+      public void boardStarted() {
+        calls.add("started");
+      }
+
+      @Override
+      public void boardStopped() {
+        calls.add("stopped");
+      }
+    });
+
+    publisher.boardStarted();
+    publisher.publish(frame("first"));
+    publisher.boardStopped(1000);
+    assertEquals(List.of("started", "first", "stopped"), calls,
+        "The sink should be told the board started and stopped around its frames");
+  }
+
+  @Test
+  void boardStoppedNegativeTest() {
+    publisher.addSink(new RecordingSink(fastWrites) {
+      @Override
+      public void boardStopped() throws IOException {
+        throw new IOException("Terminal gone");
+      }
+    });
+
+    publisher.boardStopped(1000);
+    assertEquals("Terminal gone", publisher.takeFailure().getMessage(),
+        "A sink failing to stop should be reported");
+    publisher.publish(frame("after"));
+    publisher.awaitWritten(1000);
+    assertEquals(1, fastWrites.size(), "A sink failing to stop should get no more frames");
+  }
+
+  @Test
+  void closePositiveTest() {
+    publisher.publish(frame("first"));
+    publisher.close();
+
+    List<String> reopened = new CopyOnWriteArrayList<>();
+    publisher.addSink(new RecordingSink(reopened));
+    publisher.publish(frame("second"));
+    publisher.awaitWritten(1000);
+    assertEquals(List.of("first"), fastWrites, "A closed sink should get no more frames");
+    assertEquals(List.of("second"), reopened, "Sinks added after closing should get frames");
+  }
+
+  private static BoardFrame frame(String line) {
+    return new BoardFrame(List.of(line));
+  }
+
+  /**
+   * Sink recording the first line of every frame it writes.
+   */
+  private static class RecordingSink implements OutputSink {
+    private final List<String> writes;
+
+    RecordingSink(List<String> writes) {
+      this.writes = writes;
+    }
+
+    @Override
+    public void write(BoardFrame frame) throws IOException {
+      writes.add(frame.getLines().get(0));
+    }
+
+    @Override
+    public void close() {
+      // Nothing to close
+    }
+  }
+}
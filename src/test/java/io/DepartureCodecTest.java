@@ -0,0 +1,139 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.Station;
+import core.StationSnapshot;
+import core.TrainDeparture;
+import core.TrainDepartureSnapshot;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DepartureCodecTest {
+  DepartureCodec codec;
+  Station station;
+
+  @BeforeEach
+  void setUp() {
+    codec = new DepartureCodec();
+    station = new Station();
+    station.setStationTime(4, 20);
+    TrainDeparture delayed = new TrainDeparture(5, 4, "L3", "Oslo", 4, 50);
+    delayed.setDelay(1, 30);
+    station.addTrainDepartures(List.of(
+        delayed,
+        new TrainDeparture(6, 0, "L3", "Oslo", -1, 51),
+        new TrainDeparture(23, 59, "F8", "Gjøvik 🚆", 12, 123456789)
+    ));
+    station.selectTrainDeparture(51);
+  }
+
+  @AfterEach
+  void tearDown() {
+    codec = null;
+    station = null;
+  }
+
+  @Test
+  void readStationPositiveTest() {
+    StationSnapshot written = station.publishSnapshot();
+    ByteBuffer buffer = ByteBuffer.allocate(DepartureCodec.encodedSize(written));
+    codec.writeStation(written, buffer);
+    assertFalse(buffer.hasRemaining(), "Encoded size should match the bytes written");
+
+    buffer.flip();
+    StationSnapshot read = codec.readStation(buffer).publishSnapshot();
+    assertEquals(written.getStationMinuteOfDay(), read.getStationMinuteOfDay(),
+        "Station time should be read back");
+    assertEquals(51, read.getSelectedTrainDeparture().getTrainNumber(),
+        "Selected departure should be read back");
+    assertEquals(written.getTrainDepartures().size(), read.getTrainDepartures().size(),
+        "Every departure should be read back");
+
+    for (int i = 0; i < written.getTrainDepartures().size(); i++) {
+      TrainDepartureSnapshot expected = written.getTrainDepartures().get(i);
+      TrainDepartureSnapshot actual = read.getTrainDepartures().get(i);
+      assertEquals(expected.getSortKey(), actual.getSortKey(), "Times should round-trip");
+      assertEquals(expected.getDelayMinutes(), actual.getDelayMinutes(), "Delay should round-trip");
+      assertEquals(expected.getTrack(), actual.getTrack(), "Track should round-trip");
+      assertEquals(expected.getLine(), actual.getLine(), "Line should round-trip");
+      assertEquals(expected.getDestination(), actual.getDestination(),
+          "Destination should round-trip, including characters outside the BMP");
+    }
+  }
+
+  @Test
+  void readStationNegativeTest() {
+    ByteBuffer buffer = ByteBuffer.allocate(16);
+    buffer.putInt(0x12345678).flip();
+    assertThrows(IllegalArgumentException.class, () -> codec.readStation(buffer),
+        "Buffer without the magic number should not be read as a station");
+
+    ByteBuffer wrongVersion = ByteBuffer.allocate(16);
+    wrongVersion.putInt(DepartureCodec.MAGIC).put((byte) 99).flip();
+    assertThrows(IllegalArgumentException.class, () -> codec.readStation(wrongVersion),
+        "Unknown format version should not be read");
+  }
+
+  @Test
+  void readTrainDeparturePositiveTest() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+    TrainDeparture first = station.getTrainDepartureByTrainNumber(50);
+    TrainDeparture second = station.getTrainDepartureByTrainNumber(51);
+    codec.writeTrainDeparture(buffer, first);
+    int firstSize = buffer.position();
+    codec.writeTrainDeparture(buffer, second);
+    assertTrue(buffer.position() - firstSize < firstSize,
+        "Second departure should refer to the strings already written");
+
+    buffer.flip();
+    DepartureCodec reader = new DepartureCodec();
+    TrainDeparture readFirst = reader.readTrainDeparture(buffer);
+    TrainDeparture readSecond = reader.readTrainDeparture(buffer);
+    assertEquals(first, readFirst, "First departure should round-trip");
+    assertEquals(second, readSecond, "Second departure should round-trip");
+    assertSame(readFirst.getLine(), readSecond.getLine(), "Read strings should be shared");
+  }
+
+  @Test
+  void readTrainDepartureNegativeTest() {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    codec.writeTrainDeparture(buffer, station.getTrainDepartureByTrainNumber(50));
+    codec.writeTrainDeparture(buffer, station.getTrainDepartureByTrainNumber(123456789));
+    buffer.flip();
+
+    DepartureCodec reader = new DepartureCodec();
+    reader.readTrainDeparture(buffer);
+    reader.reset();
+    assertThrows(IllegalArgumentException.class, () -> reader.readTrainDeparture(buffer),
+        "A reset reader should not know the strings of the stream");
+  }
+
+  @Test
+  void varIntPositiveTest() {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+    for (int value : values) {
+      int before = buffer.position();
+      DepartureCodec.writeVarInt(buffer, DepartureCodec.zigzag(value));
+      assertEquals(DepartureCodec.varIntSize(DepartureCodec.zigzag(value)),
+          buffer.position() - before, "Size of " + value + " should match the bytes written");
+    }
+
+    buffer.flip();
+    for (int value : values) {
+      assertEquals(value, DepartureCodec.unzigzag(DepartureCodec.readVarInt(buffer)),
+          value + " should round-trip");
+    }
+  }
+
+  @Test
+  void varIntNegativeTest() {
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, 1});
+    assertThrows(IllegalArgumentException.class, () -> DepartureCodec.readVarInt(buffer),
+        "Varint longer than five bytes should not be read");
+  }
+}
@@ -0,0 +1,71 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.Station;
+import core.TrainDeparture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DepartureRowCacheTest {
+  DepartureRowCache rowCache;
+  TrainDeparture trainDeparture;
+  int renders;
+
+  @BeforeEach
+  void setUp() {
+    renders = 0;
+    rowCache = new DepartureRowCache(departure -> {
+      renders++;
+      return departure.getTrainNumber() + " " + departure.getDelayMinutes()
+          + " " + departure.getTrack();
+    });
+    trainDeparture = new TrainDeparture(5, 4, "L3", "Oslo", 4, 50);
+  }
+
+  @AfterEach
+  void tearDown() {
+    rowCache = null;
+    trainDeparture = null;
+  }
+
+  @Test
+  void getPositiveTest() {
+    String row = rowCache.get(trainDeparture);
+    assertSame(row, rowCache.get(trainDeparture),
+        "An unchanged departure should give the cached row");
+    assertEquals(1, renders, "An unchanged departure should only be rendered once");
+
+    trainDeparture.setDelay(0, 5);
+    assertEquals("50 5 4", rowCache.get(trainDeparture), "A delayed departure should be rendered");
+    trainDeparture.setTrack(2);
+    assertEquals("50 5 2", rowCache.get(trainDeparture), "A new track should be rendered");
+    assertEquals(3, renders, "Every change should render the row once");
+  }
+
+  @Test
+  void getNegativeTest() {
+    rowCache.get(trainDeparture);
+    TrainDeparture replacement = new TrainDeparture(6, 0, "R10", "Drammen", -1, 50);
+
+    assertEquals("50 0 -1", rowCache.get(replacement),
+        "A departure replacing another with the same train-number should not get its row");
+    assertEquals(2, renders, "The replacing departure should be rendered");
+  }
+
+  @Test
+  void sweepIfGrownPositiveTest() {
+    Station station = new Station();
+    for (int trainNumber = 1; trainNumber <= 100; trainNumber++) {
+      TrainDeparture departure = new TrainDeparture(5, 4, "L3", "Oslo", 4, trainNumber);
+      rowCache.get(departure);
+      if (trainNumber <= 10) {
+        station.addTrainDeparture(departure);
+      }
+    }
+    rowCache.sweepIfGrown(station);
+
+    assertEquals(10, rowCache.size(), "Rows of departures not at the station should be removed");
+  }
+}
@@ -0,0 +1,95 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.Station;
+import core.TrainDeparture;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utility.Printer;
+
+class LiveBoardTest {
+  ByteArrayOutputStream output;
+  Station station;
+  BoardPublisher publisher;
+  LiveBoard liveBoard;
+
+  @BeforeEach
+  void setUp() {
+    output = new ByteArrayOutputStream();
+    Printer printer = new Printer(new PrintStream(output, true), Channels.newChannel(output));
+    station = new Station();
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+    station.addTrainDeparture(new TrainDeparture(6, 0, "R10", "Drammen", 2, 51));
+    station.publishSnapshot();
+    publisher = new BoardPublisher();
+    liveBoard = new LiveBoard(station, publisher, 5, 10);
+    publisher.addSink(new TerminalSink(printer, liveBoard.getHeight()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    liveBoard.stop();
+    publisher.close();
+    liveBoard = null;
+    publisher = null;
+    station = null;
+  }
+
+  @Test
+  void drawFramePositiveTest() {
+    assertTrue(liveBoard.drawFrame(), "The first frame should be drawn");
+    publisher.awaitWritten(1000);
+    assertTrue(output.toString().contains("Oslo"), "The board should show the departures");
+
+    output.reset();
+    station.setDelay(50, 0, 15);
+    assertTrue(liveBoard.drawFrame(), "A new snapshot should be drawn");
+    publisher.awaitWritten(1000);
+    assertTrue(output.toString().contains("05:19"), "The delay should be drawn");
+    assertFalse(output.toString().contains("Drammen"),
+        "Rows that did not change should not be written again");
+  }
+
+  @Test
+  void drawFrameNegativeTest() {
+    liveBoard.drawFrame();
+    publisher.awaitWritten(1000);
+    output.reset();
+
+    station.setStationTime(1, 0);
+    assertFalse(liveBoard.drawFrame(),
+        "A frame should be skipped until the change is published");
+    publisher.awaitWritten(1000);
+    assertEquals(0, output.size(), "A skipped frame should write nothing");
+    assertThrows(IllegalArgumentException.class,
+        () -> new LiveBoard(station, publisher, 5, 0),
+        "Frames per second that are not positive should not be accepted");
+  }
+
+  @Test
+  void startPositiveTest() {
+    liveBoard.start();
+    assertTrue(liveBoard.isRunning(), "The board should run after being started");
+    liveBoard.stop();
+    assertFalse(liveBoard.isRunning(), "The board should not run after being stopped");
+    assertTrue(output.toString().contains("\033[8r"),
+        "The rows below the board should be made a scrolling region");
+  }
+
+  @Test
+  void stopPositiveTest() {
+    liveBoard.start();
+    liveBoard.drawFrame();
+    liveBoard.stop();
+
+    String written = output.toString();
+    assertTrue(written.contains("Oslo"), "The board should be drawn while running");
+    assertTrue(written.endsWith("\033[r\033[H\033[2J"),
+        "The terminal should be given back after the last frame is written");
+  }
+}
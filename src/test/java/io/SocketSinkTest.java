@@ -0,0 +1,108 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SocketSinkTest {
+  @TempDir
+  Path directory;
+  SocketSink socketSink;
+  BoardFrame frame;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    socketSink = new SocketSink(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    frame = new BoardFrame(List.of("12:00", "05:04 L3 Oslo"));
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    socketSink.close();
+    socketSink = null;
+  }
+
+  @Test
+  void writePositiveTest() throws IOException {
+    try (SocketChannel client = SocketChannel.open(socketSink.getAddress())) {
+      socketSink.write(frame);
+
+      String expected = "\033[H\033[2J12:00\n05:04 L3 Oslo\n";
+      ByteBuffer received = ByteBuffer.allocate(expected.length());
+      while (received.hasRemaining()) {
+        client.read(received);
+      }
+      assertEquals(expected, new String(received.array(), StandardCharsets.UTF_8),
+          "A connected program should get the whole frame");
+    }
+
+    // A file sink gets the same text, without clearing the screen
+    Path boardFile = directory.resolve("board.txt");
+    new FileSink(boardFile).write(frame);
+    assertEquals("12:00\n05:04 L3 Oslo\n", Files.readString(boardFile),
+        "The file should hold the whole frame");
+  }
+
+  @Test
+  void writeNegativeTest() throws IOException {
+    SocketChannel client = SocketChannel.open(socketSink.getAddress());
+    socketSink.write(frame);
+    client.close();
+
+    // Writing to a disconnected program only drops that program
+    for (int i = 0; i < 10; i++) {
+      assertDoesNotThrow(() -> socketSink.write(frame),
+          "A disconnected program should not fail the sink");
+    }
+    assertThrows(IOException.class, () -> new SocketSink(socketSink.getAddress()),
+        "A second sink should not be able to use the same port");
+  }
+
+  @Test
+  void writeStalledNegativeTest() throws IOException {
+    BoardFrame large = new BoardFrame(Collections.nCopies(20_000, "05:04 L3 Oslo"));
+
+    try (SocketChannel stalled = SocketChannel.open(socketSink.getAddress())) {
+      // The program never reads, so its socket buffers fill up after the first frames
+      assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        for (int i = 0; i < 100; i++) {
+          socketSink.write(large);
+        }
+      }, "A program that does not read should not block the sink");
+
+      try (SocketChannel client = SocketChannel.open(socketSink.getAddress())) {
+        socketSink.write(frame);
+        ByteBuffer received = ByteBuffer.allocate("\033[H\033[2J12:00".length());
+        while (received.hasRemaining()) {
+          client.read(received);
+        }
+        assertEquals("\033[H\033[2J12:00", new String(received.array(), StandardCharsets.UTF_8),
+            "Other programs should still get frames");
+      }
+
+      // The program was dropped, so after the frames already sent to it, its socket is closed
+      ByteBuffer drained = ByteBuffer.allocate(1 << 16);
+      assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        int read = 0;
+        while (read >= 0) {
+          drained.clear();
+          read = stalled.read(drained);
+        }
+      }, "A program that does not read should be dropped");
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.Station;
+import core.TrainDeparture;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StationCheckpointerTest {
+  @TempDir
+  Path directory;
+  Path journalPath;
+  StationSnapshotFile snapshotFile;
+  StationJournal journal;
+  StationCheckpointer checkpointer;
+  Station station;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    journalPath = directory.resolve("station.journal");
+    snapshotFile = new StationSnapshotFile(directory.resolve("station.snapshot"));
+    journal = new StationJournal(journalPath, 4, 60_000);
+    checkpointer = new StationCheckpointer(snapshotFile, journal, 32);
+    station = new Station();
+    station.setStationObserver(journal);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    checkpointer.close();
+    journal.close();
+    checkpointer = null;
+    journal = null;
+    station = null;
+  }
+
+  @Test
+  void checkpointIfDuePositiveTest() throws IOException {
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+    station.addTrainDeparture(new TrainDeparture(6, 0, "R10", "Drammen", 2, 51));
+    assertTrue(checkpointer.checkpointIfDue(station),
+        "A checkpoint should start once the journal has grown enough");
+
+    // Changes made while the checkpoint runs must stay in the journal
+    station.setDelay(50, 0, 20);
+    station.selectTrainDeparture(51);
+    checkpointer.close();
+    journal.close();
+
+    assertTrue(snapshotFile.exists(), "The checkpoint should save a snapshot");
+    Station restored = snapshotFile.load();
+    try (StationJournal reopened = new StationJournal(journalPath, 4, 60_000)) {
+      assertEquals(2, reopened.replay(restored),
+          "Only the changes after the checkpoint should be left in the journal");
+    }
+    assertEquals(20, restored.getTrainDepartureByTrainNumber(50).getDelayMinutes(),
+        "Delay set during the checkpoint should be restored");
+    assertEquals(51, restored.getSelectedTrainDeparture().getTrainNumber(),
+        "Selection made during the checkpoint should be restored");
+  }
+
+  @Test
+  void checkpointIfDueNegativeTest() throws IOException {
+    station.setStationTime(4, 20);
+    assertFalse(checkpointer.checkpointIfDue(station),
+        "A short journal should not start a checkpoint");
+    assertFalse(snapshotFile.exists(), "Nothing should be saved without a checkpoint");
+    assertThrows(IllegalArgumentException.class,
+        () -> new StationCheckpointer(snapshotFile, journal, 0),
+        "A checkpoint size that is not positive should not be accepted");
+  }
+
+  @Test
+  void checkpointPositiveTest() throws IOException {
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+    checkpointer.checkpoint(station);
+
+    assertTrue(snapshotFile.exists(), "The checkpoint should save a snapshot");
+    assertEquals(0, Files.size(journalPath), "The checkpoint should empty the journal");
+  }
+}
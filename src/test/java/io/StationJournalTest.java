@@ -0,0 +1,113 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.Station;
+import core.TrainDeparture;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StationJournalTest {
+  @TempDir
+  Path directory;
+  Path journalPath;
+  StationJournal journal;
+  Station station;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    journalPath = directory.resolve("station.journal");
+    journal = new StationJournal(journalPath, 4, 60_000);
+    station = new Station();
+    station.setStationObserver(journal);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    journal.close();
+    journal = null;
+    station = null;
+  }
+
+  @Test
+  void replayPositiveTest() throws IOException {
+    station.setStationTime(4, 20);
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+    station.addTrainDeparture(new TrainDeparture(6, 0, "R10", "Drammen", 2, 51));
+    station.addTrainDeparture(new TrainDeparture(7, 0, "F1", "Bergen", 1, 52));
+    station.setDelay(50, 0, 20);
+    station.setTrack(51, 7);
+    station.selectTrainDeparture(52);
+    station.removeTrainDeparture();
+    station.selectTrainDeparture(51);
+    journal.close();
+
+    try (StationJournal reopened = new StationJournal(journalPath, 4, 60_000)) {
+      Station replayed = new Station();
+      assertEquals(9, reopened.replay(replayed), "Every change should be replayed");
+      assertEquals(4 * 60 + 20, replayed.getStationClock().getMinuteOfDay(),
+          "Station time should be replayed");
+      assertEquals(20, replayed.getTrainDepartureByTrainNumber(50).getDelayMinutes(),
+          "Delay should be replayed");
+      assertEquals(7, replayed.getTrainDepartureByTrainNumber(51).getTrack(),
+          "Track should be replayed");
+      assertNull(replayed.getTrainDepartureByTrainNumber(52),
+          "Removed departure should stay removed");
+      assertEquals(51, replayed.getSelectedTrainDeparture().getTrainNumber(),
+          "Selection should be replayed");
+    }
+  }
+
+  @Test
+  void replayNegativeTest() throws IOException {
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+    journal.close();
+    long wholeSize = Files.size(journalPath);
+
+    // A record cut short, as left by a crash in the middle of a write
+    try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[] {20, 0, 0, 0, 1, 2}));
+    }
+
+    try (StationJournal reopened = new StationJournal(journalPath, 4, 60_000)) {
+      Station replayed = new Station();
+      assertEquals(1, reopened.replay(replayed), "Only the whole record should be replayed");
+      assertNotNull(replayed.getTrainDepartureByTrainNumber(50),
+          "The whole record should be applied");
+      assertEquals(wholeSize, Files.size(journalPath),
+          "The record cut short should be cut off");
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> new StationJournal(journalPath, 0, 60_000),
+        "A batch size that is not positive should not be accepted");
+  }
+
+  @Test
+  void trainDepartureAddedNegativeTest() throws IOException {
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+    journal.commit();
+    station.addTrainDeparture(new TrainDeparture(6, 0, "R10", "x".repeat(70_000), 2, 51));
+    station.setDelay(50, 0, 20);
+    assertThrows(IOException.class, journal::commit,
+        "A record over the size limit should fail the next commit");
+    assertThrows(IOException.class, journal::close,
+        "Closing should fail like a commit, after closing the file");
+
+    journal = new StationJournal(journalPath, 4, 60_000);
+    Station replayed = new Station();
+    assertEquals(1, journal.replay(replayed),
+        "Only the records committed before the failure should be replayed");
+    assertEquals(0, replayed.getTrainDepartureByTrainNumber(50).getDelayMinutes(),
+        "Records after the failure should not be written");
+    assertNull(replayed.getTrainDepartureByTrainNumber(51),
+        "The departure over the size limit should not be written");
+  }
+}
@@ -0,0 +1,87 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.Station;
+import core.TrainDeparture;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StationSnapshotFileTest {
+  @TempDir
+  Path directory;
+  StationSnapshotFile snapshotFile;
+  Station station;
+
+  @BeforeEach
+  void setUp() {
+    snapshotFile = new StationSnapshotFile(directory.resolve("station.snapshot"));
+    station = new Station();
+    station.setStationTime(4, 20);
+    station.addTrainDeparture(new TrainDeparture(5, 4, "L3", "Oslo", 4, 50));
+    station.addTrainDeparture(new TrainDeparture(6, 0, "R10", "Drammen", 2, 51));
+  }
+
+  @AfterEach
+  void tearDown() {
+    snapshotFile = null;
+    station = null;
+  }
+
+  @Test
+  void loadPositiveTest() throws IOException {
+    station.selectTrainDeparture(51);
+    station.setDelay(50, 0, 20);
+    snapshotFile.save(station);
+
+    assertTrue(snapshotFile.exists(), "Saving should create the file");
+    assertFalse(Files.exists(directory.resolve("station.snapshot.tmp")),
+        "The temporary file should be moved over the snapshot file");
+
+    Station loaded = snapshotFile.load();
+    assertEquals(4 * 60 + 20, loaded.getStationClock().getMinuteOfDay(),
+        "Station time should be restored");
+    assertEquals(20, loaded.getTrainDepartureByTrainNumber(50).getDelayMinutes(),
+        "Delay should be restored");
+    assertEquals(51, loaded.getSelectedTrainDeparture().getTrainNumber(),
+        "Selected departure should be restored");
+    assertEquals(2, loaded.getNextTrainDepartures(10).size(),
+        "Restored departures should be indexed");
+  }
+
+  @Test
+  void loadBeforeStationTimePositiveTest() throws IOException {
+    // Added after the station time was set, so it is held but not on the board
+    station.addTrainDeparture(new TrainDeparture(3, 0, "L1", "Hamar", 1, 7));
+    station.selectTrainDeparture(7);
+    snapshotFile.save(station);
+
+    Station loaded = snapshotFile.load();
+    assertNotNull(loaded.getTrainDepartureByTrainNumber(7),
+        "A departure before the station time should be restored");
+    assertEquals(7, loaded.getSelectedTrainDeparture().getTrainNumber(),
+        "A selected departure before the station time should be restored");
+    assertEquals(2, loaded.getStreamOfTimeFilteredTrainDepartures().count(),
+        "A departure before the station time should not be put on the board");
+
+    assertTrue(loaded.setDelay(7, 2, 0), "The restored departure should be found");
+    assertEquals(3, loaded.publishSnapshot().getTrainDepartures().size(),
+        "The restored departure should be delayed back onto the board");
+  }
+
+  @Test
+  void loadNegativeTest() throws IOException {
+    assertFalse(snapshotFile.exists(), "Nothing should be saved yet");
+    assertThrows(IOException.class, () -> snapshotFile.load(),
+        "Loading a missing file should fail");
+
+    Files.write(snapshotFile.getPath(), new byte[] {1, 2, 3, 4, 5});
+    assertThrows(IllegalArgumentException.class, () -> snapshotFile.load(),
+        "Loading a file that is not a snapshot should fail");
+  }
+}
@@ -0,0 +1,70 @@
+package utility;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IncrementalRendererTest {
+  ByteArrayOutputStream output;
+  IncrementalRenderer renderer;
+  List<String> lines;
+
+  @BeforeEach
+  void setUp() {
+    output = new ByteArrayOutputStream();
+    Printer printer = new Printer(new PrintStream(output, true), Channels.newChannel(output));
+    renderer = new IncrementalRenderer(printer);
+    lines = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      lines.add("12:" + (i % 60) + " Oslo " + i);
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    renderer = null;
+    lines = null;
+  }
+
+  @Test
+  void renderPositiveTest() {
+    assertEquals(100, renderer.render(lines), "The first screen should write every line");
+    assertTrue(output.toString().startsWith("\033[H\033[2J"),
+        "The first screen should clear the terminal");
+    int fullSize = output.size();
+
+    output.reset();
+    lines.set(42, "12:42 Bergen 42");
+    assertEquals(1, renderer.render(lines), "Only the changed line should be written");
+    assertTrue(output.toString().contains("\033[43;1H12:42 Bergen 42\033[K"),
+        "The changed line should be written at its row");
+    assertTrue(output.size() * 20 < fullSize,
+        "A screen with one change should write a fraction of the full screen");
+
+    output.reset();
+    assertEquals(0, renderer.render(lines), "An unchanged screen should write no lines");
+  }
+
+  @Test
+  void renderNegativeTest() {
+    renderer.render(lines);
+    renderer.reset();
+    output.reset();
+    assertEquals(100, renderer.render(lines), "A reset renderer should write every line");
+
+    output.reset();
+    List<String> shorter = new ArrayList<>(lines.subList(0, 10));
+    assertEquals(0, renderer.render(shorter), "Removing lines should not rewrite the others");
+    assertTrue(output.toString().endsWith("\033[11;1H\033[J"),
+        "The removed lines should be erased");
+    assertEquals(1, renderer.render(lines.subList(0, 11)),
+        "A line at an erased row should be written again");
+  }
+}
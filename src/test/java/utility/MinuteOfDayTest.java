@@ -0,0 +1,68 @@
+package utility;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MinuteOfDayTest {
+  int time;
+
+  @BeforeEach
+  void setUp() {
+    // 04:20 as minutes since midnight
+    time = MinuteOfDay.of(4, 20);
+  }
+
+  @AfterEach
+  void tearDown() {
+    time = 0;
+  }
+
+  @Test
+  void ofPositiveTest() {
+    assertEquals(260, time, "04:20 should be 260 minutes since midnight");
+    assertEquals(4, MinuteOfDay.hour(time), "Hour should be 4");
+    assertEquals(20, MinuteOfDay.minute(time), "Minute should be 20");
+    assertEquals(MinuteOfDay.of(5, 10), MinuteOfDay.of(4, 70),
+        "Minutes above 59 should carry over to the hour");
+  }
+
+  @Test
+  void ofNegativeTest() {
+    assertEquals(0, MinuteOfDay.of(-1, -1), "Negative time should be 00:00");
+    assertEquals(MinuteOfDay.of(1, 0), MinuteOfDay.of(25, 0),
+        "Hour should wrap around at midnight");
+    assertEquals(new Clock(27, 75).getMinuteOfDay(), MinuteOfDay.of(27, 75),
+        "Overflow should be handled the same way as in Clock");
+  }
+
+  @Test
+  void plusPositiveTest() {
+    assertEquals(MinuteOfDay.of(8, 40), MinuteOfDay.plus(time, MinuteOfDay.of(4, 20)),
+        "04:20 plus 04:20 should be 08:40");
+  }
+
+  @Test
+  void plusNegativeTest() {
+    assertEquals(MinuteOfDay.of(0, 10), MinuteOfDay.plus(MinuteOfDay.of(23, 50), 20),
+        "Adding past midnight should wrap around");
+  }
+
+  @Test
+  void formatPositiveTest() {
+    assertEquals("04:20", MinuteOfDay.format(time), "Time should be formatted as 04:20");
+    assertEquals("23:59", MinuteOfDay.format(MinuteOfDay.of(23, 59)),
+        "Time should be formatted as 23:59");
+    assertEquals("Leaves 04:20",
+        MinuteOfDay.appendTo(new StringBuilder("Leaves "), time).toString(),
+        "Time should be appended after the existing text");
+  }
+
+  @Test
+  void formatNegativeTest() {
+    assertNotEquals("4:20", MinuteOfDay.format(time), "Hour should be padded with a zero");
+    assertEquals("00:00", MinuteOfDay.format(0), "Midnight should be formatted as 00:00");
+  }
+}
@@ -0,0 +1,56 @@
+package utility;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrinterTest {
+  ByteArrayOutputStream streamOutput;
+  ByteArrayOutputStream frameOutput;
+  Printer printer;
+
+  @BeforeEach
+  void setUp() {
+    streamOutput = new ByteArrayOutputStream();
+    frameOutput = new ByteArrayOutputStream();
+    printer = new Printer(new PrintStream(streamOutput, true), Channels.newChannel(frameOutput));
+  }
+
+  @AfterEach
+  void tearDown() {
+    printer = null;
+  }
+
+  @Test
+  void endFramePositiveTest() {
+    printer.beginFrame();
+    printer.print("12:00 ");
+    printer.print("Oslo");
+    assertEquals(0, frameOutput.size(), "Nothing should be written before the frame ends");
+
+    printer.endFrame();
+    assertEquals("12:00 Oslo", frameOutput.toString(), "The frame should be written at once");
+    assertEquals(0, streamOutput.size(), "The frame should not go through the stream");
+
+    printer.print("after");
+    assertEquals("after", streamOutput.toString(), "Output after the frame should be printed");
+  }
+
+  @Test
+  void endFrameNegativeTest() {
+    printer.endFrame();
+    assertEquals(0, frameOutput.size(), "Ending a frame that was not started should not write");
+
+    printer.beginFrame();
+    printer.print("discarded");
+    printer.beginFrame();
+    printer.print("kept");
+    printer.endFrame();
+    assertEquals("kept", frameOutput.toString(), "An unfinished frame should be discarded");
+  }
+}